@@ -21,6 +21,8 @@ public class BasketballGameFragment extends Fragment
          inflater.inflate(R.layout.fragment_game, container, false);
 
       mainGameView = (ShooterView) view.findViewById(R.id.mainGameView);
+      if (savedInstanceState != null)
+         mainGameView.restoreState(savedInstanceState); // carry on after a rotation
       return view;
    }
 
@@ -30,14 +32,30 @@ public class BasketballGameFragment extends Fragment
       super.onActivityCreated(savedInstanceState);
    }
 
-   // when paused, BasektballGameFragment stops the game
+   // when paused, BasektballGameFragment pauses the game
    @Override
    public void onPause()
    {
       super.onPause(); 
-      mainGameView.stopGame();
+      mainGameView.pauseGame();
    } 
+
+   // when resumed, the game carries on where it was paused
+   @Override
+   public void onResume()
+   {
+      super.onResume();
+      mainGameView.resumeGame();
+   }
    
+   // save the game in progress so a recreated fragment resumes it
+   @Override
+   public void onSaveInstanceState(Bundle outState)
+   {
+      super.onSaveInstanceState(outState);
+      mainGameView.saveState(outState);
+   }
+
    // when MainActivity is over, releases game resources
    @Override
    public void onDestroy()
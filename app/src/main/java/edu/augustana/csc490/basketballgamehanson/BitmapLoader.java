@@ -0,0 +1,88 @@
+package edu.augustana.csc490.basketballgamehanson;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.SparseArray;
+
+import java.util.ArrayList;
+
+/**
+ * Decodes drawable resources straight to the size they are drawn at and keeps them
+ * until released. Bounds are read first so the decoder can subsample large images,
+ * and the result is scaled once; a later request for the same size is a cache hit.
+ * A bitmap replaced by one of a new size is kept until recycleReplaced, since another
+ * thread may still be drawing it.
+ */
+public class BitmapLoader
+{
+    private final Resources resources;
+    private final SparseArray<Bitmap> cache = new SparseArray<Bitmap>(); // keyed by resource id
+    private final ArrayList<Bitmap> replaced = new ArrayList<Bitmap>(); // not yet recycled
+
+    public BitmapLoader(Resources resources)
+    {
+        this.resources = resources;
+    }
+
+    // the resource decoded and scaled to width x height, reusing a cached copy if possible
+    public Bitmap load(int resId, int width, int height, Bitmap.Config config)
+    {
+        Bitmap cached = cache.get(resId);
+        if (cached != null && !cached.isRecycled() &&
+                cached.getWidth() == width && cached.getHeight() == height)
+            return cached;
+
+        if (cached != null)
+            replaced.add(cached); // a different size is needed now
+
+        Bitmap bitmap = decode(resId, width, height, config);
+        cache.put(resId, bitmap);
+        return bitmap;
+    }
+
+    private Bitmap decode(int resId, int width, int height, Bitmap.Config config)
+    {
+        // read only the image's dimensions
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        options.inScaled = false; // no density scaling; we scale once to the exact size
+        BitmapFactory.decodeResource(resources, resId, options);
+
+        // subsample by the largest power of two that stays at least as big as needed
+        int sampleSize = 1;
+        while (options.outWidth / (sampleSize * 2) >= width &&
+                options.outHeight / (sampleSize * 2) >= height)
+            sampleSize *= 2;
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        options.inPreferredConfig = config;
+        Bitmap decoded = BitmapFactory.decodeResource(resources, resId, options);
+
+        if (decoded.getWidth() == width && decoded.getHeight() == height)
+            return decoded;
+
+        Bitmap scaled = Bitmap.createScaledBitmap(decoded, width, height, true);
+        if (scaled != decoded)
+            decoded.recycle(); // don't keep the intermediate around
+        return scaled;
+    }
+
+    // recycle the bitmaps that loads have replaced, once nothing draws them any more
+    public void recycleReplaced()
+    {
+        for (int i = 0; i < replaced.size(); ++i)
+            replaced.get(i).recycle();
+        replaced.clear();
+    }
+
+    // recycle every cached bitmap; later loads decode again
+    public void release()
+    {
+        recycleReplaced();
+        for (int i = 0; i < cache.size(); ++i)
+            cache.valueAt(i).recycle();
+        cache.clear();
+    }
+} // end class BitmapLoader
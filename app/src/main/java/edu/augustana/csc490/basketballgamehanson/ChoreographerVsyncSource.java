@@ -0,0 +1,60 @@
+package edu.augustana.csc490.basketballgamehanson;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import edu.augustana.csc490.basketballgamehanson.engine.VsyncFrameScheduler;
+
+/**
+ * Feeds display vsync timestamps from the Choreographer into a VsyncFrameScheduler.
+ * The Choreographer lives on the UI thread, so start and stop hop over to it.
+ */
+public class ChoreographerVsyncSource implements Choreographer.FrameCallback
+{
+    private final VsyncFrameScheduler scheduler;
+    private final Handler uiHandler = new Handler(Looper.getMainLooper());
+    private volatile boolean running;
+
+    public ChoreographerVsyncSource(VsyncFrameScheduler scheduler)
+    {
+        this.scheduler = scheduler;
+    }
+
+    // begin forwarding vsyncs; safe to call from any thread
+    public void start()
+    {
+        running = true;
+        uiHandler.post(new Runnable()
+        {
+            public void run()
+            {
+                Choreographer.getInstance().removeFrameCallback(ChoreographerVsyncSource.this);
+                Choreographer.getInstance().postFrameCallback(ChoreographerVsyncSource.this);
+            }
+        });
+    }
+
+    // stop forwarding vsyncs and release the render thread if it is waiting for one
+    public void stop()
+    {
+        running = false;
+        scheduler.cancel();
+        uiHandler.post(new Runnable()
+        {
+            public void run()
+            {
+                Choreographer.getInstance().removeFrameCallback(ChoreographerVsyncSource.this);
+            }
+        });
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos)
+    {
+        if (!running) return;
+
+        scheduler.onVsync(frameTimeNanos);
+        Choreographer.getInstance().postFrameCallback(this); // ask for the next vsync
+    }
+} // end class ChoreographerVsyncSource
@@ -0,0 +1,139 @@
+package edu.augustana.csc490.basketballgamehanson;
+
+import android.content.Context;
+import android.media.AudioManager;
+import android.media.SoundPool;
+import android.util.Log;
+
+import edu.augustana.csc490.basketballgamehanson.engine.SoundDispatcher;
+import edu.augustana.csc490.basketballgamehanson.engine.SoundEventQueue;
+
+/**
+ * Plays the game's sound effects through a SoundPool, on the audio thread of a
+ * SoundDispatcher. The clips are loaded there when the thread starts, so neither the
+ * UI nor the game thread waits on decoding; events posted before a clip has loaded
+ * are skipped. SoundPool reports finished loads on the main thread, which only notes
+ * the sample ids; the audio thread matches them to its sounds itself.
+ */
+public class GameAudio implements SoundDispatcher.Player
+{
+    private static final String TAG = "GameAudio"; // for Log.w(TAG, ...)
+
+    private static final int MAX_STREAMS = 6; // sounds playing at once
+    private static final long CLIP_NANOS = 250 * 1000000L; // about as long as each clip
+    private static final int QUEUE_CAPACITY = 64; // events waiting for the audio thread
+
+    // clip and priority for each SoundEventQueue sound; a score outranks a bounce
+    private static final int[] CLIPS = {R.raw.cannon_fire, R.raw.blocker_hit, R.raw.target_hit};
+    private static final int[] PRIORITIES = {1, 0, 2};
+
+    private final Context context;
+    private final SoundDispatcher dispatcher;
+    private final Object loadLock = new Object();
+    private final int[] loadedIds = new int[CLIPS.length]; // sample ids loaded, in order
+    private int loadedCount; // guarded by loadLock, like loadedIds
+
+    private SoundPool soundPool; // owned by the audio thread, like the two below
+    private final int[] soundIds = new int[SoundEventQueue.SOUND_COUNT];
+    private int readySounds; // bit s set once sound s is known to be ready to play
+
+    public GameAudio(Context context)
+    {
+        this.context = context;
+        dispatcher = new SoundDispatcher(this, QUEUE_CAPACITY, MAX_STREAMS, CLIP_NANOS);
+    }
+
+    // start the audio thread, which loads the clips and then waits for events
+    public void start()
+    {
+        dispatcher.start("GameAudio");
+    }
+
+    // game thread only: queue sound to be played now; never blocks
+    public void post(int sound)
+    {
+        dispatcher.post(sound);
+    }
+
+    // game thread only: play the sounds posted this frame
+    public void flush()
+    {
+        dispatcher.flush();
+    }
+
+    // stop the audio thread and free the SoundPool; the object can't be used again
+    public void release()
+    {
+        try
+        {
+            dispatcher.release();
+        }
+        catch (InterruptedException e)
+        {
+            Log.e(TAG, "Thread interrupted", e);
+        }
+        Log.i(TAG, getSummary());
+    }
+
+    // event-to-play latency and how many events never played, for the log
+    public String getSummary()
+    {
+        return dispatcher.getSummary();
+    }
+
+    // audio thread: create the SoundPool and start loading the clips into it
+    @Override
+    public void open()
+    {
+        soundPool = new SoundPool(MAX_STREAMS, AudioManager.STREAM_MUSIC, 0);
+        soundPool.setOnLoadCompleteListener(new SoundPool.OnLoadCompleteListener()
+        {
+            @Override
+            public void onLoadComplete(SoundPool pool, int sampleId, int status)
+            {
+                if (status != 0)
+                    return; // never ready; its events go on being skipped
+
+                synchronized (loadLock)
+                {
+                    if (loadedCount < loadedIds.length)
+                        loadedIds[loadedCount++] = sampleId;
+                }
+            }
+        }); // end anonymous SoundPool.OnLoadCompleteListener
+
+        for (int s = 0; s < soundIds.length; ++s)
+            soundIds[s] = soundPool.load(context, CLIPS[s], 1);
+    }
+
+    @Override
+    public boolean isReady(int sound)
+    {
+        if ((readySounds & (1 << sound)) != 0)
+            return true;
+
+        // not known yet: look for its sample among those loaded so far
+        synchronized (loadLock)
+        {
+            for (int i = 0; i < loadedCount; ++i)
+                if (loadedIds[i] == soundIds[sound])
+                {
+                    readySounds |= 1 << sound;
+                    return true;
+                }
+        }
+        return false;
+    }
+
+    @Override
+    public void play(int sound)
+    {
+        soundPool.play(soundIds[sound], 1, 1, PRIORITIES[sound], 0, 1);
+    }
+
+    @Override
+    public void close()
+    {
+        soundPool.release();
+    }
+} // end class GameAudio
@@ -1,12 +0,0 @@
-package edu.augustana.csc490.basketballgamehanson;
-
-/**
- * Created by MHanson on 4/6/2015.
- */
-import android.graphics.Point;
-
-public class Line
-{
-    public Point start = new Point(); // start Point--(0,0) by default
-    public Point end = new Point(); // end Point--(0,0) by default
-} // end class Line
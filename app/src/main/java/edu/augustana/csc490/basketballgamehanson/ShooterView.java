@@ -10,11 +10,11 @@ import android.app.DialogFragment;
 import android.content.Context;
 import android.content.DialogInterface;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Point;
+import android.graphics.Rect;
 import android.os.Bundle;
 import android.util.AttributeSet;
 import android.util.Log;
@@ -22,64 +22,157 @@ import android.view.MotionEvent;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import edu.augustana.csc490.basketballgamehanson.engine.BallStore;
+import edu.augustana.csc490.basketballgamehanson.engine.CappedFrameScheduler;
+import edu.augustana.csc490.basketballgamehanson.engine.DirtyRegionTracker;
+import edu.augustana.csc490.basketballgamehanson.engine.FastTrig;
+import edu.augustana.csc490.basketballgamehanson.engine.FixedStepLoop;
+import edu.augustana.csc490.basketballgamehanson.engine.FrameClock;
+import edu.augustana.csc490.basketballgamehanson.engine.FrameProfiler;
+import edu.augustana.csc490.basketballgamehanson.engine.FrameScheduler;
+import edu.augustana.csc490.basketballgamehanson.engine.GameLoopLifecycle;
+import edu.augustana.csc490.basketballgamehanson.engine.GameWorld;
+import edu.augustana.csc490.basketballgamehanson.engine.HudText;
+import edu.augustana.csc490.basketballgamehanson.engine.Level;
+import edu.augustana.csc490.basketballgamehanson.engine.PacedLoop;
+import edu.augustana.csc490.basketballgamehanson.engine.RenderState;
+import edu.augustana.csc490.basketballgamehanson.engine.SegmentStore;
+import edu.augustana.csc490.basketballgamehanson.engine.SessionLogReader;
+import edu.augustana.csc490.basketballgamehanson.engine.SessionLogWriter;
+import edu.augustana.csc490.basketballgamehanson.engine.SessionRecording;
+import edu.augustana.csc490.basketballgamehanson.engine.SoundEventQueue;
+import edu.augustana.csc490.basketballgamehanson.engine.ShotLog;
+import edu.augustana.csc490.basketballgamehanson.engine.StatsEngine;
+import edu.augustana.csc490.basketballgamehanson.engine.ShotAim;
+import edu.augustana.csc490.basketballgamehanson.engine.TouchInputBuffer;
+import edu.augustana.csc490.basketballgamehanson.engine.TrajectoryTable;
+import edu.augustana.csc490.basketballgamehanson.engine.TripleBuffer;
+import edu.augustana.csc490.basketballgamehanson.engine.ViewTransform;
+import edu.augustana.csc490.basketballgamehanson.engine.VsyncFrameScheduler;
+import edu.augustana.csc490.basketballgamehanson.engine.WorldSnapshot;
+
 public class ShooterView extends SurfaceView implements SurfaceHolder.Callback
 {
     private static final String TAG = "ShooterView"; // for Log.w(TAG, ...)
 
-    private ShooterThread shooterThread; // runs the main game loop
+    // frame pacing: one frame per display vsync, or a sleep-based cap at TARGET_FPS
+    private static final boolean PACE_TO_VSYNC = true;
+    private static final int TARGET_FPS = 60;
+
+    // rapid fire lets every touch launch another basketball while others are in flight
+    private static final boolean RAPID_FIRE = false;
+
+    private static final int LEVEL = R.raw.level_classic; // level file played
+
+    private static final int TOUCH_BUFFER_SIZE = 256; // touch samples queued for simulation
+
+    private static final String SESSION_FILE = "last_session.rec"; // replay of the last game
+    // the session history, each file headed by SessionLogWriter's magic and version
+    private static final String HISTORY_INDEX_FILE = "history.idx"; // one record per game
+    private static final String HISTORY_EVENT_FILE = "history.dat"; // shots of every game
+    // an older history with no header or level, which nothing reads; deleted on sight
+    private static final String[] OLD_HISTORY_FILES = {"sessions.idx", "sessions.dat"};
+    private static final String PROFILE_FILE = "frame_profile.txt"; // last game's frame times
+
+    // saved instance state of a game in progress
+    private static final String SNAPSHOT_KEY = "world_snapshot";
+    private static final String GAME_START_KEY = "game_start_time";
+    private static final String STEP_COUNT_KEY = "step_count"; // steps the game has run
+    private static final String SHOT_LOG_KEY = "shot_log"; // as ShotLog.encode wrote it
+    private static final String RECORDING_KEY = "session_recording"; // the shots so far
+
+    private static final int OVERLAY_REFRESH_FRAMES = 30; // frames between overlay updates
+
+    // aim preview: shot angle by hoop phase cells, and points on each predicted path
+    private static final int PREVIEW_ANGLES = 64;
+    private static final int PREVIEW_PHASES = 48;
+    private static final int PREVIEW_POINTS = 20;
+    private static final int PREVIEW_STEPS_PER_POINT = 3; // 20 points cover a second
+
+    // while the surface exists one thread steps the world and another draws it, so a
+    // slow lockCanvas never holds up the simulation
+    private Thread simulationThread; // steps the world, publishing render states
+    private Thread renderThread; // draws the latest render state each frame
+    private GameLoopLifecycle loopLifecycle; // parks both threads while the game is paused
+    private boolean surfaceReady; // is there a surface to draw on?
+    private boolean activityPaused; // paused by the fragment's lifecycle
     private Activity activity; // keep a reference to the main Activity
     private boolean dialogIsDisplayed = false;
 
 
 
-    //variables for the game loop and tracking statistics
-    private boolean gameOver = true; // is the game over?
-    private double timeLeft; // time remaining in seconds
-    private int score; // players score
-    private int shotsTaken; // shots the user has taken
-    private double totalElapsedTime; // elapsed seconds
-
-    private Line backBoard; // start and end points of backboard
-    private int backboardDistance; // backboard distance from left
-    private int backboardBeginning; // backboard distance from top
-    private int backboardEnd; // backboard bottom's distance from top
-    private int initialBackboardVelocity;  // initial backboard speed multiplier
-    private float backboardVelocity; // backboard speed multiplier
-    private int lineWidth; // width of backboard
-
-    // variables for front of rim
-    private Line frontRim; // start and end points of front of rim
-    private int frontRimDistance; // front of rim distance from left
-    private int frontRimBeginning; // front of rim distance from top
-    private int frontRimEnd; // front of rim bottom's distance from top
-    private int initialFrontRimVelocity; // front of rim initial speed multiplier
-    private float frontRimVelocity; // front of rim speed multiplier
-
-    // variables for point checker
-    private Line pointChecker;
-    private int pointCheckerDistance;
-    private int pointCheckerBeginning;
-    private int pointCheckerEnd;
-    private int initialPointCheckerVelocity;
-    private float pointCheckerVelocity;
-
-    //variables for player and basketball
-    private Point basketball; //basketball image's upper-left corner
-    private int basketballVelocityX; //basketball's x velocity
-    private int basketballVelocityY; // basketball's y velocity
-    private boolean basketballOnScreen; // is the basketball on the screen?
-    private boolean basketballHasScored; // has the basketball gone through the rim?
-    private int basketballRadius; // basketball's radius
-    private int basketballSpeed; // basketball's speed
+    //variables for the game loop
+    private volatile boolean gameOver = true; // is the game over?
+    private GameWorld world; // simulation state: hoop, basketball, clock and score
+    private final Object worldLock = new Object(); // held while the world is stepped or reset
+    private FixedStepLoop gameLoop; // steps the world at a fixed rate
+    private FrameScheduler stepScheduler; // paces the simulation thread at one step per advance
+    private int game; // games started or restored, so the render thread sees a new one
+    private FrameScheduler frameScheduler; // decides when the render thread starts a frame
+    private ChoreographerVsyncSource vsyncSource; // feeds vsyncs when PACE_TO_VSYNC
+
+    // handoff to the render thread: whichever thread holds worldLock publishes into it
+    private TripleBuffer<RenderState> renderStates;
+
+    // drawing, on the render thread only
+    private float renderAlpha; // fraction of a step to interpolate when drawing
+    private int drawnGame = -1; // game of the last state drawn
+    private int endedGame = -1; // last game whose end the render thread has handled
+
+    // touch input: the UI thread queues samples, the simulation thread applies them
+    // before each step
+    private TouchInputBuffer touchInput;
+    private TouchInputBuffer.Consumer touchHandler; // aims and shoots on the simulation thread
+    private long shotLatencyNanos; // total time from touch up to shot, for the stats log
+    private int inputShots; // shots fired from touch input
+    private long inputStep; // index of the step the queued input is being applied before
+    private SessionRecording recording; // shots of the current game, for exact replays
+    private ShotLog shotLog; // shots and outcomes of the current game, for the history
+    private long gameStartTime; // wall clock time the current game started
+    private StatsEngine stats; // running stats on this level, loaded after the first game
+    private ByteBuffer snapshotBuffer; // reused for each snapshot saved
+    private Bundle savedGame; // the saved instance state, restored once sized
+    private boolean unrecordedGame; // resumed without its shots, so neither logged nor replayed
+
+    //variables for the player
     private int playerLength; // player's length
+    private Point playerBase; // where the player stands: the court's bottom left corner
     private Point playerEnd; // the endpoint of the player
 
+    // aim preview, drawn while the finger is down
+    private TrajectoryTable trajectories; // built on a background thread at startup
+    private boolean aiming; // is the finger down?
+    private double aimAngle = Math.PI / 2; // the player's angle, level to start with
+    private int previewCell = -1; // table cell drawn, -1 for none
+    private float[] previewLines; // the drawn path as screen-space line segments
+    private int previewLineCount;
+    private int previewLeft, previewTop, previewRight, previewBottom;
+    private Paint previewPaint; // Paint used to draw the preview
+
 
 
     private float x;
     private int y;
     private int screenWidth;
     private int screenHeight;
+    private ViewTransform worldToScreen; // maps the court onto the screen for drawing
+
+    // held by the render thread while it works out and draws a frame, and by the UI
+    // thread while it swaps in the sizes, paints and bitmaps of a new surface size
+    private final Object drawLock = new Object();
 
     // Paint variables used when drawing each item on the screen
     private Paint textPaint; // Paint used to draw text
@@ -90,9 +183,28 @@ public class ShooterView extends SurfaceView implements SurfaceHolder.Callback
     private Paint frontRimPaint; // Paint used to draw the front of the rim
     private Paint pointCheckerPaint;
 
-    // Bitmap variables used for drawing images
+    private HudText hudText; // score and time remaining, rebuilt only when they change
+    private float hudLineHeight; // distance between the two HUD lines
+
+    // Bitmap variables used for drawing images, sized to the surface in onSizeChanged
+    private BitmapLoader bitmapLoader; // decodes and caches the bitmaps below
     private Bitmap basketballBitMap;
-    private Bitmap backgroundBitMap;
+    private Bitmap backgroundBitMap; // opaque, covers the whole surface
+
+    private GameAudio audio; // sound effects, played off the simulation thread
+
+    // dirty-rectangle rendering: only the parts of the screen that changed are redrawn
+    private DirtyRegionTracker dirtyRegion;
+    private Rect dirtyRect = new Rect(); // area of the surface locked for this frame
+    private int hudBottom; // bottom of the HUD text strip
+
+    // frame timing, with an overlay toggled by a two-finger tap
+    private FrameProfiler profiler;
+    private Paint overlayPaint; // Paint used to draw the profiler overlay
+    private float overlayLineHeight;
+    private int overlayLeft;
+    private int overlayBottom;
+    private boolean overlayShown; // was the overlay drawn last frame?
 
 
 
@@ -109,11 +221,85 @@ public class ShooterView extends SurfaceView implements SurfaceHolder.Callback
 
         getHolder().addCallback(this);
 
-        //initialize Lines and Point representing game items
-        backBoard = new Line();
-        basketball = new Point();
-        frontRim = new Line();
-        pointChecker = new Line();
+        //initialize the simulation
+        world = new GameWorld(RAPID_FIRE, loadLevel(LEVEL));
+        snapshotBuffer = ByteBuffer.allocate(WorldSnapshot.getMaxSize(world));
+        worldToScreen = new ViewTransform();
+        gameLoop = new FixedStepLoop(world);
+        stepScheduler = new CappedFrameScheduler(FrameClock.SYSTEM,
+                (int) Math.round(1 / gameLoop.getStep()));
+        renderStates = new TripleBuffer<RenderState>(new RenderState(world),
+                new RenderState(world), new RenderState(world));
+        loopLifecycle = new GameLoopLifecycle(FrameClock.SYSTEM);
+
+        // aim while the finger is down and moving, shoot when it lifts, and stop aiming
+        // without a shot if the gesture is cancelled
+        touchInput = new TouchInputBuffer(TOUCH_BUFFER_SIZE);
+        touchHandler = new TouchInputBuffer.Consumer()
+        {
+            @Override
+            public void onTouch(int action, float worldX, float worldY, long timeNanos)
+            {
+                if (action == TouchInputBuffer.UP)
+                {
+                    aiming = false;
+                    if (shootBasketball(worldX, worldY))
+                    {
+                        shotLatencyNanos += System.nanoTime() - timeNanos;
+                        ++inputShots;
+                    }
+                }
+                else if (action == TouchInputBuffer.CANCEL)
+                {
+                    aiming = false; // the finger is gone, but it never let go to shoot
+                }
+                else
+                {
+                    alignShot(worldX, worldY);
+                    aiming = true;
+                }
+            }
+        }; // end anonymous TouchInputBuffer.Consumer
+        gameLoop.setStepListener(new FixedStepLoop.StepListener()
+        {
+            @Override
+            public void beforeStep(long stepIndex)
+            {
+                inputStep = stepIndex;
+                touchInput.drain(touchHandler);
+            }
+        }); // end anonymous FixedStepLoop.StepListener
+        recording = new SessionRecording();
+        shotLog = new ShotLog();
+        world.setShotListener(new GameWorld.ShotListener()
+        {
+            @Override
+            public void onShotResolved(int shot, boolean scored)
+            {
+                shotLog.resolve(shot, scored);
+            }
+        }); // end anonymous GameWorld.ShotListener
+        world.setContactListener(new GameWorld.ContactListener()
+        {
+            @Override
+            public void onContact(int segment, int ball)
+            {
+                audio.post(segment == GameWorld.POINT_CHECKER ?
+                        SoundEventQueue.SCORE : SoundEventQueue.RIM);
+            }
+        }); // end anonymous GameWorld.ContactListener
+
+        // pick how the game loop is paced
+        if (PACE_TO_VSYNC)
+        {
+            VsyncFrameScheduler vsyncScheduler = new VsyncFrameScheduler();
+            vsyncSource = new ChoreographerVsyncSource(vsyncScheduler);
+            frameScheduler = vsyncScheduler;
+        }
+        else
+        {
+            frameScheduler = new CappedFrameScheduler(FrameClock.SYSTEM, TARGET_FPS);
+        }
 
 
 
@@ -128,12 +314,35 @@ public class ShooterView extends SurfaceView implements SurfaceHolder.Callback
 
         pointCheckerPaint = new Paint();
 
-        //construct BitMaps
-        basketballBitMap = BitmapFactory.decodeResource(getResources(), R.drawable.ic_launcher);
-        //source: pdclipart.org
-        basketballBitMap = basketballBitMap.createScaledBitmap(basketballBitMap, 40, 40, true);
-        backgroundBitMap = BitmapFactory.decodeResource(getResources(), R.drawable.basketballbackground);
-        backgroundBitMap = backgroundBitMap.createScaledBitmap(backgroundBitMap, 575, 920, true);
+        hudText = new HudText(getResources().getString(R.string.score_label),
+                getResources().getString(R.string.time_remaining_label));
+        dirtyRegion = new DirtyRegionTracker();
+        profiler = new FrameProfiler();
+        overlayPaint = new Paint();
+        overlayPaint.setColor(Color.BLUE);
+
+        // the preview's paths are in world units, so one table does for any size
+        trajectories = new TrajectoryTable(world.getLevel(), PREVIEW_ANGLES, PREVIEW_PHASES,
+                PREVIEW_POINTS, PREVIEW_STEPS_PER_POINT, gameLoop.getStep());
+        Thread trajectoryBuilder = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                trajectories.build();
+            }
+        }, "TrajectoryBuilder"); // end anonymous Runnable
+        trajectoryBuilder.setPriority(Thread.MIN_PRIORITY);
+        trajectoryBuilder.start();
+        previewLines = new float[PREVIEW_POINTS * 2];
+        previewPaint = new Paint();
+
+        //BitMaps are decoded once the surface size is known
+        bitmapLoader = new BitmapLoader(getResources());
+
+        // the clips load on the audio thread while the surface is being created
+        audio = new GameAudio(context);
+        audio.start();
 
 
 
@@ -146,291 +355,708 @@ public class ShooterView extends SurfaceView implements SurfaceHolder.Callback
 
     } // end ShooterView constructor
 
+    // read and compile the level in raw resource id; the built-in classic level if the
+    // file can't be read
+    private Level loadLevel(int id)
+    {
+        try
+        {
+            Reader in = new InputStreamReader(getResources().openRawResource(id), "UTF-8");
+            try
+            {
+                return Level.parse(in);
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+        catch (IOException e)
+        {
+            Log.e(TAG, "Could not load level, playing the classic one", e);
+            return Level.CLASSIC;
+        }
+    }
 
 
-    // called when the size changes (and first time, when view is created)
+    // called when the size changes (and first time, when view is created); the render
+    // thread may be mid-frame, so what it draws with is swapped in under drawLock
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh)
     {
         super.onSizeChanged(w, h, oldw, oldh);
 
-        screenWidth = w;
-        screenHeight = h;
-        playerLength = w / 8; // player length 1/8 screen width
-
-        basketballRadius = w / 36; // basketball radius 1/36 screen width
-        basketballSpeed = w * (12 / 4); // basketball speed multiplier
-
-
-        lineWidth = w / 24; // backboard 1/24 screen width
+        // the court keeps its shape and is scaled to fit; the game itself is unchanged
+        ViewTransform fitted = new ViewTransform();
+        fitted.fit(GameWorld.WIDTH, GameWorld.HEIGHT, w, h);
 
-        // configure instance variables related to the backboard
-        backboardDistance = w * 19 / 20; // backboard 9/10 screen width from left
-        backboardBeginning = h / 8; // distance from top 1/8 screen height
-        backboardEnd = h * 2 / 8; // distance from top 2/8 screen height
-        initialBackboardVelocity = h / 4; // initial backboard speed multiplier
-        backBoard.start = new Point (backboardDistance, backboardBeginning);
-        backBoard.end = new Point(backboardDistance, backboardEnd);
-
-        // configure instance variables related to the front of the rim
-        frontRimDistance = w * 8/10;
-        frontRimBeginning = h * 15 / 64;
-        frontRimEnd = backboardEnd;
-        initialFrontRimVelocity = initialBackboardVelocity;
-        frontRim.start = new Point(frontRimDistance, frontRimBeginning);
-        frontRim.end = new Point(frontRimDistance, frontRimEnd);
+        // decode BitMaps at the size they are drawn, before taking the lock; the
+        // background doubles as the static layer that dirty regions are restored from
+        int basketballSize = Math.max(1,
+                Math.round(fitted.toScreenLength(world.getBasketballRadius() * 2)));
+        Bitmap basketball = bitmapLoader.load(R.drawable.ic_launcher,
+                basketballSize, basketballSize, Bitmap.Config.ARGB_8888);
+        //source: pdclipart.org
+        Bitmap background = bitmapLoader.load(R.drawable.basketballbackground,
+                w, h, Bitmap.Config.RGB_565);
 
+        synchronized (drawLock)
+        {
+            screenWidth = w;
+            screenHeight = h;
+            worldToScreen = fitted;
+            playerLength = (int) worldToScreen.toScreenLength(GameWorld.WIDTH / 8); // 1/8 court width
+            playerBase = new Point((int) worldToScreen.toScreenX(0),
+                    (int) worldToScreen.toScreenY(GameWorld.HEIGHT));
+
+            //endpoint of the player initially points horizontally
+            playerEnd = new Point(playerBase.x + playerLength, playerBase.y);
+
+            // configure Paint objects for drawing game elements
+            float lineWidth = worldToScreen.toScreenLength(world.getLineWidth());
+            textPaint.setTextSize(w / 20); // text size 1/20 of screen width
+            textPaint.setAntiAlias(true); // smoothes the text
+            hudLineHeight = textPaint.getTextSize() * 1.2f;
+            playerPaint.setStrokeWidth(lineWidth * 1.5f); // set line thickness
+            backboardPaint.setStrokeWidth(lineWidth); // set line thickness
+            frontRimPaint.setStrokeWidth(lineWidth / 2);
+            pointCheckerPaint.setStrokeWidth(lineWidth * 3);
+            previewPaint.setStrokeWidth(lineWidth / 2);
+            previewCell = -1; // rebuilt at the new scale next frame
+            backgroundPaint.setColor(Color.WHITE); // set background color
+            hudBottom = (int) (50 + hudLineHeight + textPaint.getTextSize() / 2);
+            overlayPaint.setTextSize(w / 40);
+            overlayPaint.setAntiAlias(true);
+            overlayLineHeight = overlayPaint.getTextSize() * 1.2f;
+            overlayLeft = w / 2;
+            overlayBottom = (int) (30 + overlayLineHeight * profiler.getLineCount());
+
+            basketballBitMap = basketball;
+            backgroundBitMap = background;
+            dirtyRegion.setScreenSize(w, h);
+        }
+        bitmapLoader.recycleReplaced(); // no frame can be drawing the old size now
+
+        // a resize leaves a game in progress alone, and a finished one to its game over
+        // dialog, which starts the next; a recreated view picks up its saved game
+        if (!gameOver || dialogIsDisplayed || restoreSavedGame())
+            updateLoopState(); // carry on now everything is sized
+        else
+            startNewGame();
+    }
 
+    // the world's state as it stands
+    private byte[] takeSnapshot()
+    {
+        snapshotBuffer.clear();
+        int length = WorldSnapshot.write(world, snapshotBuffer);
+        return Arrays.copyOf(snapshotBuffer.array(), length);
+    }
 
-        // configure instance variables related to the point checker
-        pointCheckerDistance = w * 139 / 160;
-        pointCheckerBeginning = h * 15 / 64;
-        pointCheckerEnd = backboardEnd;
-        initialPointCheckerVelocity = initialBackboardVelocity;
-        pointChecker.start = new Point(pointCheckerDistance, pointCheckerBeginning);
-        pointChecker.end = new Point(pointCheckerDistance, pointCheckerEnd);
+    // put the world back to the game saved in the instance state, if there is one;
+    // false if a new game should start instead
+    private boolean restoreSavedGame()
+    {
+        Bundle saved = savedGame;
+        savedGame = null;
+        byte[] snapshot = saved == null ? null : saved.getByteArray(SNAPSHOT_KEY);
+        if (snapshot == null)
+            return false;
 
+        synchronized (worldLock)
+        {
+            try
+            {
+                WorldSnapshot.read(ByteBuffer.wrap(snapshot), world);
+            }
+            catch (IllegalArgumentException e)
+            {
+                Log.w(TAG, "Discarding saved game", e);
+                return false;
+            }
+            if (world.isGameOver())
+                return false;
+
+            // carry on the game's step count, shot log and recording from where they
+            // were saved; a game without them can be played on, but not logged
+            gameStartTime = saved.getLong(GAME_START_KEY);
+            gameLoop.resumeAt(saved.getLong(STEP_COUNT_KEY));
+            unrecordedGame = !restoreShots(saved.getByteArray(SHOT_LOG_KEY),
+                    saved.getByteArray(RECORDING_KEY));
+            shotLatencyNanos = 0;
+            inputShots = 0;
+            gameOver = false;
+            ++game;
+            publishState(System.nanoTime()); // the render thread's first frame of it
+        }
+        return true;
+    }
 
+    // put back the shot log and recording saved with a game; false if either is missing
+    // or doesn't hold every shot the restored world has taken
+    private boolean restoreShots(byte[] shots, byte[] session)
+    {
+        if (shots == null || session == null)
+            return false;
 
-        //endpoint of the player initially points horizontally
-        playerEnd = new Point(playerLength, h);
+        try
+        {
+            shotLog.restore(shots);
+            recording = SessionRecording.readFrom(new ByteArrayInputStream(session));
+        }
+        catch (IOException e)
+        {
+            Log.w(TAG, "Discarding saved shots", e);
+            return false;
+        }
+        catch (BufferUnderflowException e)
+        {
+            Log.w(TAG, "Discarding saved shots", e);
+            return false;
+        }
+        return shotLog.getCount() == world.getShotsTaken() &&
+                recording.getShotCount() == world.getShotsTaken();
+    }
 
-        // configure Paint objects for drawing game elements
-        textPaint.setTextSize(w / 20); // text size 1/20 of screen width
-        textPaint.setAntiAlias(true); // smoothes the text
-        playerPaint.setStrokeWidth(lineWidth * 1.5f); // set line thickness
-        backboardPaint.setStrokeWidth(lineWidth); // set line thickness
-        frontRimPaint.setStrokeWidth(lineWidth / 2);
-        pointCheckerPaint.setStrokeWidth(lineWidth * 3);
-        backgroundPaint.setColor(Color.WHITE); // set background color
+    // save the game in progress; called by BasketballGameFragment onSaveInstanceState
+    public void saveState(Bundle outState)
+    {
+        if (gameOver)
+            return;
 
+        synchronized (worldLock)
+        {
+            outState.putByteArray(SNAPSHOT_KEY, takeSnapshot());
+            outState.putLong(GAME_START_KEY, gameStartTime);
+            outState.putLong(STEP_COUNT_KEY, gameLoop.getStepCount());
+            if (unrecordedGame)
+                return; // nothing whole to save
+
+            byte[] shots = shotLog.encode();
+            outState.putByteArray(SHOT_LOG_KEY, Arrays.copyOf(shots, shotLog.getEncodedLength()));
+            ByteArrayOutputStream session = new ByteArrayOutputStream();
+            try
+            {
+                recording.writeTo(session);
+                outState.putByteArray(RECORDING_KEY, session.toByteArray());
+            }
+            catch (IOException e)
+            {
+                Log.w(TAG, "Could not save session recording", e); // not for a byte array
+            }
+        }
+    }
 
-        startNewGame();
+    // resume a game saved by saveState once the view is laid out; called before layout
+    public void restoreState(Bundle savedState)
+    {
+        savedGame = savedState;
     }
 
     public void startNewGame()
     {
+        // the simulation thread may be mid-advance, so reset between advances
+        synchronized (worldLock)
+        {
+            world.reset();
+            gameLoop.reset();
+            shotLatencyNanos = 0;
+            inputShots = 0;
+            // the world has no random state yet, so there is no seed to record
+            recording.begin(0, world.getLevel().getName(), RAPID_FIRE, gameLoop.getStep());
+            shotLog.clear();
+            gameStartTime = System.currentTimeMillis();
+            stepScheduler.reset();
+            frameScheduler.reset();
+            unrecordedGame = false;
+            aiming = false;
+            gameOver = false;
+            ++game; // the render thread starts the new game's frames afresh
+            publishState(System.nanoTime());
+        }
+        updateLoopState();
+    }
 
+    // start, park or wake the game threads to match the surface, the activity and the
+    // game; called on the UI thread
+    private void updateLoopState()
+    {
+        boolean run = surfaceReady && !activityPaused && !gameOver;
 
-        backboardVelocity = initialBackboardVelocity;
-        frontRimVelocity = initialFrontRimVelocity;
-        pointCheckerVelocity = initialPointCheckerVelocity;
-        timeLeft = 60;
-        score = 0;
-        basketballOnScreen = false;
-        shotsTaken = 0;
-        totalElapsedTime = 0.0;
-
-        backBoard.start.set(backboardDistance, backboardBeginning);
-        backBoard.end.set(backboardDistance, backboardEnd);
-        frontRim.start.set(frontRimDistance, frontRimBeginning);
-        frontRim.end.set(frontRimDistance, frontRimEnd);
-        pointChecker.start.set(pointCheckerDistance, pointCheckerBeginning);
-        pointChecker.end.set(pointCheckerDistance, pointCheckerEnd);
-
-
-        if (gameOver)
+        if (loopLifecycle.getState() == GameLoopLifecycle.CREATED)
         {
-            gameOver = false;
-            shooterThread = new ShooterThread(getHolder());
-            shooterThread.start(); // start the main game loop going
+            if (!surfaceReady)
+                return; // started from surfaceCreated
+
+            loopLifecycle.start();
+            if (run)
+                startFrames();
+            else
+                loopLifecycle.pause(); // the threads park before their first frame
+            simulationThread = new Thread(new PacedLoop(loopLifecycle, stepScheduler,
+                    new SimulationFrame()), "SimulationThread");
+            renderThread = new Thread(new PacedLoop(loopLifecycle, frameScheduler,
+                    new RenderFrame(getHolder())), "RenderThread");
+            simulationThread.start(); // start the game going
+            renderThread.start();
+        }
+        else if (run)
+        {
+            if (loopLifecycle.resume())
+                startFrames();
+        }
+        else if (loopLifecycle.pause())
+        {
+            stopFrames();
         }
     }
 
+    // have the schedulers deliver steps and frames again
+    private void startFrames()
+    {
+        stepScheduler.resume();
+        frameScheduler.resume();
+        if (vsyncSource != null)
+            vsyncSource.start();
+    }
+
+    // stop delivering frames and release the game threads if they are waiting for one
+    private void stopFrames()
+    {
+        stepScheduler.cancel();
+        if (vsyncSource != null)
+            vsyncSource.stop(); // also cancels the scheduler
+        else
+            frameScheduler.cancel();
+    }
+
 
     private void gameStep()
     {
         x++;
     }
 
+    // bank elapsedTimeMS of real time and run the fixed simulation steps it covers;
+    // called on the simulation thread with worldLock held
     public void updatePositions(double elapsedTimeMS){
-        double interval = elapsedTimeMS / 1000.0;
-
-        if (basketballOnScreen) { // if there is currently a basketball on the screen
-            //update basketball position
-            basketball.x += interval * basketballVelocityX;
-            basketball.y += interval *basketballVelocityY;
-            //exerts gravity on ball (archs shot)
-            basketballVelocityY += basketballSpeed / 75;
-
-
-
-
-
-
-
+        gameLoop.advance(elapsedTimeMS / 1000.0);
+        audio.flush(); // play this advance's sounds
 
+        //if the timer reached zero; the render thread parks both threads once it has
+        //drawn the final state
+        if (world.isGameOver() && !gameOver)
+        {
+            gameOver = true; // the game is over
+            touchInput.discard(); // touches after the buzzer don't carry into the next game
+            recording.end(gameLoop.getStepCount(), world);
+            if (!unrecordedGame)
+            {
+                saveRecording();
+                appendToHistory();
+                updateStats();
+            }
+            Log.i(TAG, "Advances: " + stepScheduler.getFrameCount() +
+                    ", late: " + stepScheduler.getDroppedFrames() +
+                    ", render states never drawn since launch: " +
+                    renderStates.getOverwrittenCount() + " of " + renderStates.getPublishedCount());
+            if (inputShots > 0)
+                Log.i(TAG, "Average touch-to-shot latency: " +
+                        shotLatencyNanos / inputShots / 1000000.0 + " ms");
+            Log.i(TAG, audio.getSummary());
 
+            showGameOverDialog(R.string.game_over); // show the game over dialog
+        }
+    }
 
-            // check for collision with backboard
-            if (basketball.x + basketballRadius > backboardDistance - 30 &&
-                    basketball.x - basketballRadius < backboardDistance - 30 &&
-                    basketball.y + basketballRadius > backBoard.start.y &&
-                    basketball.y - basketballRadius < backBoard.end.y) {
+    // copy the world into the render thread's next state, as it stands at timeNanos;
+    // called with worldLock held, which keeps the render states to one producer
+    private void publishState(long timeNanos)
+    {
+        RenderState state = renderStates.getBack();
+        state.capture(world, gameLoop, timeNanos);
+        state.setGame(game);
+        state.setAim(aimAngle, aiming);
+        renderStates.publish();
+    }
 
-                basketballVelocityX *= -0.01; //reverse the basketball's direction
-                //basketballHasScored = true;
+    // called on the render thread once it has drawn the final state of finishedGame:
+    // park both threads until the next game, unless one has started already, and
+    // report on the frames drawn
+    private void finishFrames(int finishedGame)
+    {
+        synchronized (worldLock)
+        {
+            if (finishedGame == game)
+            {
+                loopLifecycle.pause();
+                stopFrames();
+            }
+        }
 
+        Log.i(TAG, "Frames: " + frameScheduler.getFrameCount() +
+                ", dropped: " + frameScheduler.getDroppedFrames() +
+                ", average screen redrawn: " + dirtyRegion.getAverageCoverage());
+        dumpFrameProfile();
+    }
 
-                // check for collision with front of rim
-            } else if (basketball.x + basketballRadius > frontRimDistance - 40 &&
-                    basketball.x - basketballRadius < frontRimDistance - 40 &&
-                    basketball.y + basketballRadius > frontRim.start.y &&
-                    basketball.y - basketballRadius < frontRim.end.y){
-                basketballVelocityX *= -0.01;
+    // aim at the touch, in world units, and shoot; called on the simulation thread,
+    // returns false if no shot
+    public boolean shootBasketball(float worldX, float worldY)
+    {
+        double angle = alignShot(worldX, worldY);
+        if (!world.shootBasketball(angle))
+            return false;
 
-                //check for collisions with left and right walls
-            } else if (basketball.x + basketballRadius > screenWidth || basketball.x - basketballRadius < 0) {
-                basketballOnScreen = false; // remove basketball from screen
-                if(basketballHasScored){
-                    score++;
-                }
-                //check for collisions with top and bottom walls
-            } else if (basketball.y + basketballRadius > screenHeight || basketball.y - basketballRadius < 0) {
-                basketballOnScreen = false;
-                if(basketballHasScored){
-                    score++;
-                }
+        recording.recordShot(inputStep, angle);
+        shotLog.recordShot(inputStep, angle);
+        audio.post(SoundEventQueue.SHOT);
+        return true;
+    }// end method shootBasketball
 
-                // check for collision with point checker
-                // score increases if hit
+    // write the finished game's recording to internal storage, replacing the last one
+    private void saveRecording()
+    {
+        File file = new File(getContext().getFilesDir(), SESSION_FILE);
+        try
+        {
+            OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+            try
+            {
+                recording.writeTo(out);
             }
-            if (basketball.x >= pointCheckerDistance - (lineWidth * 3) &&
-                    basketball.x <= backboardDistance &&
-                    basketball.y > pointChecker.start.y &&
-                    basketball.y < pointChecker.end.y){
-                basketballHasScored = true;
-
+            finally
+            {
+                out.close();
             }
         }
-        // update the backboard's position
-        double backboardUpdate = interval * backboardVelocity;
-        backBoard.start.y += backboardUpdate;
-        backBoard.end.y += backboardUpdate;
-
-        // update the rim's position
-        double frontRimUpdate = interval * frontRimVelocity;
-        double pointCheckerUpdate = interval * pointCheckerVelocity;
-        frontRim.start.y += frontRimUpdate;
-        frontRim.end.y += frontRimUpdate;
-        pointChecker.start.y += pointCheckerUpdate;
-        pointChecker.end.y += pointCheckerUpdate;
-
-
-
-
-        // if the backboard hit the top or bottom, reverse direction
-        if (backBoard.start.y < 2 || backBoard.end.y > screenHeight / 1.2){
-            backboardVelocity *= -1;
-            frontRimVelocity *= -1;
-            pointCheckerVelocity *= -1;
+        catch (IOException e)
+        {
+            Log.e(TAG, "Could not save session recording", e);
         }
+    }
 
+    // add the finished game to the session history kept in internal storage
+    private void appendToHistory()
+    {
+        File directory = getContext().getFilesDir();
+        for (String name : OLD_HISTORY_FILES)
+            new File(directory, name).delete(); // nothing to do once it's gone
 
-        timeLeft -= interval;
-
-        //if the timer reached zero
-        if (timeLeft <= 0.0)
+        try
         {
-            timeLeft = 0.0;
-            gameOver = true; // the game is over
-            shooterThread.setRunning(false);
-            stopGame();
-
-            showGameOverDialog(R.string.game_over); // show the game over dialog
+            SessionLogWriter history = new SessionLogWriter(
+                    new File(directory, HISTORY_INDEX_FILE), new File(directory, HISTORY_EVENT_FILE));
+            try
+            {
+                history.append(gameStartTime, world.getLevel(), RAPID_FIRE, world.getScore(),
+                        world.getShotsTaken(), world.getTotalElapsedTime(), shotLog);
+            }
+            finally
+            {
+                history.close();
+            }
+        }
+        catch (IOException e)
+        {
+            Log.e(TAG, "Could not append to session history", e);
         }
-
-
-
-
     }
 
-    public void shootBasketball(MotionEvent event)
+    // log the frame times of a profiled game and save them to internal storage
+    private void dumpFrameProfile()
     {
-        if (basketballOnScreen) return;
-
-        double angle = alignShot(event);
+        if (profiler.getHistogram(FrameProfiler.FRAME).getCount() == 0)
+            return; // the profiler was never switched on
 
-        //move the basketball to start from bottom left
-        basketball.x = basketballRadius;
-        basketball.y = screenHeight * 15 / 16;
+        String report;
+        synchronized (worldLock) // UPDATE is recorded under it
+        {
+            report = profiler.summary(frameScheduler.getFrameCount(),
+                    frameScheduler.getDroppedFrames());
+        }
+        for (String line : report.split("\n"))
+            Log.i(TAG, line);
 
-        //get the x component of the total velocity
-        basketballVelocityX = (int) (basketballSpeed * Math.sin(angle));
+        File file = new File(getContext().getFilesDir(), PROFILE_FILE);
+        try
+        {
+            OutputStream out = new FileOutputStream(file);
+            try
+            {
+                out.write(report.getBytes("UTF-8"));
+            }
+            finally
+            {
+                out.close();
+            }
+        }
+        catch (IOException e)
+        {
+            Log.e(TAG, "Could not save frame profile", e);
+        }
+    }
 
-        //get the y component of the total velocity
-        basketballVelocityY = (int) (-basketballSpeed * Math.cos(angle));
-        basketballOnScreen = true; // the basketball is on the screen
-        basketballHasScored = false;
-        ++shotsTaken; // increment shotsTaken
+    // bring the running stats up to date with the game that just finished
+    private void updateStats()
+    {
+        if (stats == null)
+        {
+            // the first game since launch seeds the stats from the whole history,
+            // which already holds that game; after that each game is added on its own
+            stats = new StatsEngine();
+            File directory = getContext().getFilesDir();
+            try
+            {
+                stats.addHistory(new SessionLogReader(
+                        new File(directory, HISTORY_INDEX_FILE), new File(directory, HISTORY_EVENT_FILE)),
+                        world.getLevel());
+                return;
+            }
+            catch (IOException e)
+            {
+                Log.e(TAG, "Could not read session history", e);
+            }
+        }
+        stats.recordGame(gameStartTime, world.getScore(), shotLog);
+    }
 
 
-    }// end method shootBasketball
 
+    // point the player at the touch, in world units; called on the simulation thread
+    public double alignShot(float worldX, float worldY){
+        // angle of the touch as seen from the bottom left of the court
+        aimAngle = ShotAim.angle(worldX, worldY, GameWorld.HEIGHT);
+        return aimAngle;
+    } //end method alignShot
 
+    // calculate the endpoint of the player from its angle; called on the render thread
+    private void aimPlayer(double angle)
+    {
+        playerEnd.x = (int) (playerBase.x + playerLength * FastTrig.sin((float) angle));
+        playerEnd.y = (int) (playerBase.y - playerLength * FastTrig.cos((float) angle));
+    }
 
-    public double alignShot(MotionEvent event){
-        //get the location of the touch in this view
-        Point touchPoint = new Point((int) event.getX(), (int) event.getY());
+    // work out which part of the screen changed since the last frame to show state;
+    // null if none did
+    public Rect computeDirtyRegion(RenderState state)
+    {
+        dirtyRegion.beginFrame();
 
+        // the basketball bitmaps, as one box around every ball in flight; each bitmap's
+        // top left corner is a radius up and left of its center, and boxes are found in
+        // world units and mapped onto the screen once
+        BallStore balls = state.getBalls();
+        if (balls.getActiveCount() > 0)
+        {
+            float ballLeft = Float.MAX_VALUE, ballTop = Float.MAX_VALUE;
+            float ballRight = -Float.MAX_VALUE, ballBottom = -Float.MAX_VALUE;
+            for (int i = 0; i < balls.getCapacity(); ++i)
+            {
+                if (!balls.active[i])
+                    continue;
+
+                float ballX = balls.interpolatedX(i, renderAlpha) - balls.radius[i];
+                float ballY = balls.interpolatedY(i, renderAlpha) - balls.radius[i];
+                ballLeft = Math.min(ballLeft, ballX);
+                ballTop = Math.min(ballTop, ballY);
+                ballRight = Math.max(ballRight, ballX);
+                ballBottom = Math.max(ballBottom, ballY);
+            }
+            dirtyRegion.mark(DirtyRegionTracker.BALL, (int) worldToScreen.toScreenX(ballLeft) - 1,
+                    (int) worldToScreen.toScreenY(ballTop) - 1,
+                    (int) worldToScreen.toScreenX(ballRight) + basketballBitMap.getWidth() + 2,
+                    (int) worldToScreen.toScreenY(ballBottom) + basketballBitMap.getHeight() + 2, false);
+        }
+        else
+        {
+            dirtyRegion.mark(DirtyRegionTracker.BALL, 0, 0, 0, 0, false);
+        }
 
-        // compute the touch's distance from bottom left of the screen on the y-axis
-        double centerMinusY = (screenHeight - touchPoint.y);
+        // the backboard, rim and point checker move together as one column
+        SegmentStore segments = state.getSegments();
+        int halfStroke = (int) Math.ceil(pointCheckerPaint.getStrokeWidth() / 2) + 1;
+        float hoopLeft = Float.MAX_VALUE, hoopRight = -Float.MAX_VALUE;
+        float hoopTop = Float.MAX_VALUE, hoopBottom = -Float.MAX_VALUE;
+        for (int i = 0; i < segments.getCount(); ++i)
+        {
+            float startX = segments.interpolatedStartX(i, renderAlpha);
+            float endX = segments.interpolatedEndX(i, renderAlpha);
+            hoopLeft = Math.min(hoopLeft, Math.min(startX, endX));
+            hoopRight = Math.max(hoopRight, Math.max(startX, endX));
+            hoopTop = Math.min(hoopTop, segments.interpolatedStartY(i, renderAlpha));
+            hoopBottom = Math.max(hoopBottom, segments.interpolatedEndY(i, renderAlpha));
+        }
+        dirtyRegion.mark(DirtyRegionTracker.HOOP, (int) worldToScreen.toScreenX(hoopLeft) - halfStroke,
+                (int) worldToScreen.toScreenY(hoopTop) - 1,
+                (int) worldToScreen.toScreenX(hoopRight) + halfStroke,
+                (int) worldToScreen.toScreenY(hoopBottom) + 2, false);
+
+        // the player line from the bottom left corner
+        aimPlayer(state.getAimAngle());
+        int playerStroke = (int) Math.ceil(playerPaint.getStrokeWidth() / 2) + 1;
+        dirtyRegion.mark(DirtyRegionTracker.PLAYER, Math.min(playerBase.x, playerEnd.x) - playerStroke,
+                Math.min(playerBase.y, playerEnd.y) - playerStroke,
+                Math.max(playerBase.x, playerEnd.x) + playerStroke, playerBase.y + playerStroke, false);
+
+        // the aim preview: a table lookup, redrawn when the angle or hoop changes cell
+        int cell = state.isAiming() ?
+                trajectories.find(state.getAimAngle(), state.getHoopPhase()) : -1;
+        boolean previewChanged = cell != previewCell;
+        if (previewChanged)
+            buildPreview(cell);
+        if (previewCell >= 0)
+            dirtyRegion.mark(DirtyRegionTracker.PREVIEW, previewLeft, previewTop,
+                    previewRight, previewBottom, previewChanged);
+        else
+            dirtyRegion.mark(DirtyRegionTracker.PREVIEW, 0, 0, 0, 0, false);
+
+        // the HUD strip, whenever its text changes
+        boolean hudChanged = hudText.update(state.getScore(), state.getTimeLeft());
+        dirtyRegion.mark(DirtyRegionTracker.HUD, 0, 0, screenWidth, hudBottom, hudChanged);
+
+        // the profiler overlay, refreshed a couple of times a second while it is on
+        if (profiler.isEnabled())
+        {
+            boolean overlayChanged = !overlayShown ||
+                    frameScheduler.getFrameCount() % OVERLAY_REFRESH_FRAMES == 0;
+            if (overlayChanged)
+            {
+                synchronized (worldLock) // UPDATE is recorded under it
+                {
+                    profiler.updateText(frameScheduler.getFrameCount(),
+                            frameScheduler.getDroppedFrames());
+                }
+            }
+            dirtyRegion.mark(DirtyRegionTracker.OVERLAY, overlayLeft, 0, screenWidth, overlayBottom,
+                    overlayChanged);
+            overlayShown = true;
+        }
+        else
+        {
+            dirtyRegion.mark(DirtyRegionTracker.OVERLAY, 0, 0, 0, 0, false);
+            overlayShown = false;
+        }
 
-        double angle = 0; //initialize angle to 0
+        if (!dirtyRegion.endFrame())
+            return null;
 
-        // calculate the angle the player makes with the horizontal
-        if(centerMinusY != 0) //prevent division by 0
-            angle = Math.atan((double) touchPoint.x / centerMinusY);
+        dirtyRect.set(dirtyRegion.getLeft(), dirtyRegion.getTop(),
+                dirtyRegion.getRight(), dirtyRegion.getBottom());
+        return dirtyRect;
+    }
 
-        // if the touch is on the lower half of the screen
-        if (touchPoint.y > screenHeight)
-            angle += Math.PI; // adjust the angle
+    // map table cell's path onto the screen as dashes, every other gap between points
+    private void buildPreview(int cell)
+    {
+        previewCell = cell;
+        previewLineCount = 0;
+        if (cell < 0)
+            return;
+
+        float left = Float.MAX_VALUE, top = Float.MAX_VALUE;
+        float right = -Float.MAX_VALUE, bottom = -Float.MAX_VALUE;
+        int points = trajectories.getPointCount(cell);
+        for (int k = 0; k + 1 < points; k += 2)
+        {
+            int i = previewLineCount * 4;
+            previewLines[i] = worldToScreen.toScreenX(trajectories.getX(cell, k));
+            previewLines[i + 1] = worldToScreen.toScreenY(trajectories.getY(cell, k));
+            previewLines[i + 2] = worldToScreen.toScreenX(trajectories.getX(cell, k + 1));
+            previewLines[i + 3] = worldToScreen.toScreenY(trajectories.getY(cell, k + 1));
+            for (int j = i; j < i + 4; j += 2)
+            {
+                left = Math.min(left, previewLines[j]);
+                top = Math.min(top, previewLines[j + 1]);
+                right = Math.max(right, previewLines[j]);
+                bottom = Math.max(bottom, previewLines[j + 1]);
+            }
+            ++previewLineCount;
+        }
+        if (previewLineCount == 0)
+        {
+            previewCell = -1; // nothing to draw
+            return;
+        }
 
-        // calculate the endpoint of the player
-        playerEnd.x = (int) (playerLength * Math.sin(angle));
-        playerEnd.y = (int) (-playerLength * Math.cos(angle) + screenHeight);
+        int stroke = (int) Math.ceil(previewPaint.getStrokeWidth() / 2) + 1;
+        previewLeft = (int) left - stroke;
+        previewTop = (int) top - stroke;
+        previewRight = (int) right + stroke + 1;
+        previewBottom = (int) bottom + stroke + 1;
 
-        return angle;
-    } //end method alignShot
+        // green if the shot would score from here
+        previewPaint.setColor(trajectories.scores(cell) ? Color.GREEN : Color.DKGRAY);
+    }
 
-    public void drawGameElements(Canvas canvas)
+    // draw state into canvas, which covers dirtyRect as adjusted by lockCanvas
+    public void drawGameElements(Canvas canvas, RenderState state)
     {
 
 
         if (canvas != null) {
 
+            dirtyRegion.recordPixels((long) dirtyRect.width() * dirtyRect.height());
 
-            //draw the background
-            canvas.drawBitmap(backgroundBitMap, 0,0, backgroundPaint);
-
-            //display shots taken and time remaining
-            canvas.drawText(getResources().getString(R.string.score_time_remaining_format, score, timeLeft), 30, 50, textPaint);
+            //restore the background under the dirty area
+            canvas.drawBitmap(backgroundBitMap, dirtyRect, dirtyRect, null);
 
+            //display score and time remaining
+            char[] hudChars = hudText.getChars();
+            canvas.drawText(hudChars, 0, hudText.getScoreLength(), 30, 50, textPaint);
+            canvas.drawText(hudChars, hudText.getTimeStart(), hudText.getTimeLength(),
+                    30, 50 + hudLineHeight, textPaint);
 
-            // if a basketball is currently on the screen, draw it
-            if(basketballOnScreen){
 
+            // draw the aim preview under the basketballs
+            if (previewLineCount > 0)
+                canvas.drawLines(previewLines, 0, previewLineCount * 4, previewPaint);
 
-                canvas.drawBitmap(basketballBitMap, basketball.x, basketball.y, basketballPaint);
-
+            // draw every basketball currently on the screen, centered where it is
+            BallStore balls = state.getBalls();
+            for (int i = 0; i < balls.getCapacity(); ++i)
+            {
+                if (balls.active[i])
+                    canvas.drawBitmap(basketballBitMap,
+                            worldToScreen.toScreenX(balls.interpolatedX(i, renderAlpha) - balls.radius[i]),
+                            worldToScreen.toScreenY(balls.interpolatedY(i, renderAlpha) - balls.radius[i]),
+                            basketballPaint);
             }
 
             //draw the player
-            canvas.drawLine(0, screenHeight, playerEnd.x, playerEnd.y, playerPaint);
+            canvas.drawLine(playerBase.x, playerBase.y, playerEnd.x, playerEnd.y, playerPaint);
 
 
             // draw the backboard
-            canvas.drawLine(backBoard.start.x, backBoard.start.y, backBoard.end.x, backBoard.end.y, backboardPaint);
+            SegmentStore segments = state.getSegments();
+            drawSegment(canvas, segments, GameWorld.BACKBOARD, backboardPaint);
 
             //draw the front of the rim
-            canvas.drawLine(frontRim.start.x, frontRim.start.y, frontRim.end.x, frontRim.end.y, frontRimPaint);
+            drawSegment(canvas, segments, GameWorld.FRONT_RIM, frontRimPaint);
 
             //draw the point checker
-            canvas.drawLine(pointChecker.start.x, pointChecker.start.y, pointChecker.end.x, pointChecker.end.y, pointCheckerPaint);
+            drawSegment(canvas, segments, GameWorld.POINT_CHECKER, pointCheckerPaint);
+
+            // draw the profiler overlay: p50, p95 and p99 of each phase in ms
+            if (overlayShown)
+            {
+                char[] overlayChars = profiler.getText();
+                for (int line = 0; line < profiler.getLineCount(); ++line)
+                    canvas.drawText(overlayChars, profiler.getLineStart(line),
+                            profiler.getLineLength(line), overlayLeft,
+                            30 + overlayLineHeight * (line + 1), overlayPaint);
+            }
         }
     }// end method drawGameElements
 
+    // draw hoop segment i at its interpolated position
+    private void drawSegment(Canvas canvas, SegmentStore segments, int i, Paint paint)
+    {
+        canvas.drawLine(worldToScreen.toScreenX(segments.interpolatedStartX(i, renderAlpha)),
+                worldToScreen.toScreenY(segments.interpolatedStartY(i, renderAlpha)),
+                worldToScreen.toScreenX(segments.interpolatedEndX(i, renderAlpha)),
+                worldToScreen.toScreenY(segments.interpolatedEndY(i, renderAlpha)), paint);
+    }
+
     //display an AlertDialog when the game ends
     private void showGameOverDialog(final int messageId){
         // DialogFragment to display stats and start new game
@@ -447,8 +1073,14 @@ public class ShooterView extends SurfaceView implements SurfaceHolder.Callback
                         builder.setTitle(getResources().getString(messageId));
 
                         // display number of shots taken and total time elapsed
-                        builder.setMessage(getResources().getString(
-                                R.string.results_format, shotsTaken, score));
+                        String message = getResources().getString(
+                                R.string.results_format, world.getShotsTaken(), world.getScore());
+                        if (stats != null)
+                            message += "\n\n" + getResources().getString(R.string.stats_format,
+                                    stats.getShootingPercentage(), stats.getLongestStreak(),
+                                    stats.getLeaderboard().getBestScore(),
+                                    (int) Math.round(stats.getScorePercentile(50)));
+                        builder.setMessage(message);
                         builder.setPositiveButton(R.string.reset_game,
                                 new DialogInterface.OnClickListener()
                                 {
@@ -479,26 +1111,33 @@ public class ShooterView extends SurfaceView implements SurfaceHolder.Callback
         );
     }
 
-    // stop the game; may be called by the BasektballGameFragment onPause
-    public void stopGame()
+    // pause the game where it is; called by the BasketballGameFragment onPause
+    public void pauseGame()
     {
-        if(shooterThread != null){
-            shooterThread.setRunning(false);
-        }
+        activityPaused = true;
+        updateLoopState();
+    }
 
+    // carry on from exactly where pauseGame left off; called by BasketballGameFragment onResume
+    public void resumeGame()
+    {
+        activityPaused = false;
+        updateLoopState();
     }
 
     // release resources; may be called by BasektballGameFragment onDestroy
     public void releaseResources()
     {
-        // release any resources (e.g. SoundPool stuff)
+        audio.release();
+        bitmapLoader.release();
     }
 
     @Override
     public void surfaceCreated(SurfaceHolder holder)
     {
-
-
+        dirtyRegion.invalidateAll(); // a new surface has no valid pixels yet
+        surfaceReady = true;
+        updateLoopState(); // start the game threads for this surface
     }
 
     @Override
@@ -510,15 +1149,18 @@ public class ShooterView extends SurfaceView implements SurfaceHolder.Callback
     @Override
     public void surfaceDestroyed(SurfaceHolder holder)
     {
-        // ensure that thread terminates properly
+        // ensure that the threads terminate properly
         boolean retry = true;
-        shooterThread.setRunning(false); // terminate gameThread
+        surfaceReady = false;
+        loopLifecycle.stop(); // terminate both threads, waking them if parked
+        stopFrames();
 
         while (retry)
         {
             try
             {
-                shooterThread.join(); // wait for shooterThread to finish
+                simulationThread.join(); // wait for both threads to finish
+                renderThread.join();
                 retry = false;
             }
             catch (InterruptedException e)
@@ -526,67 +1168,129 @@ public class ShooterView extends SurfaceView implements SurfaceHolder.Callback
                 Log.e(TAG, "Thread interrupted", e);
             }
         }
+        loopLifecycle.reset(); // the next surface gets new threads
     }
 
+    // queue the touch for the simulation thread; never blocks or touches game state here
     @Override
     public boolean onTouchEvent(MotionEvent e)
     {
+        switch (e.getActionMasked())
+        {
+            case MotionEvent.ACTION_DOWN:
+                offerTouch(TouchInputBuffer.DOWN, e.getX(), e.getY(), e.getEventTime());
+                break;
+            case MotionEvent.ACTION_MOVE:
+                // batched samples since the last event come first, oldest to newest
+                for (int h = 0; h < e.getHistorySize(); ++h)
+                    offerTouch(TouchInputBuffer.MOVE, e.getHistoricalX(h),
+                            e.getHistoricalY(h), e.getHistoricalEventTime(h));
+                offerTouch(TouchInputBuffer.MOVE, e.getX(), e.getY(), e.getEventTime());
+                break;
+            case MotionEvent.ACTION_UP:
+                offerTouch(TouchInputBuffer.UP, e.getX(), e.getY(), e.getEventTime());
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                // e.g. a parent view took the gesture over: stop aiming, don't shoot
+                offerTouch(TouchInputBuffer.CANCEL, e.getX(), e.getY(), e.getEventTime());
+                break;
+            case MotionEvent.ACTION_POINTER_DOWN:
+                profiler.setEnabled(!profiler.isEnabled()); // a second finger toggles the overlay
+                break;
+        }
 
-        shootBasketball(e);
+        return true;
+    }
 
+    // queue a touch at screen point (x, y) in world units, since the transform belongs to
+    // this thread and the render thread; timeMillis is in the uptime base of MotionEvent
+    private void offerTouch(int action, float x, float y, long timeMillis)
+    {
+        touchInput.offer(action, worldToScreen.toWorldX(x), worldToScreen.toWorldY(y),
+                timeMillis * 1000000L);
+    }
 
-        //}
+    // steps the world and publishes what it looks like after each advance; run by the
+    // simulation thread's PacedLoop
+    private class SimulationFrame implements PacedLoop.Frame
+    {
+        @Override
+        public void onResumed(long latencyNanos)
+        {
+            Log.i(TAG, "Resumed in " + latencyNanos / 1000 + " us");
+        }
 
-        return true;
-    }
+        @Override
+        public void run(long frameNanos, long elapsedNanos)
+        {
+            synchronized (worldLock)
+            {
+                long updateStart = System.nanoTime();
+                updatePositions(elapsedNanos / 1000000.0); // update game state
+                if (profiler.isEnabled()) // once per advance, however often it is drawn
+                    profiler.record(FrameProfiler.UPDATE, System.nanoTime() - updateStart);
+                publishState(frameNanos);
+            }
+        }
+    } // end class SimulationFrame
 
-    // Thread subclass to run the main game loop
-    private class ShooterThread extends Thread
+    // draws the latest published state; run by the render thread's PacedLoop
+    private class RenderFrame implements PacedLoop.Frame
     {
         private SurfaceHolder surfaceHolder; // for manipulating canvas
-        private boolean threadIsRunning = true; // running by default
 
         // initializes the surface holder
-        public ShooterThread(SurfaceHolder holder)
+        public RenderFrame(SurfaceHolder holder)
         {
             surfaceHolder = holder;
-            setName("ShooterThread");
-
         }
 
-        // changes running state
-        public void setRunning(boolean running)
+        @Override
+        public void onResumed(long latencyNanos)
         {
-            threadIsRunning = running;
+            // the simulation thread logs resumes
         }
 
         @Override
-        public void run()
+        public void run(long frameNanos, long elapsedNanos)
         {
-            Canvas canvas = null;
-            long previousFrameTime = System.currentTimeMillis();
+            // the latest state, interpolated on to now; never waits for the simulation
+            RenderState state = renderStates.acquire();
+            renderAlpha = state.getAlpha(frameNanos);
+            if (state.getGame() != drawnGame)
+            {
+                drawnGame = state.getGame(); // a new game has no valid pixels yet
+                dirtyRegion.invalidateAll();
+                dirtyRegion.resetCounters();
+                synchronized (worldLock)
+                {
+                    profiler.clear(); // UPDATE is recorded under worldLock
+                }
+            }
 
-            while (threadIsRunning)
+            // time this frame's phases only if the profiler is on as it starts
+            boolean profiling = profiler.isEnabled();
+            long lockStart = 0, drawStart = 0, postStart = 0;
+            boolean locked = false; // was there anything to redraw?
+
+            // a resize waits for this frame to finish, and this frame for a resize
+            synchronized (drawLock)
             {
+                Canvas canvas = null;
                 try
                 {
-                    // get Canvas for exclusive drawing from this thread
-                    canvas = surfaceHolder.lockCanvas(null);
-
-                    // lock the surfaceHolder for drawing
-                    synchronized(surfaceHolder)
+                    // get Canvas for exclusive drawing from this thread, covering only
+                    // what changed; lockCanvas may grow dirtyRect in place
+                    Rect dirty = computeDirtyRegion(state);
+                    if (dirty != null)
                     {
-
-
-                        long currentTime = System.currentTimeMillis();
-                        double elapsedTimeMS = currentTime - previousFrameTime;
-                        previousFrameTime = currentTime; // update previous time
-                        totalElapsedTime += elapsedTimeMS / 1000.0;
-                        updatePositions(10); // update game state
-                        drawGameElements(canvas); // draw using the canvas
-
+                        if (profiling) lockStart = System.nanoTime();
+                        canvas = surfaceHolder.lockCanvas(dirty);
+                        locked = canvas != null;
+                        if (profiling) drawStart = System.nanoTime();
+                        drawGameElements(canvas, state); // draw using the canvas
+                        if (profiling) postStart = System.nanoTime();
                     }
-
                 }
                 finally  // regardless if any errors happen...
                 {
@@ -595,6 +1299,28 @@ public class ShooterView extends SurfaceView implements SurfaceHolder.Callback
                         surfaceHolder.unlockCanvasAndPost(canvas);
                 }
             }
+
+            if (profiling)
+            {
+                profiler.record(FrameProfiler.FRAME, elapsedNanos);
+                if (locked) // a frame with nothing to redraw has no canvas phases
+                {
+                    profiler.record(FrameProfiler.LOCK_CANVAS, drawStart - lockStart);
+                    profiler.record(FrameProfiler.DRAW, postStart - drawStart);
+                    profiler.record(FrameProfiler.POST, System.nanoTime() - postStart);
+                }
+                else
+                {
+                    profiler.recordSkippedFrame();
+                }
+            }
+
+            // the final state is on the screen, so the game can stop here
+            if (state.isGameOver() && state.getGame() != endedGame)
+            {
+                endedGame = state.getGame();
+                finishFrames(endedGame);
+            }
         }
-    }
+    } // end class RenderFrame
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package edu.augustana.csc490.basketballgamehanson.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.augustana.csc490.basketballgamehanson.engine.FastTrig;
+import edu.augustana.csc490.basketballgamehanson.engine.GameWorld;
+import edu.augustana.csc490.basketballgamehanson.engine.ShotAim;
+import edu.augustana.csc490.basketballgamehanson.engine.ViewTransform;
+
+/**
+ * Cost of turning a touch into a shot: mapping the touch onto the court, the alignShot
+ * angle, and the player endpoint back on the screen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AimBenchmark
+{
+    private static final int TOUCHES = 1024; // power of two, indexed with a mask
+
+    private final float[] touches = new float[TOUCHES * 2];
+    private final ViewTransform worldToScreen = new ViewTransform();
+    private float playerLength;
+    private float playerBaseX;
+    private float playerBaseY;
+    private int next;
+
+    @Setup
+    public void setUp()
+    {
+        worldToScreen.fit(GameWorld.WIDTH, GameWorld.HEIGHT,
+                BenchmarkWorlds.SCREEN_WIDTH, BenchmarkWorlds.SCREEN_HEIGHT);
+        playerLength = worldToScreen.toScreenLength(GameWorld.WIDTH / 8);
+        playerBaseX = worldToScreen.toScreenX(0);
+        playerBaseY = worldToScreen.toScreenY(GameWorld.HEIGHT);
+
+        Random random = new Random(11);
+        for (int i = 0; i < touches.length; i += 2)
+        {
+            touches[i] = random.nextFloat() * BenchmarkWorlds.SCREEN_WIDTH;
+            touches[i + 1] = random.nextFloat() * BenchmarkWorlds.SCREEN_HEIGHT;
+        }
+    }
+
+    @Benchmark
+    public double alignShot()
+    {
+        int i = (next++ & (TOUCHES - 1)) * 2;
+        double angle = ShotAim.angle(worldToScreen.toWorldX(touches[i]),
+                worldToScreen.toWorldY(touches[i + 1]), GameWorld.HEIGHT);
+
+        // the player endpoint alignShot computes from the angle
+        int endX = (int) (playerBaseX + playerLength * FastTrig.sin((float) angle));
+        int endY = (int) (playerBaseY - playerLength * FastTrig.cos((float) angle));
+        return angle + endX + endY;
+    }
+} // end class AimBenchmark
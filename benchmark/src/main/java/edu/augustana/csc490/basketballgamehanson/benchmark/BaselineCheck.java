@@ -0,0 +1,94 @@
+package edu.augustana.csc490.basketballgamehanson.benchmark;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH CSV result file with the committed baseline and exits non-zero if any
+ * benchmark's average time grew by more than the tolerance.
+ *
+ * Usage: BaselineCheck baseline.csv results.csv [tolerance, e.g. 0.25 for 25%]
+ */
+public class BaselineCheck
+{
+    public static void main(String[] args) throws IOException
+    {
+        Map<String, Double> baseline = readScores(args[0]);
+        Map<String, Double> results = readScores(args[1]);
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.25;
+
+        int regressions = 0;
+        for (Map.Entry<String, Double> result : results.entrySet())
+        {
+            Double before = baseline.get(result.getKey());
+            if (before == null)
+            {
+                System.out.println(String.format("NEW   %-70s %12.3f", result.getKey(), result.getValue()));
+                continue;
+            }
+
+            double change = result.getValue() / before - 1;
+            boolean regressed = change > tolerance;
+            if (regressed)
+                ++regressions;
+            System.out.println(String.format("%-5s %-70s %12.3f -> %12.3f (%+.1f%%)",
+                    regressed ? "SLOW" : "OK", result.getKey(), before, result.getValue(), change * 100));
+        }
+
+        if (regressions > 0)
+        {
+            System.out.println(regressions + " benchmark(s) regressed by more than " +
+                    Math.round(tolerance * 100) + "%");
+            System.exit(1);
+        }
+    }
+
+    // benchmark name (with parameters) to score, from a JMH -rf csv file
+    private static Map<String, Double> readScores(String path) throws IOException
+    {
+        Map<String, Double> scores = new LinkedHashMap<String, Double>();
+        BufferedReader reader = new BufferedReader(new FileReader(path));
+        try
+        {
+            String[] header = splitCsv(reader.readLine());
+            int scoreColumn = indexOf(header, "Score");
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                String[] columns = splitCsv(line);
+                StringBuilder name = new StringBuilder(columns[0]);
+                for (int i = scoreColumn + 3; i < columns.length && i < header.length; ++i)
+                {
+                    if (!columns[i].isEmpty()) // "Param: ..." columns, blank if unused
+                        name.append(' ').append(header[i]).append('=').append(columns[i]);
+                }
+                scores.put(name.toString(), Double.parseDouble(columns[scoreColumn]));
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+        return scores;
+    }
+
+    private static int indexOf(String[] header, String column)
+    {
+        for (int i = 0; i < header.length; ++i)
+            if (header[i].equals(column))
+                return i;
+        throw new IllegalArgumentException("No " + column + " column in JMH results");
+    }
+
+    // JMH quotes every text field and never embeds commas or quotes in them
+    private static String[] splitCsv(String line)
+    {
+        String[] columns = line.split(",");
+        for (int i = 0; i < columns.length; ++i)
+            columns[i] = columns[i].replace("\"", "");
+        return columns;
+    }
+} // end class BaselineCheck
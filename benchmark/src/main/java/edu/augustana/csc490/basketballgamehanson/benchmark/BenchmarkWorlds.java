@@ -0,0 +1,48 @@
+package edu.augustana.csc490.basketballgamehanson.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import edu.augustana.csc490.basketballgamehanson.engine.GameWorld;
+
+/**
+ * Headless stand-ins for the state ShooterView owns, with a view at a typical phone
+ * resolution, and the app's level files.
+ */
+final class BenchmarkWorlds
+{
+    static final int SCREEN_WIDTH = 1080;
+    static final int SCREEN_HEIGHT = 1776;
+
+    static final String[] LEVELS = {"classic", "drift", "orbit"}; // level_*.txt in res/raw
+
+    private BenchmarkWorlds()
+    {
+    }
+
+    static GameWorld newWorld()
+    {
+        return new GameWorld();
+    }
+
+    // the text of level_name.txt, which the build copies onto the classpath
+    static String readLevel(String name) throws IOException
+    {
+        InputStream in = BenchmarkWorlds.class.getResourceAsStream("/level_" + name + ".txt");
+        if (in == null)
+            throw new IOException("no level file for " + name);
+        try
+        {
+            ByteArrayOutputStream text = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int n = in.read(buffer); n > 0; n = in.read(buffer))
+                text.write(buffer, 0, n);
+            return text.toString("UTF-8");
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+} // end class BenchmarkWorlds
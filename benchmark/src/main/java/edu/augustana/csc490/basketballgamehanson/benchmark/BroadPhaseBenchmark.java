@@ -0,0 +1,76 @@
+package edu.augustana.csc490.basketballgamehanson.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.augustana.csc490.basketballgamehanson.engine.BallContacts;
+import edu.augustana.csc490.basketballgamehanson.engine.BallStore;
+import edu.augustana.csc490.basketballgamehanson.engine.GameWorld;
+import edu.augustana.csc490.basketballgamehanson.engine.SpatialGrid;
+
+/**
+ * Ball-vs-ball contacts for one step, all pairs against the spatial grid. Both start
+ * each invocation from the same scattered balls; the grid version also pays for
+ * refiling every ball, as GameWorld does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadPhaseBenchmark
+{
+    private static final float RADIUS = GameWorld.WIDTH / 36;
+
+    @Param({"10", "100", "1000"})
+    public int ballsInFlight;
+
+    private BallStore scattered;
+    private BallStore balls;
+    private SpatialGrid grid;
+
+    @Setup
+    public void setUp()
+    {
+        scattered = new BallStore(ballsInFlight);
+        balls = new BallStore(ballsInFlight);
+        grid = new SpatialGrid(ballsInFlight);
+        grid.resize(GameWorld.WIDTH, GameWorld.HEIGHT, RADIUS * 2);
+
+        Random random = new Random(11);
+        for (int i = 0; i < ballsInFlight; ++i)
+        {
+            scattered.spawn(random.nextFloat() * GameWorld.WIDTH, random.nextFloat() * GameWorld.HEIGHT,
+                    random.nextFloat() * 2 - 1, random.nextFloat() * 2 - 1, RADIUS);
+        }
+    }
+
+    @Benchmark
+    public int bruteForce()
+    {
+        balls.copyFrom(scattered);
+        return BallContacts.resolveBruteForce(balls);
+    }
+
+    @Benchmark
+    public int spatialGrid()
+    {
+        balls.copyFrom(scattered);
+        for (int i = 0; i < ballsInFlight; ++i)
+            grid.update(i, balls.x[i], balls.y[i]);
+        return BallContacts.resolve(balls, grid);
+    }
+} // end class BroadPhaseBenchmark
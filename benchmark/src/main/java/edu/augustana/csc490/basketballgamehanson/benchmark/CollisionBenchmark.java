@@ -0,0 +1,64 @@
+package edu.augustana.csc490.basketballgamehanson.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.augustana.csc490.basketballgamehanson.engine.SweptCollision;
+
+/**
+ * Cost of the swept ball-vs-hoop tests run every step while a ball is in flight.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark
+{
+    private static final int CASES = 1024; // power of two, indexed with a mask
+
+    // ball x, y, dx, dy per case, around a vertical rim-sized segment
+    private final float[] moves = new float[CASES * 4];
+    private int next;
+
+    @Setup
+    public void setUp()
+    {
+        Random random = new Random(7);
+        for (int i = 0; i < moves.length; i += 4)
+        {
+            moves[i] = 700 + random.nextFloat() * 300;
+            moves[i + 1] = 200 + random.nextFloat() * 300;
+            moves[i + 2] = (random.nextFloat() - 0.5f) * 120;
+            moves[i + 3] = (random.nextFloat() - 0.5f) * 120;
+        }
+    }
+
+    @Benchmark
+    public float timeOfImpact()
+    {
+        int i = (next++ & (CASES - 1)) * 4;
+        return SweptCollision.timeOfImpact(moves[i], moves[i + 1], moves[i + 2], moves[i + 3], 30,
+                820, 300, 820, 440);
+    }
+
+    @Benchmark
+    public boolean pointCheckerPath()
+    {
+        int i = (next++ & (CASES - 1)) * 4;
+        return SweptCollision.segmentIntersectsRect(moves[i], moves[i + 1],
+                moves[i] + moves[i + 2], moves[i + 1] + moves[i + 3], 800, 400, 1026, 430);
+    }
+} // end class CollisionBenchmark
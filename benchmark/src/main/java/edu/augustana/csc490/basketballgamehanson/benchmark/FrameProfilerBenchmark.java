@@ -0,0 +1,63 @@
+package edu.augustana.csc490.basketballgamehanson.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.augustana.csc490.basketballgamehanson.engine.FrameProfiler;
+
+/**
+ * What the frame profiler adds to a frame: recording every phase, and rebuilding the
+ * overlay text as it does a couple of times a second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameProfilerBenchmark
+{
+    private static final int SAMPLES = 1024; // power of two, indexed with a mask
+
+    private FrameProfiler profiler;
+    private final long[] nanos = new long[SAMPLES];
+    private int next;
+
+    @Setup
+    public void setUp()
+    {
+        profiler = new FrameProfiler();
+        Random random = new Random(16);
+        for (int i = 0; i < SAMPLES; ++i)
+            nanos[i] = 100000 + random.nextInt(16000000);
+        for (int i = 0; i < SAMPLES; ++i)
+            recordFrame();
+    }
+
+    @Benchmark
+    public FrameProfiler recordFrame()
+    {
+        int i = next++;
+        for (int phase = 0; phase < FrameProfiler.PHASE_COUNT; ++phase)
+            profiler.record(phase, nanos[(i + phase) & (SAMPLES - 1)]);
+        return profiler;
+    }
+
+    @Benchmark
+    public FrameProfiler updateOverlayText()
+    {
+        profiler.updateText(next, 3);
+        return profiler;
+    }
+} // end class FrameProfilerBenchmark
@@ -0,0 +1,64 @@
+package edu.augustana.csc490.basketballgamehanson.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.augustana.csc490.basketballgamehanson.engine.FixedStepLoop;
+import edu.augustana.csc490.basketballgamehanson.engine.GameWorld;
+
+/**
+ * Cost of one simulation step, the per-advance core of the simulation thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameLoopBenchmark
+{
+    private static final double STEP = FixedStepLoop.DEFAULT_STEP;
+
+    private GameWorld world;
+
+    @Setup
+    public void setUp()
+    {
+        world = BenchmarkWorlds.newWorld();
+    }
+
+    // keep the clock from ending the game part way through a measurement
+    private void keepPlaying()
+    {
+        if (world.getTimeLeft() < 1)
+            world.reset();
+    }
+
+    @Benchmark
+    public GameWorld stepHoopOnly()
+    {
+        keepPlaying();
+        world.step(STEP);
+        return world;
+    }
+
+    @Benchmark
+    public GameWorld stepWithBallInFlight()
+    {
+        keepPlaying();
+        if (!world.isBasketballOnScreen())
+            world.shootBasketball(0.6);
+        world.step(STEP);
+        return world;
+    }
+} // end class GameLoopBenchmark
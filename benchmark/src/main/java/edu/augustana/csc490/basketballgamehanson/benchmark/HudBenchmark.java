@@ -0,0 +1,66 @@
+package edu.augustana.csc490.basketballgamehanson.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.augustana.csc490.basketballgamehanson.engine.HudText;
+
+/**
+ * Cost of producing the HUD text each frame, against the String.format it replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HudBenchmark
+{
+    private static final double FRAME = 1 / 60.0;
+
+    private HudText hudText;
+    private double timeLeft;
+    private int score;
+
+    @Setup
+    public void setUp()
+    {
+        hudText = new HudText("Score: ", "Total time: ");
+        timeLeft = 60;
+    }
+
+    // one frame of game time passes per call, as in the game
+    private void nextFrame()
+    {
+        timeLeft -= FRAME;
+        if (timeLeft < 0)
+        {
+            timeLeft = 60;
+            ++score;
+        }
+    }
+
+    @Benchmark
+    public boolean hudTextUpdate()
+    {
+        nextFrame();
+        return hudText.update(score, timeLeft);
+    }
+
+    @Benchmark
+    public String stringFormat()
+    {
+        nextFrame();
+        return String.format("Score: %1$d\nTotal time: %2$.1f", score, timeLeft);
+    }
+} // end class HudBenchmark
@@ -0,0 +1,97 @@
+package edu.augustana.csc490.basketballgamehanson.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.augustana.csc490.basketballgamehanson.engine.FixedStepLoop;
+import edu.augustana.csc490.basketballgamehanson.engine.GameWorld;
+import edu.augustana.csc490.basketballgamehanson.engine.HoopCurve;
+import edu.augustana.csc490.basketballgamehanson.engine.HoopPath;
+import edu.augustana.csc490.basketballgamehanson.engine.Level;
+
+/**
+ * Each of the app's levels: parsing and compiling the file, finding the hoop's offset
+ * from the compiled path against evaluating the curve itself, and a whole world step
+ * with no balls in flight, which should cost the same on every level. LevelTest checks
+ * the compiled paths' accuracy.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelBenchmark
+{
+    private static final int TIMES = 1024; // power of two, indexed with a mask
+
+    @Param({"classic", "drift", "orbit"})
+    public String level;
+
+    private String text;
+    private HoopCurve curve;
+    private HoopPath path;
+    private GameWorld world;
+    private final double[] times = new double[TIMES]; // over two periods
+    private final double[] offset = new double[2];
+    private final float[] sampled = new float[2];
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        text = BenchmarkWorlds.readLevel(level);
+        Level parsed = Level.parse(new StringReader(text));
+        curve = parsed.getCurve();
+        path = parsed.getPath();
+        world = new GameWorld(false, parsed);
+
+        Random random = new Random(17);
+        for (int i = 0; i < TIMES; ++i)
+            times[i] = random.nextDouble() * 2 * curve.getPeriod();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Level load() throws IOException
+    {
+        return Level.parse(new StringReader(text));
+    }
+
+    @Benchmark
+    public float pathLookup()
+    {
+        path.getOffset(times[next++ & (TIMES - 1)], sampled);
+        return sampled[0] + sampled[1];
+    }
+
+    @Benchmark
+    public double curveEvaluate()
+    {
+        curve.getOffset(times[next++ & (TIMES - 1)], offset);
+        return offset[0] + offset[1];
+    }
+
+    @Benchmark
+    public double step()
+    {
+        if (world.isGameOver())
+            world.reset();
+        world.step(FixedStepLoop.DEFAULT_STEP);
+        return world.getHoopPhase();
+    }
+} // end class LevelBenchmark
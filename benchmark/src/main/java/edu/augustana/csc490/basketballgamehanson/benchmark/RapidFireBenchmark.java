@@ -0,0 +1,71 @@
+package edu.augustana.csc490.basketballgamehanson.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.augustana.csc490.basketballgamehanson.engine.FixedStepLoop;
+import edu.augustana.csc490.basketballgamehanson.engine.GameWorld;
+
+/**
+ * Stress test for rapid-fire mode: one frame's step with a steady number of balls in
+ * flight, topping the pool back up with new shots as balls leave the screen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RapidFireBenchmark
+{
+    private static final double STEP = FixedStepLoop.DEFAULT_STEP;
+    private static final int ANGLES = 256; // power of two, indexed with a mask
+
+    @Param({"500"})
+    public int ballsInFlight;
+
+    private GameWorld world;
+    private final double[] angles = new double[ANGLES];
+    private int nextAngle;
+
+    @Setup
+    public void setUp()
+    {
+        world = new GameWorld(true);
+
+        Random random = new Random(5);
+        for (int i = 0; i < ANGLES; ++i)
+            angles[i] = 0.2 + random.nextDouble() * 1.2;
+        refill();
+    }
+
+    private void refill()
+    {
+        while (world.getBalls().getActiveCount() < ballsInFlight)
+            world.shootBasketball(angles[nextAngle++ & (ANGLES - 1)]);
+    }
+
+    @Benchmark
+    public GameWorld frame()
+    {
+        if (world.getTimeLeft() < 1)
+        {
+            world.reset();
+        }
+        refill();
+        world.step(STEP);
+        return world;
+    }
+} // end class RapidFireBenchmark
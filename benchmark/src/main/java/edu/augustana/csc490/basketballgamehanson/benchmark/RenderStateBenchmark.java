@@ -0,0 +1,72 @@
+package edu.augustana.csc490.basketballgamehanson.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.augustana.csc490.basketballgamehanson.engine.FixedStepLoop;
+import edu.augustana.csc490.basketballgamehanson.engine.GameWorld;
+import edu.augustana.csc490.basketballgamehanson.engine.RenderState;
+import edu.augustana.csc490.basketballgamehanson.engine.TripleBuffer;
+
+/**
+ * What the simulation thread pays to hand each advance to the render thread: capturing
+ * the world into a RenderState and publishing it, and what the render thread pays to
+ * take the latest one. A classic game with one ball, and rapid fire with a crowd of them.
+ * RenderPipelineTest runs the two threads together.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderStateBenchmark
+{
+    @Param({"1", "100"})
+    public int ballsInFlight;
+
+    private GameWorld world;
+    private FixedStepLoop gameLoop;
+    private TripleBuffer<RenderState> states;
+
+    @Setup
+    public void setUp()
+    {
+        world = new GameWorld(ballsInFlight > 1);
+        for (int i = 0; i < ballsInFlight; ++i)
+        {
+            world.shootBasketball(0.2 + 1.2 * i / ballsInFlight);
+            world.step(0.001);
+        }
+        gameLoop = new FixedStepLoop(world);
+        states = new TripleBuffer<RenderState>(new RenderState(world), new RenderState(world),
+                new RenderState(world));
+    }
+
+    @Benchmark
+    public TripleBuffer<RenderState> publish()
+    {
+        states.getBack().capture(world, gameLoop, 0);
+        states.publish();
+        return states;
+    }
+
+    @Benchmark
+    public RenderState handoff()
+    {
+        states.getBack().capture(world, gameLoop, 0);
+        states.publish();
+        return states.acquire();
+    }
+} // end class RenderStateBenchmark
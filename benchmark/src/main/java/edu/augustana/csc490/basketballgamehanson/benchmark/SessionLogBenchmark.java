@@ -0,0 +1,119 @@
+package edu.augustana.csc490.basketballgamehanson.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.augustana.csc490.basketballgamehanson.engine.Level;
+import edu.augustana.csc490.basketballgamehanson.engine.SessionLogReader;
+import edu.augustana.csc490.basketballgamehanson.engine.SessionLogWriter;
+import edu.augustana.csc490.basketballgamehanson.engine.ShotLog;
+
+/**
+ * Full scans of a million-session history through the memory-mapped reader: once over
+ * the fixed-size records alone, and once decoding every shot event as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionLogBenchmark
+{
+    private static final int SESSIONS = 1000000;
+    private static final int MAX_SHOTS = 40; // shots per session, uniformly 0 to this
+
+    private File indexFile;
+    private File eventFile;
+    private SessionLogReader reader;
+    private final MakeCounter makes = new MakeCounter();
+
+    private static class MakeCounter implements ShotLog.Visitor
+    {
+        long count;
+
+        @Override
+        public void onShot(long step, double angle, boolean scored)
+        {
+            if (scored)
+                ++count;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        indexFile = File.createTempFile("sessions", ".idx");
+        eventFile = File.createTempFile("sessions", ".dat");
+
+        Random random = new Random(14);
+        ShotLog shots = new ShotLog();
+        SessionLogWriter writer = new SessionLogWriter(indexFile, eventFile);
+        try
+        {
+            for (int s = 0; s < SESSIONS; ++s)
+            {
+                shots.clear();
+                int score = 0;
+                long step = 0;
+                int shotCount = random.nextInt(MAX_SHOTS + 1);
+                for (int i = 0; i < shotCount; ++i)
+                {
+                    step += 10 + random.nextInt(80);
+                    int shot = shots.recordShot(step, random.nextDouble() * Math.PI / 2);
+                    if (random.nextInt(8) == 0)
+                    {
+                        shots.resolve(shot, true);
+                        ++score;
+                    }
+                }
+                writer.append(s * 60000L, Level.CLASSIC, false, score, shotCount, 60, shots);
+            }
+        }
+        finally
+        {
+            writer.close();
+        }
+        reader = new SessionLogReader(indexFile, eventFile);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        reader = null;
+        indexFile.delete();
+        eventFile.delete();
+    }
+
+    @Benchmark
+    public long scanRecords()
+    {
+        long total = 0;
+        for (int i = 0; i < reader.getCount(); ++i)
+            total += reader.getScore(i) + reader.getShotsTaken(i);
+        return total;
+    }
+
+    @Benchmark
+    public long scanShotEvents()
+    {
+        makes.count = 0;
+        for (int i = 0; i < reader.getCount(); ++i)
+            reader.readShots(i, makes);
+        return makes.count;
+    }
+} // end class SessionLogBenchmark
@@ -0,0 +1,72 @@
+package edu.augustana.csc490.basketballgamehanson.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.augustana.csc490.basketballgamehanson.engine.GameWorld;
+import edu.augustana.csc490.basketballgamehanson.engine.WorldSnapshot;
+
+/**
+ * Saving and restoring a world snapshot mid-game, as ShooterView does for the saved
+ * instance state: a classic game with one ball, and rapid fire with a crowd of them.
+ * WorldSnapshotTest checks the round trip itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark
+{
+    @Param({"1", "100"})
+    public int ballsInFlight;
+
+    private GameWorld world;
+    private GameWorld restored;
+    private ByteBuffer buffer;
+    private ByteBuffer snapshot;
+
+    @Setup
+    public void setUp()
+    {
+        world = new GameWorld(ballsInFlight > 1);
+        for (int i = 0; i < ballsInFlight; ++i)
+        {
+            world.shootBasketball(0.2 + 1.2 * i / ballsInFlight);
+            world.step(0.001);
+        }
+        restored = new GameWorld(ballsInFlight > 1);
+
+        buffer = ByteBuffer.allocate(WorldSnapshot.getMaxSize(world));
+        snapshot = ByteBuffer.allocate(WorldSnapshot.getMaxSize(world));
+        WorldSnapshot.write(world, snapshot);
+        snapshot.flip();
+    }
+
+    @Benchmark
+    public int write()
+    {
+        buffer.clear();
+        return WorldSnapshot.write(world, buffer);
+    }
+
+    @Benchmark
+    public GameWorld read()
+    {
+        WorldSnapshot.read(snapshot.duplicate(), restored);
+        return restored;
+    }
+} // end class SnapshotBenchmark
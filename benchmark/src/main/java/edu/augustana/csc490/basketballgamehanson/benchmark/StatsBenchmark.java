@@ -0,0 +1,67 @@
+package edu.augustana.csc490.basketballgamehanson.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.augustana.csc490.basketballgamehanson.engine.StatsEngine;
+
+/**
+ * Per-event cost of the running stats: one shot, and one finished game with its
+ * quantile sketch and leaderboard updates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsBenchmark
+{
+    private static final int EVENTS = 4096; // power of two, indexed with a mask
+
+    private StatsEngine stats;
+    private final double[] angles = new double[EVENTS];
+    private final boolean[] made = new boolean[EVENTS];
+    private final int[] scores = new int[EVENTS];
+    private int next;
+
+    @Setup
+    public void setUp()
+    {
+        stats = new StatsEngine();
+        Random random = new Random(15);
+        for (int i = 0; i < EVENTS; ++i)
+        {
+            angles[i] = random.nextDouble() * Math.PI / 2;
+            made[i] = random.nextInt(8) == 0;
+            scores[i] = random.nextInt(30);
+        }
+    }
+
+    @Benchmark
+    public StatsEngine recordShot()
+    {
+        int i = next++ & (EVENTS - 1);
+        stats.recordShot(angles[i], made[i]);
+        return stats;
+    }
+
+    @Benchmark
+    public StatsEngine recordGame()
+    {
+        int i = next++ & (EVENTS - 1);
+        stats.recordGame(next, scores[i]);
+        return stats;
+    }
+} // end class StatsBenchmark
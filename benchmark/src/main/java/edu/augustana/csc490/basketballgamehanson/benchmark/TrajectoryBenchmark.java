@@ -0,0 +1,137 @@
+package edu.augustana.csc490.basketballgamehanson.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.augustana.csc490.basketballgamehanson.engine.BallStore;
+import edu.augustana.csc490.basketballgamehanson.engine.FixedStepLoop;
+import edu.augustana.csc490.basketballgamehanson.engine.GameWorld;
+import edu.augustana.csc490.basketballgamehanson.engine.Level;
+import edu.augustana.csc490.basketballgamehanson.engine.TrajectoryTable;
+import edu.augustana.csc490.basketballgamehanson.engine.ViewTransform;
+
+/**
+ * Cost per frame of the aim preview: looking the path up in a TrajectoryTable and
+ * mapping it onto the screen, as ShooterView does, against simulating the same shot
+ * live from a copy of the world. Also the one-off cost of building the table.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrajectoryBenchmark
+{
+    // the same table as ShooterView
+    private static final int ANGLES = 64;
+    private static final int PHASES = 48;
+    private static final int POINTS = 20;
+    private static final int STEPS_PER_POINT = 3;
+
+    private static final int AIMS = 1024; // power of two, indexed with a mask
+
+    private final double[] angles = new double[AIMS];
+    private final double[] phases = new double[AIMS];
+    private final float[] lines = new float[POINTS * 2];
+    private final float[] pathX = new float[POINTS]; // resimulated points, world units
+    private final float[] pathY = new float[POINTS];
+    private final ViewTransform worldToScreen = new ViewTransform();
+    private TrajectoryTable table;
+    private GameWorld[] worlds; // a world per aim, with the hoop at that aim's phase
+    private GameWorld shot;
+    private int next;
+
+    @Setup
+    public void setUp()
+    {
+        worldToScreen.fit(GameWorld.WIDTH, GameWorld.HEIGHT,
+                BenchmarkWorlds.SCREEN_WIDTH, BenchmarkWorlds.SCREEN_HEIGHT);
+        table = new TrajectoryTable(Level.CLASSIC, ANGLES, PHASES, POINTS,
+                STEPS_PER_POINT, FixedStepLoop.DEFAULT_STEP);
+        table.build();
+
+        // aims spread over a game's worth of hoop positions
+        Random random = new Random(5);
+        worlds = new GameWorld[AIMS];
+        GameWorld hoop = BenchmarkWorlds.newWorld();
+        for (int i = 0; i < AIMS; ++i)
+        {
+            hoop.step(FixedStepLoop.DEFAULT_STEP * (1 + random.nextInt(4)));
+            worlds[i] = BenchmarkWorlds.newWorld();
+            worlds[i].copyFrom(hoop);
+            angles[i] = random.nextDouble() * Math.PI / 2;
+            phases[i] = hoop.getHoopPhase();
+        }
+        shot = BenchmarkWorlds.newWorld();
+    }
+
+    @Benchmark
+    public float lookup()
+    {
+        int i = next++ & (AIMS - 1);
+        int cell = table.find(angles[i], phases[i]);
+        int count = 0;
+        for (int k = 0; k + 1 < table.getPointCount(cell); k += 2)
+        {
+            lines[count++] = worldToScreen.toScreenX(table.getX(cell, k));
+            lines[count++] = worldToScreen.toScreenY(table.getY(cell, k));
+            lines[count++] = worldToScreen.toScreenX(table.getX(cell, k + 1));
+            lines[count++] = worldToScreen.toScreenY(table.getY(cell, k + 1));
+        }
+        return lines[Math.max(0, count - 1)];
+    }
+
+    @Benchmark
+    public float resimulate()
+    {
+        int i = next++ & (AIMS - 1);
+        shot.copyFrom(worlds[i]);
+        shot.shootBasketball(angles[i]);
+        BallStore balls = shot.getBalls();
+        int points = 0;
+        for (int s = 1; points < POINTS; ++s)
+        {
+            shot.step(FixedStepLoop.DEFAULT_STEP);
+            if (s % STEPS_PER_POINT == 0 || !balls.active[0])
+            {
+                pathX[points] = balls.x[0];
+                pathY[points] = balls.y[0];
+                ++points;
+            }
+            if (!balls.active[0])
+                break;
+        }
+
+        int count = 0;
+        for (int k = 0; k + 1 < points; k += 2)
+        {
+            lines[count++] = worldToScreen.toScreenX(pathX[k]);
+            lines[count++] = worldToScreen.toScreenY(pathY[k]);
+            lines[count++] = worldToScreen.toScreenX(pathX[k + 1]);
+            lines[count++] = worldToScreen.toScreenY(pathY[k + 1]);
+        }
+        return lines[Math.max(0, count - 1)];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TrajectoryTable build()
+    {
+        TrajectoryTable built = new TrajectoryTable(Level.CLASSIC, ANGLES, PHASES, POINTS,
+                STEPS_PER_POINT, FixedStepLoop.DEFAULT_STEP);
+        built.build();
+        return built;
+    }
+} // end class TrajectoryBenchmark
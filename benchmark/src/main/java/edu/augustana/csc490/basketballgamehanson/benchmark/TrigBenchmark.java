@@ -0,0 +1,86 @@
+package edu.augustana.csc490.basketballgamehanson.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.augustana.csc490.basketballgamehanson.engine.FastTrig;
+
+/**
+ * FastTrig against java.lang.Math and StrictMath for what a shot needs: sin and cos of
+ * the launch angle, and atan of the aim. FastTrigTest checks the accuracy.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrigBenchmark
+{
+    private static final int ARGUMENTS = 1024; // power of two, indexed with a mask
+
+    private final float[] angles = new float[ARGUMENTS]; // launch angles, 0 to PI / 2
+    private final float[] ratios = new float[ARGUMENTS]; // aim ratios, as ShotAim divides
+    private int next;
+
+    @Setup
+    public void setUp()
+    {
+        Random random = new Random(13);
+        for (int i = 0; i < ARGUMENTS; ++i)
+        {
+            angles[i] = (float) (random.nextDouble() * Math.PI / 2);
+            ratios[i] = (float) Math.tan(angles[i]);
+        }
+    }
+
+    @Benchmark
+    public float sinCosFast()
+    {
+        float angle = angles[next++ & (ARGUMENTS - 1)];
+        return FastTrig.sin(angle) + FastTrig.cos(angle);
+    }
+
+    @Benchmark
+    public double sinCosMath()
+    {
+        float angle = angles[next++ & (ARGUMENTS - 1)];
+        return Math.sin(angle) + Math.cos(angle);
+    }
+
+    @Benchmark
+    public double sinCosStrict()
+    {
+        float angle = angles[next++ & (ARGUMENTS - 1)];
+        return StrictMath.sin(angle) + StrictMath.cos(angle);
+    }
+
+    @Benchmark
+    public float atanFast()
+    {
+        return FastTrig.atan(ratios[next++ & (ARGUMENTS - 1)]);
+    }
+
+    @Benchmark
+    public double atanMath()
+    {
+        return Math.atan(ratios[next++ & (ARGUMENTS - 1)]);
+    }
+
+    @Benchmark
+    public double atanStrict()
+    {
+        return StrictMath.atan(ratios[next++ & (ARGUMENTS - 1)]);
+    }
+} // end class TrigBenchmark
@@ -0,0 +1,98 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Ball-vs-ball contacts. Pairs come either from the spatial grid, checking each ball
+ * only against the 3x3 block of cells around it, or from a brute-force all-pairs scan
+ * kept for comparison. Both share the same circle-circle narrow phase.
+ */
+public final class BallContacts
+{
+    private BallContacts()
+    {
+    }
+
+    // resolve touching balls found through grid; returns the number of contacts
+    public static int resolve(BallStore balls, SpatialGrid grid)
+    {
+        int contacts = 0;
+        for (int i = 0; i < balls.getCapacity(); ++i)
+        {
+            if (!balls.active[i])
+                continue;
+
+            int column = grid.column(balls.x[i]);
+            int row = grid.row(balls.y[i]);
+            int lastColumn = Math.min(column + 1, grid.getColumns() - 1);
+            int lastRow = Math.min(row + 1, grid.getRows() - 1);
+            for (int r = Math.max(row - 1, 0); r <= lastRow; ++r)
+            {
+                for (int c = Math.max(column - 1, 0); c <= lastColumn; ++c)
+                {
+                    for (int j = grid.getFirst(c, r); j != -1; j = grid.getNext(j))
+                    {
+                        if (j > i && resolvePair(balls, i, j)) // each pair once
+                            ++contacts;
+                    }
+                }
+            }
+        }
+        return contacts;
+    }
+
+    // resolve touching balls by testing every pair; returns the number of contacts
+    public static int resolveBruteForce(BallStore balls)
+    {
+        int contacts = 0;
+        for (int i = 0; i < balls.getCapacity(); ++i)
+        {
+            if (!balls.active[i])
+                continue;
+
+            for (int j = i + 1; j < balls.getCapacity(); ++j)
+            {
+                if (balls.active[j] && resolvePair(balls, i, j))
+                    ++contacts;
+            }
+        }
+        return contacts;
+    }
+
+    // separate two overlapping balls and bounce them apart; false if they don't touch
+    private static boolean resolvePair(BallStore balls, int i, int j)
+    {
+        float dx = balls.x[j] - balls.x[i];
+        float dy = balls.y[j] - balls.y[i];
+        float reach = balls.radius[i] + balls.radius[j];
+        float distanceSquared = dx * dx + dy * dy;
+        if (distanceSquared >= reach * reach)
+            return false;
+
+        float distance = (float) Math.sqrt(distanceSquared);
+        float nx = 1; // pick any normal for exactly coincident balls
+        float ny = 0;
+        if (distance > 0)
+        {
+            nx = dx / distance;
+            ny = dy / distance;
+        }
+
+        // push each ball half of the overlap out along the normal
+        float push = (reach - distance) / 2;
+        balls.x[i] -= nx * push;
+        balls.y[i] -= ny * push;
+        balls.x[j] += nx * push;
+        balls.y[j] += ny * push;
+
+        // equal masses: swap the velocity components along the normal if approaching
+        float approach = (balls.velocityX[i] - balls.velocityX[j]) * nx +
+                (balls.velocityY[i] - balls.velocityY[j]) * ny;
+        if (approach > 0)
+        {
+            balls.velocityX[i] -= approach * nx;
+            balls.velocityY[i] -= approach * ny;
+            balls.velocityX[j] += approach * nx;
+            balls.velocityY[j] += approach * ny;
+        }
+        return true;
+    }
+} // end class BallContacts
@@ -0,0 +1,159 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Struct-of-arrays storage for basketballs: one primitive array per field, indexed by
+ * ball slot, so stepping every ball walks contiguous memory and allocates nothing.
+ * Slots are pooled: spawning pops a free slot off a preallocated free list and
+ * retiring a ball pushes it back, so shooting never creates objects either.
+ */
+public class BallStore
+{
+    private final int capacity;
+
+    public final float[] x; // center in world units
+    public final float[] y;
+    public final float[] previousX; // center before the last step, for interpolation
+    public final float[] previousY;
+    public final float[] velocityX; // world units per second
+    public final float[] velocityY;
+    public final float[] radius;
+    public final boolean[] active; // is the slot's ball on the screen?
+    public final boolean[] scored; // has the ball gone through the rim?
+
+    private final int[] freeSlots; // stack of unused slot indices
+    private int freeCount;
+    private int activeCount;
+
+    public BallStore(int capacity)
+    {
+        this.capacity = capacity;
+        x = new float[capacity];
+        y = new float[capacity];
+        previousX = new float[capacity];
+        previousY = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        radius = new float[capacity];
+        active = new boolean[capacity];
+        scored = new boolean[capacity];
+        freeSlots = new int[capacity];
+        clear();
+    }
+
+    // put a new ball at (ballX, ballY) moving at (vx, vy); returns its slot, or -1 if full
+    public int spawn(float ballX, float ballY, float vx, float vy, float ballRadius)
+    {
+        if (freeCount == 0)
+            return -1;
+
+        int i = freeSlots[--freeCount];
+        ++activeCount;
+        x[i] = previousX[i] = ballX;
+        y[i] = previousY[i] = ballY;
+        velocityX[i] = vx;
+        velocityY[i] = vy;
+        radius[i] = ballRadius;
+        active[i] = true;
+        scored[i] = false;
+        return i;
+    }
+
+    // take the ball in slot i off the screen and return the slot to the pool
+    public void retire(int i)
+    {
+        if (active[i])
+        {
+            active[i] = false;
+            --activeCount;
+            freeSlots[freeCount++] = i;
+        }
+    }
+
+    // retire every ball; slots are handed out lowest first again
+    public void clear()
+    {
+        for (int i = 0; i < capacity; ++i)
+        {
+            active[i] = false;
+            freeSlots[i] = capacity - 1 - i;
+        }
+        freeCount = capacity;
+        activeCount = 0;
+    }
+
+    // empty every slot and the free list, ready for restoreBall and restoreFreeSlot to
+    // rebuild them exactly as they were; used by WorldSnapshot
+    void clearForRestore()
+    {
+        for (int i = 0; i < capacity; ++i)
+            active[i] = false;
+        freeCount = 0;
+        activeCount = 0;
+    }
+
+    // put a saved ball back in slot i
+    void restoreBall(int i, float ballX, float ballY, float vx, float vy, float ballRadius,
+                     boolean wasScored)
+    {
+        x[i] = previousX[i] = ballX;
+        y[i] = previousY[i] = ballY;
+        velocityX[i] = vx;
+        velocityY[i] = vy;
+        radius[i] = ballRadius;
+        active[i] = true;
+        scored[i] = wasScored;
+        ++activeCount;
+    }
+
+    // push slot i onto the free list; restore the bottom of the stack first
+    void restoreFreeSlot(int i)
+    {
+        freeSlots[freeCount++] = i;
+    }
+
+    public float interpolatedX(int i, float alpha)
+    {
+        return previousX[i] + (x[i] - previousX[i]) * alpha;
+    }
+
+    public float interpolatedY(int i, float alpha)
+    {
+        return previousY[i] + (y[i] - previousY[i]) * alpha;
+    }
+
+    public void copyFrom(BallStore other)
+    {
+        int n = Math.min(capacity, other.capacity);
+        System.arraycopy(other.x, 0, x, 0, n);
+        System.arraycopy(other.y, 0, y, 0, n);
+        System.arraycopy(other.previousX, 0, previousX, 0, n);
+        System.arraycopy(other.previousY, 0, previousY, 0, n);
+        System.arraycopy(other.velocityX, 0, velocityX, 0, n);
+        System.arraycopy(other.velocityY, 0, velocityY, 0, n);
+        System.arraycopy(other.radius, 0, radius, 0, n);
+        System.arraycopy(other.active, 0, active, 0, n);
+        System.arraycopy(other.scored, 0, scored, 0, n);
+
+        // rebuild the pool from the copied flags
+        activeCount = 0;
+        freeCount = 0;
+        for (int i = capacity - 1; i >= 0; --i)
+        {
+            if (i >= n)
+                active[i] = false;
+
+            if (active[i])
+                ++activeCount;
+            else
+                freeSlots[freeCount++] = i;
+        }
+    }
+
+    // the free slot k places from the bottom of the free list; the top is handed out next
+    int getFreeSlot(int k) { return freeSlots[k]; }
+    int getFreeCount() { return freeCount; }
+
+    public boolean hasFreeSlot() { return freeCount > 0; }
+    public int getCapacity() { return capacity; }
+    public int getActiveCount() { return activeCount; }
+} // end class BallStore
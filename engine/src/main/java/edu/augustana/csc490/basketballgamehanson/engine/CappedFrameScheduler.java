@@ -0,0 +1,158 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Caps the loop at a target frame rate by sleeping until each frame's deadline.
+ * Deadlines advance by a fixed period so the cadence does not drift; when a frame
+ * starts more than a whole period late the missed slots are counted as dropped and
+ * the schedule skips ahead instead of trying to catch up. Any thread may cancel, reset
+ * or resume it while the loop thread waits; a cancel interrupts the loop thread's
+ * sleep. The loop thread swallows an interrupt it knows came from a cancel, even if a
+ * resume or reset has cleared the cancel by the time it wakes, so a quick cancel and
+ * resume never leaks an interrupt into the loop.
+ */
+public class CappedFrameScheduler implements FrameScheduler
+{
+    private final FrameClock clock;
+    private final long framePeriod; // nanoseconds per frame
+    private final Object lock = new Object(); // the loop thread waits outside it
+    private long nextDeadline; // when the next frame is due
+    private long frameCount;
+    private long droppedFrames;
+    private boolean resumed; // restart the schedule at the next frame
+    private boolean cancelled; // return from awaitNextFrame at once until resumed
+    private Thread sleeper; // the loop thread while it sleeps to a deadline
+    private boolean sleeperInterrupted; // by cancel; only the loop thread clears it
+
+    public CappedFrameScheduler(FrameClock clock, int targetFps)
+    {
+        if (targetFps <= 0)
+            throw new IllegalArgumentException("targetFps must be positive: " + targetFps);
+
+        this.clock = clock;
+        framePeriod = 1000000000L / targetFps;
+    }
+
+    @Override
+    public long awaitNextFrame() throws InterruptedException
+    {
+        long now = clock.nanoTime();
+        long wait;
+        synchronized (lock)
+        {
+            if (cancelled)
+                return now;
+
+            if (frameCount == 0 || resumed)
+            {
+                resumed = false;
+                nextDeadline = now; // the first frame starts right away
+            }
+            wait = nextDeadline - now;
+            if (wait > 0)
+                sleeper = Thread.currentThread();
+        }
+
+        if (wait > 0)
+        {
+            try
+            {
+                clock.sleepNanos(wait); // early: give the core back
+            }
+            catch (InterruptedException e)
+            {
+                synchronized (lock)
+                {
+                    if (!sleeperInterrupted)
+                    {
+                        sleeper = null;
+                        throw e; // not a cancel's
+                    }
+                }
+                // woken by cancel, and maybe resumed or reset since
+            }
+            now = clock.nanoTime();
+        }
+
+        synchronized (lock)
+        {
+            sleeper = null;
+            if (sleeperInterrupted)
+            {
+                sleeperInterrupted = false;
+                Thread.interrupted(); // a cancel that came as the sleep ended, or twice
+            }
+            if (cancelled)
+                return now;
+
+            if (frameCount == 0 || resumed)
+            {
+                resumed = false;
+                nextDeadline = now; // reset or resumed while asleep: start afresh now
+            }
+
+            // a frame more than a whole period late skips the slots it missed
+            long missed = Math.max(0, (now - nextDeadline) / framePeriod);
+            droppedFrames += missed;
+            nextDeadline += (missed + 1) * framePeriod;
+            ++frameCount;
+            return now;
+        }
+    }
+
+    // wake the loop thread if it is sleeping to a deadline, and have awaitNextFrame
+    // return at once until resume or reset
+    @Override
+    public void cancel()
+    {
+        synchronized (lock)
+        {
+            cancelled = true;
+            if (sleeper != null)
+            {
+                sleeperInterrupted = true;
+                sleeper.interrupt();
+            }
+        }
+    }
+
+    @Override
+    public long getFrameCount()
+    {
+        synchronized (lock)
+        {
+            return frameCount;
+        }
+    }
+
+    @Override
+    public long getDroppedFrames()
+    {
+        synchronized (lock)
+        {
+            return droppedFrames;
+        }
+    }
+
+    public long getFramePeriod() { return framePeriod; }
+
+    @Override
+    public void reset()
+    {
+        synchronized (lock)
+        {
+            frameCount = 0;
+            droppedFrames = 0;
+            cancelled = false;
+        }
+    }
+
+    @Override
+    public void resume()
+    {
+        synchronized (lock)
+        {
+            resumed = true;
+            cancelled = false;
+        }
+    }
+} // end class CappedFrameScheduler
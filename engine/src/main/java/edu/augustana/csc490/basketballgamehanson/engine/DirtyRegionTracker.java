@@ -0,0 +1,124 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Tracks the screen bounds of each moving entity between frames and reduces them to
+ * one dirty rectangle: the union of where changed entities were and where they are now.
+ * Also counts the pixels actually redrawn so fill-rate savings can be measured.
+ */
+public class DirtyRegionTracker
+{
+    // entities with their own bounds
+    public static final int BALL = 0;
+    public static final int HOOP = 1; // backboard, rim and point checker column
+    public static final int PLAYER = 2;
+    public static final int HUD = 3;
+    public static final int OVERLAY = 4; // frame profiler readout, while it is shown
+    public static final int PREVIEW = 5; // predicted path while aiming
+    private static final int ENTITY_COUNT = 6;
+
+    private final int[] bounds = new int[ENTITY_COUNT * 4]; // last drawn left, top, right, bottom
+    private int screenWidth;
+    private int screenHeight;
+    private boolean fullRedraw = true; // redraw everything on the next frame
+
+    // the dirty rectangle being built for this frame
+    private int left, top, right, bottom;
+
+    // frame-cost counters
+    private long pixelsLastFrame;
+    private long totalPixels;
+    private long frameCount;
+
+    public void setScreenSize(int w, int h)
+    {
+        screenWidth = w;
+        screenHeight = h;
+        invalidateAll();
+    }
+
+    // force the next frame to redraw the whole screen (new game, new surface, ...)
+    public void invalidateAll()
+    {
+        fullRedraw = true;
+    }
+
+    public void beginFrame()
+    {
+        left = top = Integer.MAX_VALUE;
+        right = bottom = Integer.MIN_VALUE;
+    }
+
+    // report an entity's bounds for this frame; pass empty bounds for a hidden entity
+    public void mark(int entity, int l, int t, int r, int b, boolean contentChanged)
+    {
+        int i = entity * 4;
+        if (contentChanged || l != bounds[i] || t != bounds[i + 1] ||
+                r != bounds[i + 2] || b != bounds[i + 3])
+        {
+            include(bounds[i], bounds[i + 1], bounds[i + 2], bounds[i + 3]); // where it was
+            include(l, t, r, b); // where it is now
+            bounds[i] = l;
+            bounds[i + 1] = t;
+            bounds[i + 2] = r;
+            bounds[i + 3] = b;
+        }
+    }
+
+    private void include(int l, int t, int r, int b)
+    {
+        if (l >= r || t >= b) return; // empty
+
+        if (l < left) left = l;
+        if (t < top) top = t;
+        if (r > right) right = r;
+        if (b > bottom) bottom = b;
+    }
+
+    // finish the frame's dirty rectangle, clipped to the screen; false if nothing changed
+    public boolean endFrame()
+    {
+        if (fullRedraw)
+        {
+            fullRedraw = false;
+            left = top = 0;
+            right = screenWidth;
+            bottom = screenHeight;
+            return true;
+        }
+
+        if (left < 0) left = 0;
+        if (top < 0) top = 0;
+        if (right > screenWidth) right = screenWidth;
+        if (bottom > screenHeight) bottom = screenHeight;
+        return left < right && top < bottom;
+    }
+
+    // count the pixels redrawn this frame (the surface may grow the requested rectangle)
+    public void recordPixels(long pixels)
+    {
+        pixelsLastFrame = pixels;
+        totalPixels += pixels;
+        ++frameCount;
+    }
+
+    public void resetCounters()
+    {
+        pixelsLastFrame = 0;
+        totalPixels = 0;
+        frameCount = 0;
+    }
+
+    public int getLeft() { return left; }
+    public int getTop() { return top; }
+    public int getRight() { return right; }
+    public int getBottom() { return bottom; }
+    public long getPixelsLastFrame() { return pixelsLastFrame; }
+    public long getTotalPixels() { return totalPixels; }
+
+    // average fraction of the screen redrawn per frame, 1.0 for full-screen redraws
+    public double getAverageCoverage()
+    {
+        long screenPixels = (long) screenWidth * screenHeight;
+        return frameCount == 0 || screenPixels == 0 ? 0 : (double) totalPixels / frameCount / screenPixels;
+    }
+} // end class DirtyRegionTracker
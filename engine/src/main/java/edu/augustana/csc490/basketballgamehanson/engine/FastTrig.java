@@ -0,0 +1,76 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Table-based sin, cos and atan for launching and aiming shots. The tables are filled
+ * from StrictMath and interpolated with plain float and double arithmetic, so every
+ * device gets the same bits for the same argument, which java.lang.Math does not
+ * promise; that is what keeps a recorded game replaying exactly on another phone.
+ * Linear interpolation keeps the error under MAX_ERROR for arguments within a couple
+ * of turns of zero.
+ */
+public final class FastTrig
+{
+    public static final float MAX_ERROR = 1e-6f; // absolute, checked by FastTrigTest
+
+    private static final float HALF_PI = (float) (Math.PI / 2);
+
+    private static final int SIN_SIZE = 4096; // entries per turn, a power of two
+    private static final double SIN_SCALE = SIN_SIZE / (2 * Math.PI); // entries per radian
+    private static final float[] SIN = new float[SIN_SIZE + 1]; // one extra to interpolate into
+
+    private static final int ATAN_SIZE = 1024; // entries over [0, 1]
+    private static final float[] ATAN = new float[ATAN_SIZE + 1];
+
+    static
+    {
+        for (int i = 0; i <= SIN_SIZE; ++i)
+            SIN[i] = (float) StrictMath.sin(2 * StrictMath.PI * i / SIN_SIZE);
+        for (int i = 0; i <= ATAN_SIZE; ++i)
+            ATAN[i] = (float) StrictMath.atan((double) i / ATAN_SIZE);
+    }
+
+    private FastTrig()
+    {
+    }
+
+    public static float sin(float radians)
+    {
+        return lookupSin(radians * SIN_SCALE);
+    }
+
+    public static float cos(float radians)
+    {
+        return lookupSin(radians * SIN_SCALE + SIN_SIZE / 4); // a quarter turn ahead
+    }
+
+    // sin at index table entries from zero, wrapped to one turn; the index is a double
+    // so that whole turns don't eat into the fraction's precision
+    private static float lookupSin(double index)
+    {
+        int whole = (int) index;
+        if (index < whole)
+            --whole; // round towards negative infinity
+        float fraction = (float) (index - whole);
+        int i = whole & (SIN_SIZE - 1);
+        return SIN[i] + (SIN[i + 1] - SIN[i]) * fraction;
+    }
+
+    // arctangent in radians, from -PI / 2 to PI / 2
+    public static float atan(float x)
+    {
+        float a = Math.abs(x);
+        // past 1, use atan(a) = PI / 2 - atan(1 / a)
+        float result = a <= 1 ? lookupAtan(a) : HALF_PI - lookupAtan(1 / a);
+        return x < 0 ? -result : result;
+    }
+
+    // atan of a in [0, 1]
+    private static float lookupAtan(float a)
+    {
+        float index = a * ATAN_SIZE;
+        int i = (int) index;
+        if (i == ATAN_SIZE)
+            return ATAN[ATAN_SIZE];
+        return ATAN[i] + (ATAN[i + 1] - ATAN[i]) * (index - i);
+    }
+} // end class FastTrig
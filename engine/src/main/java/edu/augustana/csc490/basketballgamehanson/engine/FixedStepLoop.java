@@ -0,0 +1,85 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Drives a GameWorld with a fixed timestep. Real frame time is banked in an accumulator
+ * and spent in whole steps, so the simulation runs at the same speed no matter how fast
+ * frames arrive; the leftover fraction of a step is exposed as the render alpha.
+ * An optional StepListener runs on the stepping thread just before every step.
+ */
+public class FixedStepLoop
+{
+    /** Called before each step, e.g. to apply queued input at a fixed point in time. */
+    public interface StepListener
+    {
+        void beforeStep(long stepIndex); // stepIndex counts from 0 at the last reset
+    }
+
+    public static final double DEFAULT_STEP = 1 / 60.0; // seconds per simulation step
+    private static final double MAX_FRAME_TIME = 0.25; // avoid a spiral of death after a stall
+
+    private final GameWorld world;
+    private final double step;
+    private double accumulator; // unsimulated seconds carried between frames
+    private long stepCount; // steps taken since the last reset
+    private StepListener stepListener;
+
+    public FixedStepLoop(GameWorld world)
+    {
+        this(world, DEFAULT_STEP);
+    }
+
+    public FixedStepLoop(GameWorld world, double step)
+    {
+        this.world = world;
+        this.step = step;
+    }
+
+    // bank frameTime seconds and run as many whole steps as fit; returns the steps run
+    public int advance(double frameTime)
+    {
+        if (frameTime > MAX_FRAME_TIME)
+            frameTime = MAX_FRAME_TIME;
+        else if (frameTime < 0)
+            frameTime = 0;
+
+        accumulator += frameTime;
+        int steps = 0;
+        while (accumulator >= step && !world.isGameOver())
+        {
+            if (stepListener != null)
+                stepListener.beforeStep(stepCount + steps);
+            world.step(step);
+            accumulator -= step;
+            ++steps;
+        }
+        stepCount += steps;
+        return steps;
+    }
+
+    // fraction of a step between the last simulated state and now, for interpolation
+    public float getAlpha()
+    {
+        return world.isGameOver() ? 1f : (float) (accumulator / step);
+    }
+
+    public void setStepListener(StepListener listener)
+    {
+        stepListener = listener;
+    }
+
+    public void reset()
+    {
+        accumulator = 0;
+        stepCount = 0;
+    }
+
+    // carry on a game restored after stepCount steps, with no time banked
+    public void resumeAt(long stepCount)
+    {
+        accumulator = 0;
+        this.stepCount = stepCount;
+    }
+
+    public double getStep() { return step; }
+    public long getStepCount() { return stepCount; }
+} // end class FixedStepLoop
@@ -0,0 +1,29 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Monotonic time source used for frame pacing. Swap in a fake clock to drive the
+ * schedulers deterministically on the JVM.
+ */
+public interface FrameClock
+{
+    long nanoTime(); // current time in nanoseconds
+
+    void sleepNanos(long nanos) throws InterruptedException; // block the calling thread
+
+    // the real clock, backed by System.nanoTime and Thread.sleep
+    FrameClock SYSTEM = new FrameClock()
+    {
+        @Override
+        public long nanoTime()
+        {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void sleepNanos(long nanos) throws InterruptedException
+        {
+            if (nanos > 0)
+                Thread.sleep(nanos / 1000000L, (int) (nanos % 1000000L));
+        }
+    }; // end anonymous FrameClock
+} // end interface FrameClock
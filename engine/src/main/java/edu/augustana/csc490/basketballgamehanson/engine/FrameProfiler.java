@@ -0,0 +1,159 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.util.Locale;
+
+/**
+ * Per-phase frame timing for the game threads. Each phase's durations go into its own
+ * FrameTimeHistogram, and p50/p95/p99 can be rendered into a reusable char buffer for
+ * an on-screen overlay without allocating. Frames with nothing to redraw lock no canvas,
+ * so they are counted as skipped instead of timing the canvas phases at zero. While
+ * disabled the threads only pay for reading the enabled flag once per frame.
+ *
+ * UPDATE is recorded by the simulation thread once per advance, so every advance is
+ * counted once however fast the render thread draws; the other phases are recorded
+ * by the render thread. The caller holds one lock around recording UPDATE and around
+ * clear, updateText and summary, which read it.
+ */
+public class FrameProfiler
+{
+    // phases of a frame
+    public static final int FRAME = 0; // time between render frame starts
+    public static final int UPDATE = 1; // one advance, on the simulation thread
+    public static final int LOCK_CANVAS = 2; // waiting in lockCanvas
+    public static final int DRAW = 3; // drawing into the canvas
+    public static final int POST = 4; // unlockCanvasAndPost
+    public static final int PHASE_COUNT = 5;
+
+    private static final String[] PHASE_NAMES = {"frame", "update", "lock", "draw", "post"};
+    private static final String DROPPED_LABEL = "dropped ";
+    private static final String SKIPPED_LABEL = "skipped ";
+    private static final int LINE_LENGTH = 48; // room for the longest line, two longs
+
+    private volatile boolean enabled;
+    private final FrameTimeHistogram[] histograms = new FrameTimeHistogram[PHASE_COUNT];
+    private long skippedFrames; // frames that locked no canvas, so drew nothing
+
+    // overlay text: one line per phase, then the dropped and skipped frame lines
+    private final char[] text = new char[(PHASE_COUNT + 2) * LINE_LENGTH];
+    private final int[] lineLengths = new int[PHASE_COUNT + 2];
+
+    public FrameProfiler()
+    {
+        for (int phase = 0; phase < PHASE_COUNT; ++phase)
+            histograms[phase] = new FrameTimeHistogram();
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    // may be called from any thread
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    public void record(int phase, long nanos)
+    {
+        histograms[phase].record(nanos);
+    }
+
+    // a frame with nothing to redraw, which records no LOCK_CANVAS, DRAW or POST
+    public void recordSkippedFrame()
+    {
+        ++skippedFrames;
+    }
+
+    public void clear()
+    {
+        for (int phase = 0; phase < PHASE_COUNT; ++phase)
+            histograms[phase].clear();
+        skippedFrames = 0;
+    }
+
+    // rewrite the overlay text from the histograms so far
+    public void updateText(long frames, long droppedFrames)
+    {
+        for (int phase = 0; phase < PHASE_COUNT; ++phase)
+        {
+            int start = phase * LINE_LENGTH;
+            int position = copy(PHASE_NAMES[phase], start);
+            FrameTimeHistogram histogram = histograms[phase];
+            position = writeMillis(histogram.getValueAtPercentile(50), position);
+            position = writeMillis(histogram.getValueAtPercentile(95), position);
+            position = writeMillis(histogram.getValueAtPercentile(99), position);
+            lineLengths[phase] = position - start;
+        }
+
+        int start = PHASE_COUNT * LINE_LENGTH;
+        int position = copy(DROPPED_LABEL, start);
+        position = writeNumber(droppedFrames, position);
+        text[position++] = '/';
+        position = writeNumber(frames, position);
+        lineLengths[PHASE_COUNT] = position - start;
+
+        start = (PHASE_COUNT + 1) * LINE_LENGTH;
+        position = copy(SKIPPED_LABEL, start);
+        position = writeNumber(skippedFrames, position);
+        lineLengths[PHASE_COUNT + 1] = position - start;
+    }
+
+    private int copy(String source, int position)
+    {
+        source.getChars(0, source.length(), text, position);
+        return position + source.length();
+    }
+
+    // write " m.hh" for nanos as milliseconds to two places
+    private int writeMillis(long nanos, int position)
+    {
+        long hundredths = (nanos + 5000) / 10000;
+        text[position++] = ' ';
+        position = writeNumber(hundredths / 100, position);
+        text[position++] = '.';
+        text[position++] = (char) ('0' + hundredths / 10 % 10);
+        text[position++] = (char) ('0' + hundredths % 10);
+        return position;
+    }
+
+    // write value's decimal digits at position; returns the position after them
+    private int writeNumber(long value, int position)
+    {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10)
+            ++digits;
+
+        for (int i = position + digits - 1; i >= position; --i)
+        {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + digits;
+    }
+
+    // multi-line report of every phase, for logs and files
+    public String summary(long frames, long droppedFrames)
+    {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.US, "%-8s %8s %8s %8s %8s %8s%n",
+                "phase", "count", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (int phase = 0; phase < PHASE_COUNT; ++phase)
+        {
+            FrameTimeHistogram histogram = histograms[phase];
+            report.append(String.format(Locale.US, "%-8s %8d %8.3f %8.3f %8.3f %8.3f%n",
+                    PHASE_NAMES[phase], histogram.getCount(),
+                    histogram.getValueAtPercentile(50) / 1e6,
+                    histogram.getValueAtPercentile(95) / 1e6,
+                    histogram.getValueAtPercentile(99) / 1e6, histogram.getMax() / 1e6));
+        }
+        report.append(String.format(Locale.US, "dropped %d of %d frames%n", droppedFrames, frames));
+        report.append(String.format(Locale.US, "skipped %d frames with nothing to redraw%n",
+                skippedFrames));
+        return report.toString();
+    }
+
+    public FrameTimeHistogram getHistogram(int phase) { return histograms[phase]; }
+    public char[] getText() { return text; }
+    public long getSkippedFrames() { return skippedFrames; }
+    public int getLineCount() { return PHASE_COUNT + 2; }
+    public int getLineStart(int line) { return line * LINE_LENGTH; }
+    public int getLineLength(int line) { return lineLengths[line]; }
+} // end class FrameProfiler
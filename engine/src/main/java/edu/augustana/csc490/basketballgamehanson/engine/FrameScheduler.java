@@ -0,0 +1,23 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Decides when the game loop starts its next frame.
+ */
+public interface FrameScheduler
+{
+    // block until the next frame should start; returns the frame's start time in nanoseconds
+    long awaitNextFrame() throws InterruptedException;
+
+    // release a thread blocked in awaitNextFrame, e.g. when the game is stopping
+    void cancel();
+
+    long getFrameCount(); // frames started since the last reset
+
+    long getDroppedFrames(); // frame slots missed since the last reset
+
+    void reset();
+
+    // pick up again after a pause: clears a cancel, keeps the counters, and does not
+    // count the time spent paused as dropped frames
+    void resume();
+} // end interface FrameScheduler
@@ -0,0 +1,82 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Fixed-size histogram of durations in nanoseconds with HDR-style log-linear buckets:
+ * exact below SUB_BUCKETS ns, then each power of two split into SUB_BUCKETS / 2 equal
+ * sub-buckets, so every recorded value is kept to within about 3%. Recording is a
+ * couple of shifts and an increment, and nothing is allocated after construction.
+ * Values above MAX_VALUE are clamped to it.
+ */
+public class FrameTimeHistogram
+{
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    public static final long MAX_VALUE = (1L << 33) - 1; // about 8.6 seconds
+
+    private final long[] counts = new long[indexOf(MAX_VALUE) + 1];
+    private long total;
+    private long max;
+
+    private static int indexOf(long value)
+    {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+        int top = (int) (value >>> shift); // in [HALF_SUB_BUCKETS, SUB_BUCKETS)
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + top - HALF_SUB_BUCKETS;
+    }
+
+    // largest value that lands in bucket index
+    private static long highestValueIn(int index)
+    {
+        if (index < SUB_BUCKETS)
+            return index;
+
+        int shift = (index - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        long top = (index - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+
+    public void record(long nanos)
+    {
+        if (nanos < 0)
+            nanos = 0;
+        else if (nanos > MAX_VALUE)
+            nanos = MAX_VALUE;
+
+        ++counts[indexOf(nanos)];
+        ++total;
+        if (nanos > max)
+            max = nanos;
+    }
+
+    // the value at or below which percentile p (0 to 100) of the recorded values fall
+    public long getValueAtPercentile(double p)
+    {
+        if (total == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(p / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; ++i)
+        {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.min(highestValueIn(i), max);
+        }
+        return max;
+    }
+
+    public void clear()
+    {
+        for (int i = 0; i < counts.length; ++i)
+            counts[i] = 0;
+        total = 0;
+        max = 0;
+    }
+
+    public long getCount() { return total; }
+    public long getMax() { return max; }
+} // end class FrameTimeHistogram
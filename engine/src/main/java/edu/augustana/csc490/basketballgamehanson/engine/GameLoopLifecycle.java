@@ -0,0 +1,126 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Lifecycle of the game loop thread: CREATED until the thread starts, then RUNNING or
+ * PAUSED, and STOPPED once it has been told to exit. The loop calls awaitRunning before
+ * every frame, which parks the thread on a monitor while paused, so a paused game uses
+ * no CPU and picks up from exactly where it stopped. Transitions that don't apply to
+ * the current state are refused, so a second thread can never be started over a live one.
+ */
+public class GameLoopLifecycle
+{
+    public static final int CREATED = 0;
+    public static final int RUNNING = 1;
+    public static final int PAUSED = 2;
+    public static final int STOPPED = 3;
+
+    private final FrameClock clock;
+    private final Object lock = new Object();
+    private int state = CREATED;
+    private long resumeCount; // times the loop has been resumed
+    private long resumeRequestTime; // when the latest resume was asked for
+    private long lastResumeLatency; // nanoseconds from resume to the loop thread waking
+
+    public GameLoopLifecycle(FrameClock clock)
+    {
+        this.clock = clock;
+    }
+
+    // CREATED -> RUNNING, just before the loop thread is started; false if already started
+    public boolean start()
+    {
+        return transition(CREATED, RUNNING);
+    }
+
+    // RUNNING -> PAUSED; false if not running
+    public boolean pause()
+    {
+        return transition(RUNNING, PAUSED);
+    }
+
+    // PAUSED -> RUNNING, waking the loop thread; false if not paused
+    public boolean resume()
+    {
+        synchronized (lock)
+        {
+            if (state != PAUSED)
+                return false;
+
+            resumeRequestTime = clock.nanoTime();
+            ++resumeCount;
+            state = RUNNING;
+            lock.notifyAll();
+            return true;
+        }
+    }
+
+    // any state -> STOPPED; the loop thread exits at its next awaitRunning
+    public void stop()
+    {
+        synchronized (lock)
+        {
+            state = STOPPED;
+            lock.notifyAll();
+        }
+    }
+
+    // STOPPED -> CREATED, once the old loop thread has been joined; false if not stopped
+    public boolean reset()
+    {
+        return transition(STOPPED, CREATED);
+    }
+
+    private boolean transition(int from, int to)
+    {
+        synchronized (lock)
+        {
+            if (state != from)
+                return false;
+
+            state = to;
+            lock.notifyAll();
+            return true;
+        }
+    }
+
+    // loop thread only: park while paused; true to run a frame, false to exit the loop
+    public boolean awaitRunning() throws InterruptedException
+    {
+        synchronized (lock)
+        {
+            if (state != PAUSED)
+                return state == RUNNING;
+
+            while (state == PAUSED)
+                lock.wait();
+
+            if (state == RUNNING)
+                lastResumeLatency = clock.nanoTime() - resumeRequestTime;
+            return state == RUNNING;
+        }
+    }
+
+    public int getState()
+    {
+        synchronized (lock)
+        {
+            return state;
+        }
+    }
+
+    public long getResumeCount()
+    {
+        synchronized (lock)
+        {
+            return resumeCount;
+        }
+    }
+
+    public long getLastResumeLatency()
+    {
+        synchronized (lock)
+        {
+            return lastResumeLatency;
+        }
+    }
+} // end class GameLoopLifecycle
@@ -0,0 +1,476 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Android-free simulation state for one game of Shooter. The world only knows about
+ * geometry, motion, scoring and the clock; drawing and dialogs stay in ShooterView.
+ * Everything is measured in world units on a court of fixed size, so a game plays the
+ * same on every screen; ViewTransform maps the court onto pixels when drawing.
+ * The hoop follows its Level's compiled path, so moving it costs a table lookup a step.
+ * Balls and hoop segments live in struct-of-arrays stores rather than per-entity objects.
+ * A spatial grid over the balls limits which balls are swept against each segment and
+ * which pairs of balls are tested against each other.
+ */
+public class GameWorld
+{
+    /** Told when a shot leaves the screen, in the step it leaves. */
+    public interface ShotListener
+    {
+        void onShotResolved(int shot, boolean scored); // shot counts from 0 each game
+    }
+
+    /** Told when a ball bounces off a solid segment or first passes a score trigger. */
+    public interface ContactListener
+    {
+        void onContact(int segment, int ball); // segment indexes getSegments()
+    }
+
+    public static final double GAME_LENGTH = 60; // seconds in one game
+
+    // the court, in world units: one unit is the court's width, whatever the screen
+    public static final float WIDTH = 1f;
+    public static final float HEIGHT = 1776f / 1080f; // shaped like the phone it was tuned on
+
+    // indices of the hoop's segments in getSegments()
+    public static final int BACKBOARD = 0;
+    public static final int FRONT_RIM = 1;
+    public static final int POINT_CHECKER = 2;
+
+    public static final int MAX_RAPID_FIRE_BALLS = 512; // ball pool size in rapid-fire mode
+    private static final int GRID_MIN_BALLS = 16; // fewer balls just sweep every segment
+    private static final int MAX_BOUNCES_PER_STEP = 3; // off the hoop, per ball
+
+    // the basketball
+    private static final float BASKETBALL_RADIUS = WIDTH / 36;
+    private static final float BASKETBALL_SPEED = WIDTH * 3; // launch speed per second
+    // the original loop added speed / 75 every 10 ms step
+    private static final float GRAVITY = BASKETBALL_SPEED / 75 / 0.010f;
+
+    // the hoop; where it is and how it moves come from the level
+    private static final float LINE_WIDTH = WIDTH / 24; // width of backboard
+
+    // the ball bounces off lines a little in front of the drawn backboard and rim
+    private static final float BACKBOARD_CONTACT_OFFSET = -WIDTH / 36;
+    private static final float FRONT_RIM_CONTACT_OFFSET = -WIDTH / 27;
+
+    //variables for the game clock and tracking statistics
+    private boolean gameOver; // has the clock run out?
+    private double timeLeft; // time remaining in seconds
+    private int score; // players score
+    private int shotsTaken; // shots the user has taken
+    private double totalElapsedTime; // simulated seconds
+
+    // the hoop: backboard, front of rim and point checker
+    private final Level level;
+    private final HoopPath path;
+    private final SegmentStore segments = new SegmentStore(3);
+    private double hoopTime; // seconds along the path, from 0 to its period
+    private final float[] hoopOffset = new float[2]; // from the level's placing, this step
+
+    //variables for the basketballs
+    private final BallStore balls; // one slot in classic play, many in rapid fire
+    private final int[] shotOfBall; // per ball slot, the shot that launched it
+    private ShotListener shotListener;
+    private ContactListener contactListener;
+
+    // broad phase
+    private final SpatialGrid grid; // balls filed by position at the start of each step
+    private final int[] nearby; // query results from grid
+    private final int[] nearSegments; // per ball, bit s set if segment s may be hit this step
+    private int solidSegments; // bit s set for each solid segment
+
+    // a classic game, with one basketball on the screen at a time
+    public GameWorld()
+    {
+        this(false);
+    }
+
+    // rapidFire allows up to MAX_RAPID_FIRE_BALLS basketballs in flight at once
+    public GameWorld(boolean rapidFire)
+    {
+        this(rapidFire, Level.CLASSIC);
+    }
+
+    // a game on level, whose path may be shared with other worlds
+    public GameWorld(boolean rapidFire, Level level)
+    {
+        this.level = level;
+        path = level.getPath();
+        balls = new BallStore(rapidFire ? MAX_RAPID_FIRE_BALLS : 1);
+        shotOfBall = new int[balls.getCapacity()];
+        grid = new SpatialGrid(balls.getCapacity());
+        nearby = new int[balls.getCapacity()];
+        nearSegments = new int[balls.getCapacity()];
+
+        // the ball scores by passing between the point checker's left edge and the backboard
+        segments.add(SegmentStore.SOLID, BACKBOARD_CONTACT_OFFSET, 0);
+        segments.add(SegmentStore.SOLID, FRONT_RIM_CONTACT_OFFSET, 0);
+        segments.add(SegmentStore.SCORE_TRIGGER, -(LINE_WIDTH * 3),
+                level.getBackboardX() - level.getCheckerX() + LINE_WIDTH * 3);
+
+        solidSegments = 0;
+        for (int s = 0; s < segments.getCount(); ++s)
+        {
+            if (segments.kind[s] == SegmentStore.SOLID)
+                solidSegments |= 1 << s;
+        }
+
+        // cells one ball across, so touching balls are always in neighbouring cells
+        grid.resize(WIDTH, HEIGHT, BASKETBALL_RADIUS * 2);
+        reset();
+    }
+
+    // put the hoop, clock and statistics back to the start of a game
+    public void reset()
+    {
+        timeLeft = GAME_LENGTH;
+        score = 0;
+        balls.clear();
+        grid.clear();
+        shotsTaken = 0;
+        totalElapsedTime = 0.0;
+        gameOver = false;
+        placeHoopAtPhase(0);
+    }
+
+    // put the hoop phase seconds along its path, as getHoopPhase reports it; used to
+    // start a game and to set up precomputed shots
+    void placeHoopAtPhase(double phase)
+    {
+        double period = path.getPeriod();
+        hoopTime = phase - Math.floor(phase / period) * period;
+        path.getOffset(hoopTime, hoopOffset);
+        moveHoop(hoopOffset[0], hoopOffset[1]);
+        for (int i = 0; i < segments.getCount(); ++i)
+        {
+            // at rest until the next step sets its velocity
+            segments.set(i, segments.startX[i], segments.startY[i], segments.endX[i], segments.endY[i]);
+        }
+    }
+
+    // put the hoop at offset (x, y) from where the level places it
+    private void moveHoop(float x, float y)
+    {
+        float bottom = level.getBackboardBottom() + y;
+        segments.moveTo(BACKBOARD, level.getBackboardX() + x, level.getBackboardTop() + y,
+                level.getBackboardX() + x, bottom);
+        segments.moveTo(FRONT_RIM, level.getRimX() + x, level.getRimTop() + y,
+                level.getRimX() + x, bottom);
+        segments.moveTo(POINT_CHECKER, level.getCheckerX() + x, level.getCheckerTop() + y,
+                level.getCheckerX() + x, bottom);
+    }
+
+    // make this world an exact copy of other, e.g. to replay many shots from one state
+    public void copyFrom(GameWorld other)
+    {
+        gameOver = other.gameOver;
+        timeLeft = other.timeLeft;
+        score = other.score;
+        shotsTaken = other.shotsTaken;
+        totalElapsedTime = other.totalElapsedTime;
+        hoopTime = other.hoopTime;
+
+        segments.copyFrom(other.segments);
+        balls.copyFrom(other.balls);
+        System.arraycopy(other.shotOfBall, 0, shotOfBall, 0,
+                Math.min(shotOfBall.length, other.shotOfBall.length));
+
+        grid.clear(); // refiled from the copied balls at the start of the next step
+    }
+
+    // put the clock, statistics and hoop back to a saved point; used by WorldSnapshot,
+    // which then restores the balls
+    void restoreProgress(double timeLeft, double totalElapsedTime, int score, int shotsTaken,
+            double hoopPhase)
+    {
+        this.timeLeft = timeLeft;
+        this.totalElapsedTime = totalElapsedTime;
+        this.score = score;
+        this.shotsTaken = shotsTaken;
+        gameOver = timeLeft <= 0.0;
+        grid.clear();
+        placeHoopAtPhase(hoopPhase);
+    }
+
+    // put a saved basketball back in slot ball
+    void restoreBall(int ball, float x, float y, float vx, float vy, boolean scored, int shot)
+    {
+        balls.restoreBall(ball, x, y, vx, vy, BASKETBALL_RADIUS, scored);
+        shotOfBall[ball] = shot;
+    }
+
+    // advance the simulation by interval seconds
+    public void step(double interval)
+    {
+        if (gameOver) return;
+
+        totalElapsedTime += interval;
+        float dt = (float) interval; // the clock is kept in double, the physics in float
+
+        // find where the path has the hoop at the end of the step, and give it the
+        // velocity that carries it there; balls are swept against that motion
+        hoopTime += interval;
+        if (hoopTime >= path.getPeriod())
+            hoopTime -= path.getPeriod();
+        path.getOffset(hoopTime, hoopOffset);
+        if (dt > 0)
+        {
+            float hoopVelocityX =
+                    (level.getBackboardX() + hoopOffset[0] - segments.startX[BACKBOARD]) / dt;
+            float hoopVelocityY =
+                    (level.getBackboardTop() + hoopOffset[1] - segments.startY[BACKBOARD]) / dt;
+            segments.setVelocity(hoopVelocityX, hoopVelocityY, dt);
+        }
+
+        if (balls.getActiveCount() >= GRID_MIN_BALLS)
+        {
+            // file balls shot or pushed since the last step, and find the farthest any can move
+            float maxTravel = 0;
+            for (int i = 0; i < balls.getCapacity(); ++i)
+            {
+                nearSegments[i] = 0;
+                if (balls.active[i])
+                {
+                    grid.update(i, balls.x[i], balls.y[i]);
+                    maxTravel = Math.max(maxTravel, balls.radius[i] +
+                            dt * (Math.abs(balls.velocityX[i]) + Math.abs(balls.velocityY[i])));
+                }
+                else
+                    grid.remove(i);
+            }
+            findBallsNearSegments(dt, maxTravel);
+        }
+        else
+        {
+            for (int i = 0; i < balls.getCapacity(); ++i)
+                nearSegments[i] = solidSegments;
+        }
+
+        for (int i = 0; i < balls.getCapacity(); ++i)
+        {
+            balls.previousX[i] = balls.x[i];
+            balls.previousY[i] = balls.y[i];
+            if (balls.active[i]) // if this basketball is on the screen
+                updateBasketball(i, dt);
+        }
+
+        // bounce basketballs off each other once they have all moved
+        if (balls.getActiveCount() > 1)
+        {
+            for (int i = 0; i < balls.getCapacity(); ++i)
+            {
+                if (balls.active[i])
+                    grid.update(i, balls.x[i], balls.y[i]);
+                else
+                    grid.remove(i);
+            }
+            BallContacts.resolve(balls, grid);
+        }
+
+        // update the hoop's position
+        moveHoop(hoopOffset[0], hoopOffset[1]);
+
+        timeLeft -= interval;
+
+        //if the timer reached zero
+        if (timeLeft <= 0.0)
+        {
+            timeLeft = 0.0;
+            gameOver = true; // the game is over
+        }
+    }
+
+    // mark the balls that could reach each solid segment this step, so the sweep can
+    // skip the rest; margin covers a ball's radius plus its travel in one step
+    private void findBallsNearSegments(float dt, float margin)
+    {
+        for (int s = 0; s < segments.getCount(); ++s)
+        {
+            if (segments.kind[s] != SegmentStore.SOLID)
+                continue;
+
+            float x = segments.startX[s] + segments.contactOffsetX[s];
+            float reach = margin + dt * (Math.abs(segments.velocityX[s]) + Math.abs(segments.velocityY[s]));
+            int count = grid.queryRect(
+                    Math.min(x, segments.endX[s] + segments.contactOffsetX[s]) - reach,
+                    Math.min(segments.startY[s], segments.endY[s]) - reach,
+                    Math.max(x, segments.endX[s] + segments.contactOffsetX[s]) + reach,
+                    Math.max(segments.startY[s], segments.endY[s]) + reach, nearby);
+            for (int n = 0; n < count; ++n)
+                nearSegments[nearby[n]] |= 1 << s;
+        }
+    }
+
+    // move basketball i through one step, before the hoop moves
+    private void updateBasketball(int i, float dt)
+    {
+        float startX = balls.x[i];
+        float startY = balls.y[i];
+
+        // sweep the ball against each solid segment in the segment's own frame of
+        // reference, so neither the ball's nor the hoop's motion can skip a contact; after
+        // a bounce, the rest of the step is swept again
+        float moved = 0; // fraction of the step already moved
+        for (int bounce = 0; bounce <= MAX_BOUNCES_PER_STEP && moved < 1; ++bounce)
+        {
+            float left = (1 - moved) * dt; // seconds of the step still to move
+            float dx = left * balls.velocityX[i];
+            float dy = left * balls.velocityY[i];
+            float hit = SweptCollision.NO_HIT;
+            int hitSegment = -1;
+            for (int s = 0; s < segments.getCount(); ++s)
+            {
+                if ((nearSegments[i] & (1 << s)) == 0) // too far away, or not solid
+                    continue;
+
+                // the segment has already moved part of the step; measure from where it began
+                float offset = segments.contactOffsetX[s];
+                float t = SweptCollision.timeOfImpact(
+                        balls.x[i] - moved * dt * segments.velocityX[s],
+                        balls.y[i] - moved * dt * segments.velocityY[s],
+                        dx - left * segments.velocityX[s], dy - left * segments.velocityY[s],
+                        balls.radius[i],
+                        segments.startX[s] + offset, segments.startY[s],
+                        segments.endX[s] + offset, segments.endY[s]);
+                if (t < hit)
+                {
+                    hit = t;
+                    hitSegment = s;
+                }
+            }
+
+            if (hit == SweptCollision.NO_HIT)
+            {
+                //update basketball position
+                balls.x[i] += dx;
+                balls.y[i] += dy;
+                break;
+            }
+            if (bounce == MAX_BOUNCES_PER_STEP)
+                break; // the ball is wedged; it waits at the last contact for the next step
+
+            if (contactListener != null)
+                contactListener.onContact(hitSegment, i);
+
+            // where the center is at contact, from the nearest point on the segment
+            float segmentVelocityX = segments.velocityX[hitSegment];
+            float segmentVelocityY = segments.velocityY[hitSegment];
+            float elapsed = (moved + hit * (1 - moved)) * dt;
+            float contactY = balls.y[i] + hit * dy - elapsed * segmentVelocityY;
+            float normalX = balls.x[i] + hit * dx - elapsed * segmentVelocityX -
+                    (segments.startX[hitSegment] + segments.contactOffsetX[hitSegment]);
+            float normalY = contactY - Math.max(segments.startY[hitSegment],
+                    Math.min(segments.endY[hitSegment], contactY));
+
+            // move to the point of contact; the bounce reverses the ball's speed relative
+            // to the moving segment, across its face or, off an end, along the line
+            // through the end and the center
+            balls.x[i] += dx * hit;
+            balls.y[i] += dy * hit;
+            if (normalY == 0)
+                balls.velocityX[i] = segmentVelocityX -
+                        0.01f * (balls.velocityX[i] - segmentVelocityX); //reverse the basketball's direction
+            else
+            {
+                float length = (float) Math.sqrt(normalX * normalX + normalY * normalY);
+                normalX /= length;
+                normalY /= length;
+                float approach = (balls.velocityX[i] - segmentVelocityX) * normalX +
+                        (balls.velocityY[i] - segmentVelocityY) * normalY;
+                balls.velocityX[i] -= 1.01f * approach * normalX;
+                balls.velocityY[i] -= 1.01f * approach * normalY;
+            }
+            moved += hit * (1 - moved);
+        }
+
+        //check for collisions with the walls
+        float radius = balls.radius[i];
+        if (balls.x[i] + radius > WIDTH || balls.x[i] - radius < 0 ||
+                balls.y[i] + radius > HEIGHT || balls.y[i] - radius < 0)
+        {
+            balls.retire(i); // remove basketball from screen
+            if (balls.scored[i])
+                score++;
+            if (shotListener != null)
+                shotListener.onShotResolved(shotOfBall[i], balls.scored[i]);
+            return; // the slot is free now; nothing left to move
+        }
+
+        //exerts gravity on ball (archs shot)
+        balls.velocityY[i] += dt * GRAVITY;
+
+        // check for the ball's path crossing a score trigger
+        for (int s = 0; s < segments.getCount(); ++s)
+        {
+            if (segments.kind[s] != SegmentStore.SCORE_TRIGGER)
+                continue;
+
+            float left = segments.startX[s] + segments.contactOffsetX[s];
+            if (SweptCollision.segmentIntersectsRect(startX, startY, balls.x[i], balls.y[i],
+                    left, segments.startY[s], left + segments.contactWidth[s], segments.endY[s]) &&
+                    !balls.scored[i])
+            {
+                balls.scored[i] = true;
+                if (contactListener != null)
+                    contactListener.onContact(s, i);
+            }
+        }
+    }
+
+    // can another basketball be shot right now?
+    public boolean canShoot()
+    {
+        return !gameOver && balls.hasFreeSlot();
+    }
+
+    // launch a basketball from the bottom left at angle radians from vertical
+    public boolean shootBasketball(double angle)
+    {
+        if (!canShoot()) return false;
+
+        //start the basketball from bottom left
+        int ball = balls.spawn(BASKETBALL_RADIUS, HEIGHT * 15 / 16,
+                BASKETBALL_SPEED * FastTrig.sin((float) angle),
+                -BASKETBALL_SPEED * FastTrig.cos((float) angle), BASKETBALL_RADIUS);
+        shotOfBall[ball] = shotsTaken;
+        ++shotsTaken; // increment shotsTaken
+        return true;
+    }
+
+    // listener is called on the thread that steps the world; null to stop listening
+    public void setShotListener(ShotListener listener)
+    {
+        shotListener = listener;
+    }
+
+    // listener is called on the thread that steps the world, mid-step, so it should
+    // only record the contact; null to stop listening
+    public void setContactListener(ContactListener listener)
+    {
+        contactListener = listener;
+    }
+
+    // seconds for the hoop to go once round its path
+    public double getHoopPeriod()
+    {
+        return path.getPeriod();
+    }
+
+    // seconds since the hoop last passed the start of its path, from 0 to getHoopPeriod()
+    public double getHoopPhase()
+    {
+        return hoopTime;
+    }
+
+    public Level getLevel() { return level; }
+    public BallStore getBalls() { return balls; }
+    public SegmentStore getSegments() { return segments; }
+    public int getShotOfBall(int i) { return shotOfBall[i]; }
+    public boolean isBasketballOnScreen() { return balls.getActiveCount() > 0; }
+    public float getBasketballRadius() { return BASKETBALL_RADIUS; }
+    public float getLineWidth() { return LINE_WIDTH; }
+    public boolean isGameOver() { return gameOver; }
+    public double getTimeLeft() { return timeLeft; }
+    public int getScore() { return score; }
+    public int getShotsTaken() { return shotsTaken; }
+    public double getTotalElapsedTime() { return totalElapsedTime; }
+} // end class GameWorld
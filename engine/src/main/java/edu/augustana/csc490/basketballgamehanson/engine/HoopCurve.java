@@ -0,0 +1,156 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * A closed path for the hoop to follow, as an offset in world units from where a
+ * level places it, repeating every getPeriod() seconds and starting at (0, 0) for the
+ * sine and at the first point for the others. Curves are evaluated exactly and can be
+ * slow; GameWorld follows the HoopPath compiled from one instead.
+ */
+public abstract class HoopCurve
+{
+    public abstract double getPeriod();
+
+    // the offset time seconds along the path, into out[0] (x) and out[1] (y)
+    public abstract void getOffset(double time, double[] out);
+
+    // time folded into [0, getPeriod())
+    protected double wrap(double time)
+    {
+        double period = getPeriod();
+        time -= Math.floor(time / period) * period;
+        return time < period ? time : 0;
+    }
+
+    /** Straight lines from point to point and back to the first, at a constant speed. */
+    public static class Linear extends HoopCurve
+    {
+        private final double speed;
+        private final double[] x;
+        private final double[] y;
+        private final double[] distance; // along the path to point i, closing at the end
+        private final double period;
+
+        public Linear(double speed, double[] x, double[] y)
+        {
+            if (x.length < 2 || x.length != y.length)
+                throw new IllegalArgumentException("a linear path needs two or more points");
+            if (!(speed > 0))
+                throw new IllegalArgumentException("a linear path needs a speed above 0");
+
+            this.speed = speed;
+            this.x = x.clone();
+            this.y = y.clone();
+            distance = new double[x.length + 1];
+            for (int i = 0; i < x.length; ++i)
+            {
+                int next = (i + 1) % x.length;
+                distance[i + 1] = distance[i] + Math.hypot(x[next] - x[i], y[next] - y[i]);
+            }
+            if (!(distance[x.length] > 0))
+                throw new IllegalArgumentException("a linear path's points are all the same");
+            period = distance[x.length] / speed;
+        }
+
+        @Override
+        public double getPeriod()
+        {
+            return period;
+        }
+
+        @Override
+        public void getOffset(double time, double[] out)
+        {
+            double d = wrap(time) * speed;
+            int i = 0;
+            while (i < x.length - 1 && distance[i + 1] <= d)
+                ++i;
+
+            int next = (i + 1) % x.length;
+            double length = distance[i + 1] - distance[i];
+            double f = length > 0 ? (d - distance[i]) / length : 0;
+            out[0] = x[i] + (x[next] - x[i]) * f;
+            out[1] = y[i] + (y[next] - y[i]) * f;
+        }
+    } // end class Linear
+
+    /** A sine wave through (0, 0), amplitudeX and amplitudeY at its peak. */
+    public static class Sine extends HoopCurve
+    {
+        private final double period;
+        private final double amplitudeX;
+        private final double amplitudeY;
+
+        public Sine(double period, double amplitudeX, double amplitudeY)
+        {
+            if (!(period > 0))
+                throw new IllegalArgumentException("a sine path needs a period above 0");
+
+            this.period = period;
+            this.amplitudeX = amplitudeX;
+            this.amplitudeY = amplitudeY;
+        }
+
+        @Override
+        public double getPeriod()
+        {
+            return period;
+        }
+
+        @Override
+        public void getOffset(double time, double[] out)
+        {
+            double wave = Math.sin(2 * Math.PI * time / period);
+            out[0] = amplitudeX * wave;
+            out[1] = amplitudeY * wave;
+        }
+    } // end class Sine
+
+    /**
+     * A closed Catmull-Rom spline through every point, spending the same time between
+     * each pair whatever their distance.
+     */
+    public static class Spline extends HoopCurve
+    {
+        private final double period;
+        private final double[] x;
+        private final double[] y;
+
+        public Spline(double period, double[] x, double[] y)
+        {
+            if (x.length < 3 || x.length != y.length)
+                throw new IllegalArgumentException("a spline path needs three or more points");
+            if (!(period > 0))
+                throw new IllegalArgumentException("a spline path needs a period above 0");
+
+            this.period = period;
+            this.x = x.clone();
+            this.y = y.clone();
+        }
+
+        @Override
+        public double getPeriod()
+        {
+            return period;
+        }
+
+        @Override
+        public void getOffset(double time, double[] out)
+        {
+            int n = x.length;
+            double s = wrap(time) / period * n;
+            int i = Math.min((int) s, n - 1);
+            double u = s - i;
+
+            int before = (i + n - 1) % n, next = (i + 1) % n, after = (i + 2) % n;
+            out[0] = catmullRom(x[before], x[i], x[next], x[after], u);
+            out[1] = catmullRom(y[before], y[i], y[next], y[after], u);
+        }
+
+        // between p1 (u = 0) and p2 (u = 1), with tangents from the points either side
+        private static double catmullRom(double p0, double p1, double p2, double p3, double u)
+        {
+            return 0.5 * (2 * p1 + (p2 - p0) * u + (2 * p0 - 5 * p1 + 4 * p2 - p3) * u * u +
+                    (3 * (p1 - p2) + p3 - p0) * u * u * u);
+        }
+    } // end class Spline
+} // end class HoopCurve
@@ -0,0 +1,50 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * A HoopCurve sampled at a fixed rate over one period, so finding the hoop's offset at
+ * any time is an index and a linear interpolation between two samples, whatever the
+ * curve. Immutable once built, so one path can be shared by every world on the level.
+ */
+public class HoopPath
+{
+    private final double period;
+    private final int samples; // per period
+    private final double samplesPerSecond; // adjusted so the period is whole samples
+    private final float[] offsets; // x and y of each sample, then the first again
+
+    public HoopPath(HoopCurve curve, double samplesPerSecond)
+    {
+        period = curve.getPeriod();
+        samples = Math.max(1, (int) Math.ceil(period * samplesPerSecond));
+        this.samplesPerSecond = samples / period;
+        offsets = new float[2 * (samples + 1)];
+
+        double[] offset = new double[2];
+        for (int k = 0; k < samples; ++k)
+        {
+            curve.getOffset(k / this.samplesPerSecond, offset);
+            offsets[2 * k] = (float) offset[0];
+            offsets[2 * k + 1] = (float) offset[1];
+        }
+        offsets[2 * samples] = offsets[0];
+        offsets[2 * samples + 1] = offsets[1];
+    }
+
+    // the hoop's offset time seconds along the path, into out[0] (x) and out[1] (y)
+    public void getOffset(double time, float[] out)
+    {
+        double u = time * samplesPerSecond;
+        if (u < 0 || u >= samples) // not within the first period
+            u -= Math.floor(u / samples) * samples;
+        int k = Math.min((int) u, samples - 1);
+        float f = (float) (u - k);
+
+        int i = 2 * k;
+        out[0] = offsets[i] + (offsets[i + 2] - offsets[i]) * f;
+        out[1] = offsets[i + 1] + (offsets[i + 3] - offsets[i + 1]) * f;
+    }
+
+    public double getPeriod() { return period; }
+    public int getSampleCount() { return samples; }
+    public double getSamplesPerSecond() { return samplesPerSecond; }
+} // end class HoopPath
@@ -0,0 +1,83 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Builds the score / time remaining HUD text into a reusable char buffer. The buffer
+ * is only rewritten when the score or the displayed tenth of a second changes, and
+ * never allocates after construction, so it can be drawn every frame without GC churn.
+ */
+public class HudText
+{
+    private static final int MAX_DIGITS = 11; // enough for any int, including the sign
+
+    private final char[] scoreLabel;
+    private final char[] timeLabel;
+    private final char[] chars; // score line followed by the time line
+    private int scoreLength; // chars in the score line, starting at 0
+    private int timeStart; // first char of the time line
+    private int timeLength; // chars in the time line
+
+    private int shownScore = -1;
+    private long shownTenths = -1;
+
+    public HudText(String scoreLabel, String timeLabel)
+    {
+        this.scoreLabel = scoreLabel.toCharArray();
+        this.timeLabel = timeLabel.toCharArray();
+        chars = new char[this.scoreLabel.length + this.timeLabel.length + 2 * MAX_DIGITS + 2];
+    }
+
+    // refresh the buffer for this frame; returns true if the text changed
+    public boolean update(int score, double timeLeft)
+    {
+        long tenths = Math.round(timeLeft * 10);
+        if (score == shownScore && tenths == shownTenths)
+            return false;
+
+        shownScore = score;
+        shownTenths = tenths;
+
+        int position = copy(scoreLabel, 0);
+        position = writeNumber(score, position);
+        scoreLength = position;
+
+        timeStart = position;
+        position = copy(timeLabel, position);
+        position = writeNumber(tenths / 10, position);
+        chars[position++] = '.';
+        chars[position++] = (char) ('0' + tenths % 10);
+        timeLength = position - timeStart;
+        return true;
+    }
+
+    private int copy(char[] source, int position)
+    {
+        System.arraycopy(source, 0, chars, position, source.length);
+        return position + source.length;
+    }
+
+    // write value's decimal digits at position; returns the position after them
+    private int writeNumber(long value, int position)
+    {
+        if (value < 0)
+        {
+            chars[position++] = '-';
+            value = -value;
+        }
+
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10)
+            ++digits;
+
+        for (int i = position + digits - 1; i >= position; --i)
+        {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + digits;
+    }
+
+    public char[] getChars() { return chars; }
+    public int getScoreLength() { return scoreLength; }
+    public int getTimeStart() { return timeStart; }
+    public int getTimeLength() { return timeLength; }
+} // end class HudText
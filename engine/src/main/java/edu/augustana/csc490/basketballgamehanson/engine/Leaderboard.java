@@ -0,0 +1,135 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * The K highest scores seen, each with the time its game started. Kept as a binary
+ * min-heap in parallel arrays, so a score that doesn't make the board is rejected
+ * with one comparison and one that does costs O(log K). A new score must beat an
+ * entry to displace it; ties keep the earlier game.
+ */
+public class Leaderboard
+{
+    private final int[] scores;
+    private final long[] startTimes;
+    private int size;
+
+    public Leaderboard(int capacity)
+    {
+        scores = new int[capacity];
+        startTimes = new long[capacity];
+    }
+
+    // offer a finished game; returns true if it made the board
+    public boolean offer(int score, long startTime)
+    {
+        if (size < scores.length)
+        {
+            int i = size++;
+            scores[i] = score;
+            startTimes[i] = startTime;
+            siftUp(i);
+            return true;
+        }
+        if (size == 0 || score <= scores[0])
+            return false;
+
+        scores[0] = score; // replace the lowest entry
+        startTimes[0] = startTime;
+        siftDown(0);
+        return true;
+    }
+
+    private void siftUp(int i)
+    {
+        while (i > 0)
+        {
+            int parent = (i - 1) >>> 1;
+            if (!lower(i, parent))
+                return;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i)
+    {
+        while (true)
+        {
+            int lowest = i;
+            int left = 2 * i + 1;
+            if (left < size && lower(left, lowest))
+                lowest = left;
+            if (left + 1 < size && lower(left + 1, lowest))
+                lowest = left + 1;
+            if (lowest == i)
+                return;
+            swap(i, lowest);
+            i = lowest;
+        }
+    }
+
+    // ranks entry a below entry b: a lower score, or the same score from a later game
+    private boolean lower(int a, int b)
+    {
+        return scores[a] < scores[b] || (scores[a] == scores[b] && startTimes[a] > startTimes[b]);
+    }
+
+    private void swap(int a, int b)
+    {
+        int score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+        long time = startTimes[a];
+        startTimes[a] = startTimes[b];
+        startTimes[b] = time;
+    }
+
+    // copy the board into the arrays, best first; returns the number of entries
+    public int copyRanked(int[] outScores, long[] outStartTimes)
+    {
+        int count = Math.min(size, Math.min(outScores.length, outStartTimes.length));
+        if (count == 0)
+            return 0;
+
+        int filled = 0;
+        for (int i = 0; i < size; ++i)
+        {
+            // insertion sort into the output, which holds at most K entries
+            int j = Math.min(filled, count - 1);
+            if (filled == count && !outranks(i, outScores[j], outStartTimes[j]))
+                continue;
+            while (j > 0 && outranks(i, outScores[j - 1], outStartTimes[j - 1]))
+            {
+                outScores[j] = outScores[j - 1];
+                outStartTimes[j] = outStartTimes[j - 1];
+                --j;
+            }
+            outScores[j] = scores[i];
+            outStartTimes[j] = startTimes[i];
+            if (filled < count)
+                ++filled;
+        }
+        return filled;
+    }
+
+    private boolean outranks(int i, int score, long startTime)
+    {
+        return scores[i] > score || (scores[i] == score && startTimes[i] < startTime);
+    }
+
+    // best score on the board, or 0 if it is empty
+    public int getBestScore()
+    {
+        int best = 0;
+        for (int i = 0; i < size; ++i)
+            best = Math.max(best, scores[i]);
+        return best;
+    }
+
+    public void clear()
+    {
+        size = 0;
+    }
+
+    public int getSize() { return size; }
+    public int getCapacity() { return scores.length; }
+} // end class Leaderboard
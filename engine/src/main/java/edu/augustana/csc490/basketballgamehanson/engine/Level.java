@@ -0,0 +1,209 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Where the hoop's lines start and the path the hoop follows, in world units. The
+ * curve is compiled into a HoopPath when the level is made, so the game never
+ * evaluates it, and a level that would carry the hoop off the court is refused then.
+ *
+ * Levels are text files, one setting per line and # starting a comment:
+ *
+ *   name classic
+ *   backboard 0.95 0.2055556 0.4111111   x, top and bottom of the backboard
+ *   rim 0.8 0.3854167                    x and top of the front rim
+ *   checker 0.86875 0.3854167            x and top of the point checker
+ *   path linear                          linear, sine or spline
+ *   speed 0.4111111                      linear: world units per second
+ *   period 5                             sine and spline: seconds per loop
+ *   amplitude 0 0.45                     sine: the offset at the wave's peak
+ *   point 0 0.9592593                    linear and spline: an offset on the path
+ *
+ * The rim and checker reach down to the backboard's bottom.
+ */
+public class Level
+{
+    // path samples per second; the worst error, at a linear path's corners, is half
+    // the distance the hoop moves between samples
+    public static final double SAMPLES_PER_SECOND = 480;
+
+    /** The original game, built in; res/raw/level_classic.txt is the same level. */
+    public static final Level CLASSIC = new Level("classic",
+            GameWorld.WIDTH * 19 / 20, GameWorld.HEIGHT / 8, GameWorld.HEIGHT * 2 / 8,
+            GameWorld.WIDTH * 8 / 10, GameWorld.HEIGHT * 15 / 64,
+            GameWorld.WIDTH * 139 / 160, GameWorld.HEIGHT * 15 / 64,
+            new HoopCurve.Linear(GameWorld.HEIGHT / 4, // down to near the bottom, up to the top
+                    new double[] {0, 0, 0},
+                    new double[] {0, GameWorld.HEIGHT / 1.2f - GameWorld.HEIGHT * 2 / 8,
+                            GameWorld.WIDTH / 540 - GameWorld.HEIGHT / 8}));
+
+    private final String name;
+    private final float backboardX;
+    private final float backboardTop;
+    private final float backboardBottom;
+    private final float rimX;
+    private final float rimTop;
+    private final float checkerX;
+    private final float checkerTop;
+    private final HoopCurve curve;
+    private final HoopPath path;
+
+    // IllegalArgumentException if the hoop is malformed or leaves the court
+    public Level(String name, float backboardX, float backboardTop, float backboardBottom,
+            float rimX, float rimTop, float checkerX, float checkerTop, HoopCurve curve)
+    {
+        if (!(backboardTop < backboardBottom))
+            throw new IllegalArgumentException("the backboard's top must be above its bottom");
+        if (!(rimX < checkerX && checkerX < backboardX))
+            throw new IllegalArgumentException("the rim, checker and backboard must run left to right");
+        if (!(rimTop >= backboardTop && rimTop < backboardBottom &&
+                checkerTop >= backboardTop && checkerTop < backboardBottom))
+            throw new IllegalArgumentException("the rim and checker must start beside the backboard");
+
+        this.name = name;
+        this.backboardX = backboardX;
+        this.backboardTop = backboardTop;
+        this.backboardBottom = backboardBottom;
+        this.rimX = rimX;
+        this.rimTop = rimTop;
+        this.checkerX = checkerX;
+        this.checkerTop = checkerTop;
+        this.curve = curve;
+        path = new HoopPath(curve, SAMPLES_PER_SECOND);
+
+        float[] offset = new float[2];
+        for (int k = 0; k < path.getSampleCount(); ++k)
+        {
+            double time = k / path.getSamplesPerSecond();
+            path.getOffset(time, offset);
+            float x = offset[0], y = offset[1];
+            if (rimX + x < 0 || backboardX + x > GameWorld.WIDTH ||
+                    backboardTop + y < 0 || backboardBottom + y > GameWorld.HEIGHT)
+                throw new IllegalArgumentException(String.format(
+                        "the hoop leaves the court %.2f s along its path", time));
+        }
+    }
+
+    // read a level file; IOException if it can't be read or isn't a valid level
+    public static Level parse(Reader reader) throws IOException
+    {
+        BufferedReader in = new BufferedReader(reader);
+        String name = null, kind = null;
+        float[] backboard = null, rim = null, checker = null, amplitude = null;
+        double speed = 0, period = 0;
+        List<float[]> points = new ArrayList<float[]>();
+
+        int lineNumber = 0;
+        for (String line = in.readLine(); line != null; line = in.readLine())
+        {
+            ++lineNumber;
+            int comment = line.indexOf('#');
+            String[] words = (comment < 0 ? line : line.substring(0, comment)).trim().split("\\s+");
+            String key = words[0];
+            if (key.isEmpty())
+                continue;
+
+            try
+            {
+                if (key.equals("name"))
+                    name = word(words);
+                else if (key.equals("path"))
+                    kind = word(words);
+                else if (key.equals("backboard"))
+                    backboard = numbers(words, 3);
+                else if (key.equals("rim"))
+                    rim = numbers(words, 2);
+                else if (key.equals("checker"))
+                    checker = numbers(words, 2);
+                else if (key.equals("speed"))
+                    speed = numbers(words, 1)[0];
+                else if (key.equals("period"))
+                    period = numbers(words, 1)[0];
+                else if (key.equals("amplitude"))
+                    amplitude = numbers(words, 2);
+                else if (key.equals("point"))
+                    points.add(numbers(words, 2));
+                else
+                    throw new IOException("unknown setting " + key);
+            }
+            catch (NumberFormatException e)
+            {
+                throw new IOException("level line " + lineNumber + ": " + e.getMessage());
+            }
+            catch (IOException e)
+            {
+                throw new IOException("level line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+
+        if (name == null || backboard == null || rim == null || checker == null || kind == null)
+            throw new IOException("a level needs a name, backboard, rim, checker and path");
+
+        double[] x = new double[points.size()];
+        double[] y = new double[points.size()];
+        for (int i = 0; i < x.length; ++i)
+        {
+            x[i] = points.get(i)[0];
+            y[i] = points.get(i)[1];
+        }
+
+        try
+        {
+            HoopCurve curve;
+            if (kind.equals("linear"))
+                curve = new HoopCurve.Linear(speed, x, y);
+            else if (kind.equals("sine"))
+            {
+                if (amplitude == null)
+                    throw new IOException("a sine path needs an amplitude");
+                curve = new HoopCurve.Sine(period, amplitude[0], amplitude[1]);
+            }
+            else if (kind.equals("spline"))
+                curve = new HoopCurve.Spline(period, x, y);
+            else
+                throw new IOException("unknown path " + kind);
+
+            return new Level(name, backboard[0], backboard[1], backboard[2], rim[0], rim[1],
+                    checker[0], checker[1], curve);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IOException("level " + name + ": " + e.getMessage());
+        }
+    }
+
+    // the one word after a line's key
+    private static String word(String[] words) throws IOException
+    {
+        if (words.length != 2)
+            throw new IOException(words[0] + " takes one word");
+        return words[1];
+    }
+
+    // the count numbers after a line's key
+    private static float[] numbers(String[] words, int count) throws IOException
+    {
+        if (words.length != count + 1)
+            throw new IOException(words[0] + " takes " + count + (count == 1 ? " number" : " numbers"));
+
+        float[] values = new float[count];
+        for (int i = 0; i < count; ++i)
+            values[i] = Float.parseFloat(words[i + 1]);
+        return values;
+    }
+
+    public String getName() { return name; }
+    public float getBackboardX() { return backboardX; }
+    public float getBackboardTop() { return backboardTop; }
+    public float getBackboardBottom() { return backboardBottom; }
+    public float getRimX() { return rimX; }
+    public float getRimTop() { return rimTop; }
+    public float getCheckerX() { return checkerX; }
+    public float getCheckerTop() { return checkerTop; }
+    public HoopCurve getCurve() { return curve; }
+    public HoopPath getPath() { return path; }
+} // end class Level
@@ -0,0 +1,73 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * The loop a game thread runs: park while the lifecycle is paused, wait for the
+ * scheduler's next frame, run the frame, and exit once the lifecycle is stopped.
+ * ShooterView's simulation and render threads each run one, with their own scheduler
+ * and a shared lifecycle. Time spent paused is not passed on to the frame, so whatever
+ * it steps carries on from exactly where it was paused.
+ */
+public class PacedLoop implements Runnable
+{
+    /** One frame's work, run on the loop's thread. */
+    public interface Frame
+    {
+        // the loop has woken from a pause, latencyNanos after the resume was asked for
+        void onResumed(long latencyNanos);
+
+        // do the frame starting at frameNanos, elapsedNanos after the previous one;
+        // elapsedNanos is 0 for the first frame and the first after each resume
+        void run(long frameNanos, long elapsedNanos);
+    }
+
+    private final GameLoopLifecycle lifecycle;
+    private final FrameScheduler scheduler;
+    private final Frame frame;
+
+    public PacedLoop(GameLoopLifecycle lifecycle, FrameScheduler scheduler, Frame frame)
+    {
+        this.lifecycle = lifecycle;
+        this.scheduler = scheduler;
+        this.frame = frame;
+    }
+
+    @Override
+    public void run()
+    {
+        long resumes = lifecycle.getResumeCount();
+        long previousFrameTime = 0;
+        boolean restarted = true; // no previous frame to measure from
+
+        while (true)
+        {
+            long frameTime;
+            try
+            {
+                // park while paused, and leave once stopped
+                if (!lifecycle.awaitRunning())
+                    return;
+
+                frameTime = scheduler.awaitNextFrame();
+            }
+            catch (InterruptedException e)
+            {
+                return; // nothing else interrupts a game thread, so treat it as a stop
+            }
+
+            if (lifecycle.getState() != GameLoopLifecycle.RUNNING)
+                continue; // paused or stopped while waiting for the frame
+
+            if (lifecycle.getResumeCount() != resumes)
+            {
+                resumes = lifecycle.getResumeCount();
+                restarted = true;
+                frame.onResumed(lifecycle.getLastResumeLatency());
+            }
+
+            long elapsed = restarted ? 0 : frameTime - previousFrameTime;
+            restarted = false;
+            previousFrameTime = frameTime;
+            frame.run(frameTime, elapsed);
+        }
+    }
+} // end class PacedLoop
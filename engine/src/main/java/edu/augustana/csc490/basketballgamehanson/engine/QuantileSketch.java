@@ -0,0 +1,78 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Fixed-size quantile sketch over non-negative values with a guaranteed relative error.
+ * Values are counted in logarithmically sized buckets, each about twice the relative
+ * accuracy wide, so adding a value is O(1) and the sketch never grows. Values at or
+ * below zero share one bucket; values outside [MIN_VALUE, MAX_VALUE] are clamped.
+ */
+public class QuantileSketch
+{
+    public static final double MIN_VALUE = 1e-3;
+    public static final double MAX_VALUE = 1e9;
+
+    private final double gamma; // ratio between the bounds of consecutive buckets
+    private final double logGamma;
+    private final int offset; // bucket index of MIN_VALUE
+    private final long[] counts;
+    private long zeroCount; // values <= 0
+    private long total;
+
+    // relativeAccuracy: e.g. 0.01 for quantiles within 1% of a value actually added
+    public QuantileSketch(double relativeAccuracy)
+    {
+        gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        logGamma = Math.log(gamma);
+        offset = -bucketOf(MIN_VALUE);
+        counts = new long[bucketOf(MAX_VALUE) + offset + 1];
+    }
+
+    private int bucketOf(double value)
+    {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    public void add(double value)
+    {
+        ++total;
+        if (value <= 0)
+        {
+            ++zeroCount;
+            return;
+        }
+
+        int bucket = bucketOf(Math.min(Math.max(value, MIN_VALUE), MAX_VALUE)) + offset;
+        ++counts[bucket];
+    }
+
+    // the value at quantile q in [0, 1], e.g. 0.5 for the median; 0 if empty
+    public double quantile(double q)
+    {
+        if (total == 0)
+            return 0;
+
+        long rank = (long) (q * (total - 1));
+        if (rank < zeroCount)
+            return 0;
+
+        long seen = zeroCount;
+        for (int bucket = 0; bucket < counts.length; ++bucket)
+        {
+            seen += counts[bucket];
+            if (seen > rank) // midpoint of the bucket (gamma^(i-1), gamma^i]
+                return 2 * Math.pow(gamma, bucket - offset) / (gamma + 1);
+        }
+        return MAX_VALUE;
+    }
+
+    public void clear()
+    {
+        for (int bucket = 0; bucket < counts.length; ++bucket)
+            counts[bucket] = 0;
+        zeroCount = 0;
+        total = 0;
+    }
+
+    public long getCount() { return total; }
+    public int getBucketCount() { return counts.length + 1; }
+} // end class QuantileSketch
@@ -0,0 +1,83 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Everything drawn in a frame, copied out of a GameWorld by the thread that steps it:
+ * the balls and hoop with their positions before the last step, the score and clock,
+ * and the player's aim. The simulation thread captures one after each advance and
+ * passes it to the render thread through a TripleBuffer, so drawing never reads the
+ * world while it is being stepped. States are reused and allocate nothing once made.
+ */
+public class RenderState
+{
+    private final BallStore balls;
+    private final SegmentStore segments;
+    private int score;
+    private double timeLeft;
+    private double hoopPhase;
+    private boolean gameOver;
+    private long stepCount; // steps taken when captured
+
+    // interpolation: the state is alpha of a step past its last step at timeNanos
+    private float alpha;
+    private long timeNanos;
+    private long stepNanos;
+
+    // set by the owner alongside each capture
+    private int game; // which game this is, so the renderer notices a new one
+    private double aimAngle; // the player's angle, as ShotAim measures it
+    private boolean aiming; // is the finger down?
+
+    // a state sized for world's balls and hoop
+    public RenderState(GameWorld world)
+    {
+        balls = new BallStore(world.getBalls().getCapacity());
+        segments = new SegmentStore(world.getSegments().getCapacity());
+    }
+
+    // copy world as loop has just left it, at timeNanos
+    public void capture(GameWorld world, FixedStepLoop loop, long timeNanos)
+    {
+        balls.copyFrom(world.getBalls());
+        segments.copyFrom(world.getSegments());
+        score = world.getScore();
+        timeLeft = world.getTimeLeft();
+        hoopPhase = world.getHoopPhase();
+        gameOver = world.isGameOver();
+        stepCount = loop.getStepCount();
+        alpha = loop.getAlpha();
+        this.timeNanos = timeNanos;
+        stepNanos = (long) (loop.getStep() * 1e9);
+    }
+
+    public void setGame(int game)
+    {
+        this.game = game;
+    }
+
+    public void setAim(double aimAngle, boolean aiming)
+    {
+        this.aimAngle = aimAngle;
+        this.aiming = aiming;
+    }
+
+    // the fraction of a step to interpolate by when drawing at nowNanos: the alpha
+    // captured plus the time since, up to a whole step, so the picture keeps moving
+    // smoothly between captures
+    public float getAlpha(long nowNanos)
+    {
+        float a = alpha + (float) (nowNanos - timeNanos) / stepNanos;
+        return a < alpha ? alpha : a > 1f ? 1f : a;
+    }
+
+    public BallStore getBalls() { return balls; }
+    public SegmentStore getSegments() { return segments; }
+    public int getScore() { return score; }
+    public double getTimeLeft() { return timeLeft; }
+    public double getHoopPhase() { return hoopPhase; }
+    public boolean isGameOver() { return gameOver; }
+    public long getStepCount() { return stepCount; }
+    public long getTimeNanos() { return timeNanos; }
+    public int getGame() { return game; }
+    public double getAimAngle() { return aimAngle; }
+    public boolean isAiming() { return aiming; }
+} // end class RenderState
@@ -0,0 +1,55 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.util.Random;
+
+/**
+ * A whole classic game played headlessly, with shots at random angles and gaps drawn
+ * from a seed, and recorded the way the app records a session. ReplayTool records one
+ * to have something to replay without a device, and the replay tests play the same
+ * games, so the two can't drift apart.
+ */
+public final class ScriptedGame
+{
+    private static final int MIN_SHOT_GAP = 10; // steps between shots
+    private static final int MAX_SHOT_GAP = 60;
+    private static final double NUDGE = 1e-6; // radians added to a nudged shot's angle
+
+    private ScriptedGame()
+    {
+    }
+
+    // play and record the game for seed
+    public static SessionRecording record(long seed)
+    {
+        return record(seed, -1);
+    }
+
+    // play and record the game for seed, with the angle of shot number nudgedShot off by
+    // a millionth of a radian, or of no shot if it is -1
+    public static SessionRecording record(long seed, int nudgedShot)
+    {
+        Random random = new Random(seed);
+        double step = FixedStepLoop.DEFAULT_STEP;
+        GameWorld world = new GameWorld();
+
+        SessionRecording recording = new SessionRecording();
+        recording.begin(seed, world.getLevel().getName(), false, step);
+        long stepIndex = 0;
+        long nextShot = MIN_SHOT_GAP;
+        for (; !world.isGameOver(); ++stepIndex)
+        {
+            if (stepIndex >= nextShot && world.canShoot())
+            {
+                double angle = 0.2 + random.nextDouble() * 1.2;
+                if (recording.getShotCount() == nudgedShot)
+                    angle += NUDGE;
+                world.shootBasketball(angle);
+                recording.recordShot(stepIndex, angle);
+                nextShot = stepIndex + MIN_SHOT_GAP + random.nextInt(MAX_SHOT_GAP - MIN_SHOT_GAP);
+            }
+            world.step(step);
+        }
+        recording.end(stepIndex, world);
+        return recording;
+    }
+} // end class ScriptedGame
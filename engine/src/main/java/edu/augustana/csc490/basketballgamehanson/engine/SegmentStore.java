@@ -0,0 +1,128 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Struct-of-arrays storage for the hoop's line segments. Each segment is drawn from
+ * start to end, and its velocity is how fast it moves during the current step; its
+ * contact area is shifted by contactOffsetX. Solid segments bounce the ball off a line
+ * at that offset, while a score trigger marks any ball passing through the rectangle
+ * contactWidth wide from that offset.
+ *
+ * Between steps a segment is drawn back along its velocity from where it now is, so a
+ * step doesn't have to store a copy of where it was.
+ */
+public class SegmentStore
+{
+    public static final byte SOLID = 0;
+    public static final byte SCORE_TRIGGER = 1;
+
+    private final int capacity;
+    private int count;
+
+    public final byte[] kind;
+    public final float[] startX; // drawn endpoints, in world units
+    public final float[] startY;
+    public final float[] endX;
+    public final float[] endY;
+    public final float[] velocityX; // world units per second
+    public final float[] velocityY;
+    public final float[] contactOffsetX; // where the ball actually interacts, relative to x
+    public final float[] contactWidth; // width of a score trigger's rectangle
+    private float stepTime; // seconds the velocities last applied for, for interpolation
+
+    public SegmentStore(int capacity)
+    {
+        this.capacity = capacity;
+        kind = new byte[capacity];
+        startX = new float[capacity];
+        startY = new float[capacity];
+        endX = new float[capacity];
+        endY = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        contactOffsetX = new float[capacity];
+        contactWidth = new float[capacity];
+    }
+
+    // append a segment and return its index
+    public int add(byte segmentKind, float offsetX, float width)
+    {
+        if (count == capacity)
+            throw new IllegalStateException("SegmentStore is full: " + capacity);
+
+        kind[count] = segmentKind;
+        contactOffsetX[count] = offsetX;
+        contactWidth[count] = width;
+        return count++;
+    }
+
+    // place segment i at the given endpoints, at rest, so it isn't drawn moving there
+    public void set(int i, float x0, float y0, float x1, float y1)
+    {
+        moveTo(i, x0, y0, x1, y1);
+        velocityX[i] = 0;
+        velocityY[i] = 0;
+    }
+
+    // set every segment moving at (vx, vy) for a step of dt seconds
+    public void setVelocity(float vx, float vy, float dt)
+    {
+        for (int i = 0; i < count; ++i)
+        {
+            velocityX[i] = vx;
+            velocityY[i] = vy;
+        }
+        stepTime = dt;
+    }
+
+    // move segment i to the given endpoints, where its velocity has carried it
+    public void moveTo(int i, float x0, float y0, float x1, float y1)
+    {
+        startX[i] = x0;
+        startY[i] = y0;
+        endX[i] = x1;
+        endY[i] = y1;
+    }
+
+    public float interpolatedStartX(int i, float alpha)
+    {
+        return startX[i] - velocityX[i] * stepTime * (1 - alpha);
+    }
+
+    public float interpolatedEndX(int i, float alpha)
+    {
+        return endX[i] - velocityX[i] * stepTime * (1 - alpha);
+    }
+
+    public float interpolatedStartY(int i, float alpha)
+    {
+        return startY[i] - velocityY[i] * stepTime * (1 - alpha);
+    }
+
+    public float interpolatedEndY(int i, float alpha)
+    {
+        return endY[i] - velocityY[i] * stepTime * (1 - alpha);
+    }
+
+    public void clear()
+    {
+        count = 0;
+    }
+
+    public void copyFrom(SegmentStore other)
+    {
+        count = Math.min(capacity, other.count);
+        System.arraycopy(other.kind, 0, kind, 0, count);
+        System.arraycopy(other.startX, 0, startX, 0, count);
+        System.arraycopy(other.startY, 0, startY, 0, count);
+        System.arraycopy(other.endX, 0, endX, 0, count);
+        System.arraycopy(other.endY, 0, endY, 0, count);
+        System.arraycopy(other.velocityX, 0, velocityX, 0, count);
+        System.arraycopy(other.velocityY, 0, velocityY, 0, count);
+        System.arraycopy(other.contactOffsetX, 0, contactOffsetX, 0, count);
+        System.arraycopy(other.contactWidth, 0, contactWidth, 0, count);
+        stepTime = other.stepTime;
+    }
+
+    public int getCount() { return count; }
+    public int getCapacity() { return capacity; }
+} // end class SegmentStore
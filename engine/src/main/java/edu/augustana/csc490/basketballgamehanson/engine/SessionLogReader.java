@@ -0,0 +1,93 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads the session history written by SessionLogWriter through read-only memory maps
+ * of both files. Fields are read in place with absolute gets and shots are decoded
+ * straight out of the mapped event file, so scanning allocates nothing and copies no
+ * file data onto the heap. Sessions appended after the reader was opened are not seen,
+ * and a history no game has been added to yet reads as empty.
+ * Not thread-safe: readShots moves the shared event map's position.
+ */
+public class SessionLogReader
+{
+    private final MappedByteBuffer index;
+    private final MappedByteBuffer events;
+    private final int count;
+
+    public SessionLogReader(File indexPath, File eventPath) throws IOException
+    {
+        RandomAccessFile indexFile = new RandomAccessFile(indexPath, "r");
+        try
+        {
+            long size = indexFile.length();
+            long records = Math.max(0, size - SessionLogWriter.HEADER_SIZE) /
+                    SessionLogWriter.RECORD_SIZE; // ignore a torn last record
+            index = map(indexFile.getChannel(), size < SessionLogWriter.HEADER_SIZE ? 0 :
+                    SessionLogWriter.HEADER_SIZE + records * SessionLogWriter.RECORD_SIZE);
+            count = (int) records;
+        }
+        finally
+        {
+            indexFile.close(); // the mapping stays valid
+        }
+
+        RandomAccessFile eventFile = new RandomAccessFile(eventPath, "r");
+        try
+        {
+            events = map(eventFile.getChannel(), eventFile.length());
+        }
+        finally
+        {
+            eventFile.close();
+        }
+
+        if (index.capacity() > 0) // else no game has been added yet
+        {
+            SessionLogWriter.checkHeader(index, SessionLogWriter.INDEX_MAGIC);
+            SessionLogWriter.checkHeader(events, SessionLogWriter.EVENT_MAGIC);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long size) throws IOException
+    {
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("session log too large to map: " + size + " bytes");
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    // decode session i's shots, in order; returns how many there were
+    public int readShots(int i, ShotLog.Visitor visitor)
+    {
+        events.position((int) index.getLong(field(i, SessionLogWriter.EVENT_OFFSET)));
+        return ShotLog.decode(events, index.getInt(field(i, SessionLogWriter.EVENT_LENGTH)),
+                visitor);
+    }
+
+    private static int field(int i, int offset)
+    {
+        return SessionLogWriter.HEADER_SIZE + i * SessionLogWriter.RECORD_SIZE + offset;
+    }
+
+    public int getCount() { return count; }
+    public long getStartTime(int i) { return index.getLong(field(i, SessionLogWriter.START_TIME)); }
+    public double getTotalElapsedTime(int i) { return index.getDouble(field(i, SessionLogWriter.ELAPSED_TIME)); }
+    public int getScore(int i) { return index.getInt(field(i, SessionLogWriter.SCORE)); }
+    public int getShotsTaken(int i) { return index.getInt(field(i, SessionLogWriter.SHOTS_TAKEN)); }
+    public int getEventLength(int i) { return index.getInt(field(i, SessionLogWriter.EVENT_LENGTH)); }
+    public boolean isRapidFire(int i)
+    {
+        return (index.getInt(field(i, SessionLogWriter.FLAGS)) & SessionLogWriter.FLAG_RAPID_FIRE) != 0;
+    }
+
+    // was session i played on level?
+    public boolean isLevel(int i, Level level)
+    {
+        return index.getInt(field(i, SessionLogWriter.LEVEL)) == level.getName().hashCode();
+    }
+} // end class SessionLogReader
@@ -0,0 +1,140 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Appends finished games to the session history. Each game is one fixed-size record
+ * in an index file, so record n is at HEADER_SIZE + n * RECORD_SIZE, pointing at its
+ * encoded shots in a separate event file. Events are written before the record that
+ * points at them, and a torn record left by a crash is cut off on open, so readers
+ * only ever see whole sessions. Each record notes its level by a hash of the level's
+ * name, as WorldSnapshot does, so games on different levels can be told apart.
+ *
+ * Both files start with a magic number and a version, like WorldSnapshot and
+ * SessionRecording, so a history in another layout is refused rather than misread.
+ */
+public class SessionLogWriter implements Closeable
+{
+    // each file's header: int magic, then int version
+    public static final int HEADER_SIZE = 8;
+    static final int INDEX_MAGIC = 0x53484C49; // "SHLI"
+    static final int EVENT_MAGIC = 0x53484C45; // "SHLE"
+    // 1 is the first with headers; sessions.idx and .dat had none, nor the level
+    static final int VERSION = 1;
+
+    // index record layout, big-endian
+    public static final int RECORD_SIZE = 44;
+    static final int START_TIME = 0; // long, wall clock milliseconds
+    static final int ELAPSED_TIME = 8; // double, simulated seconds
+    static final int SCORE = 16; // int
+    static final int SHOTS_TAKEN = 20; // int
+    static final int EVENT_OFFSET = 24; // long, into the event file
+    static final int EVENT_LENGTH = 32; // int, bytes
+    static final int FLAGS = 36; // int
+    static final int FLAG_RAPID_FIRE = 1;
+    static final int LEVEL = 40; // int, hash of the level's name
+
+    private final RandomAccessFile indexFile;
+    private final RandomAccessFile eventFile;
+    private final FileChannel index;
+    private final FileChannel events;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+
+    public SessionLogWriter(File indexPath, File eventPath) throws IOException
+    {
+        indexFile = new RandomAccessFile(indexPath, "rw");
+        eventFile = new RandomAccessFile(eventPath, "rw");
+        index = indexFile.getChannel();
+        events = eventFile.getChannel();
+        try
+        {
+            openHeader(events, EVENT_MAGIC); // first, so an index header vouches for it
+            openHeader(index, INDEX_MAGIC);
+        }
+        catch (IOException e)
+        {
+            close();
+            throw e;
+        }
+
+        long whole = HEADER_SIZE + (index.size() - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+        index.truncate(whole);
+        index.position(whole);
+        events.position(events.size());
+    }
+
+    // check file's header, or write one if the file is new or a crash left it short
+    private static void openHeader(FileChannel file, int magic) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (file.size() < HEADER_SIZE)
+        {
+            file.truncate(0);
+            header.putInt(magic).putInt(VERSION).flip();
+            while (header.hasRemaining())
+                file.write(header, header.position());
+            return;
+        }
+
+        while (header.hasRemaining())
+            file.read(header, header.position());
+        checkHeader(header, magic);
+    }
+
+    // throw unless buffer starts with the header of a file written by this version
+    static void checkHeader(ByteBuffer buffer, int magic) throws IOException
+    {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != magic)
+            throw new IOException("not a session history file");
+        int version = buffer.getInt(4);
+        if (version != VERSION)
+            throw new IOException("unsupported session history version " + version);
+    }
+
+    // append one finished game on level and the shots it was played with
+    public void append(long startTimeMillis, Level level, boolean rapidFire, int score,
+                       int shotsTaken, double totalElapsedTime, ShotLog shots) throws IOException
+    {
+        byte[] encoded = shots.encode();
+        int length = shots.getEncodedLength();
+        long offset = events.position();
+        ByteBuffer eventBuffer = ByteBuffer.wrap(encoded, 0, length);
+        while (eventBuffer.hasRemaining())
+            events.write(eventBuffer);
+
+        record.clear();
+        record.putLong(START_TIME, startTimeMillis);
+        record.putDouble(ELAPSED_TIME, totalElapsedTime);
+        record.putInt(SCORE, score);
+        record.putInt(SHOTS_TAKEN, shotsTaken);
+        record.putLong(EVENT_OFFSET, offset);
+        record.putInt(EVENT_LENGTH, length);
+        record.putInt(FLAGS, rapidFire ? FLAG_RAPID_FIRE : 0);
+        record.putInt(LEVEL, level.getName().hashCode());
+        while (record.hasRemaining())
+            index.write(record);
+    }
+
+    public long getSessionCount() throws IOException
+    {
+        return (index.size() - HEADER_SIZE) / RECORD_SIZE;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            indexFile.close();
+        }
+        finally
+        {
+            eventFile.close();
+        }
+    }
+} // end class SessionLogWriter
@@ -0,0 +1,211 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Everything needed to re-run one game exactly: the world's setup and level, the fixed
+ * step length, and every shot as the step index it was fired before plus its angle. The
+ * simulation is deterministic given these, so frame timing and touch delivery do not
+ * need to be recorded. A checksum of the final world lets a replay prove it ended in
+ * the same state, not just with the same score.
+ *
+ * Binary layout, big-endian: magic, version, seed, level name as modified UTF-8, flags,
+ * step length, then varint step count and score, the final checksum as a long, then a
+ * varint shot count, followed by each shot as a varint step delta from the previous
+ * shot and the angle's raw double bits.
+ */
+public class SessionRecording
+{
+    private static final int MAGIC = 0x53485243; // "SHRC"
+    // 1 also held the screen size, which set the physics; 2 launched shots with
+    // java.lang.Math trig, which can differ between devices; 3 bounced the hoop off the
+    // ends of its travel rather than following the level's path; 4 had no checksum; 5
+    // didn't say which level was played
+    private static final int VERSION = 6;
+    private static final int FLAG_RAPID_FIRE = 1;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private long seed; // randomness the session was started with, if any
+    private String levelName = Level.CLASSIC.getName(); // the Level played
+    private boolean rapidFire;
+    private double step; // seconds per simulation step
+
+    private long stepCount; // steps the game ran for
+    private int score; // final score, to check replays against
+    private long checksum; // of the final world, from checksum(GameWorld)
+
+    private int shotCount;
+    private long[] shotSteps = new long[64]; // step index each shot was fired before
+    private double[] shotAngles = new double[64];
+
+    // start recording a new game on the level named levelName, dropping any previous one
+    public void begin(long seed, String levelName, boolean rapidFire, double step)
+    {
+        this.seed = seed;
+        this.levelName = levelName;
+        this.rapidFire = rapidFire;
+        this.step = step;
+        stepCount = 0;
+        score = 0;
+        checksum = 0;
+        shotCount = 0;
+    }
+
+    // a shot at angle, taken just before step stepIndex
+    public void recordShot(long stepIndex, double angle)
+    {
+        if (shotCount == shotSteps.length)
+        {
+            long[] steps = new long[shotCount * 2];
+            double[] angles = new double[shotCount * 2];
+            System.arraycopy(shotSteps, 0, steps, 0, shotCount);
+            System.arraycopy(shotAngles, 0, angles, 0, shotCount);
+            shotSteps = steps;
+            shotAngles = angles;
+        }
+        shotSteps[shotCount] = stepIndex;
+        shotAngles[shotCount] = angle;
+        ++shotCount;
+    }
+
+    // the game ended after stepCount steps, leaving world as it is now
+    public void end(long stepCount, GameWorld world)
+    {
+        this.stepCount = stepCount;
+        score = world.getScore();
+        checksum = checksum(world);
+    }
+
+    // a hash of the exact bits of every ball in flight and every hoop segment, with the
+    // score and shots taken; a replay that drifts by a bit ends with a different one
+    public static long checksum(GameWorld world)
+    {
+        long hash = FNV_OFFSET;
+        BallStore balls = world.getBalls();
+        for (int i = 0; i < balls.getCapacity(); ++i)
+        {
+            if (!balls.active[i])
+                continue;
+            hash = mix(hash, i);
+            hash = mix(hash, Float.floatToRawIntBits(balls.x[i]));
+            hash = mix(hash, Float.floatToRawIntBits(balls.y[i]));
+            hash = mix(hash, Float.floatToRawIntBits(balls.velocityX[i]));
+            hash = mix(hash, Float.floatToRawIntBits(balls.velocityY[i]));
+            hash = mix(hash, balls.scored[i] ? 1 : 0);
+        }
+
+        SegmentStore segments = world.getSegments();
+        for (int i = 0; i < segments.getCount(); ++i)
+        {
+            hash = mix(hash, Float.floatToRawIntBits(segments.startX[i]));
+            hash = mix(hash, Float.floatToRawIntBits(segments.startY[i]));
+            hash = mix(hash, Float.floatToRawIntBits(segments.endX[i]));
+            hash = mix(hash, Float.floatToRawIntBits(segments.endY[i]));
+            hash = mix(hash, Float.floatToRawIntBits(segments.velocityX[i]));
+            hash = mix(hash, Float.floatToRawIntBits(segments.velocityY[i]));
+        }
+        hash = mix(hash, world.getScore());
+        return mix(hash, world.getShotsTaken());
+    }
+
+    // FNV-1a, a whole int at a time
+    private static long mix(long hash, int value)
+    {
+        return (hash ^ (value & 0xFFFFFFFFL)) * FNV_PRIME;
+    }
+
+    public void writeTo(OutputStream stream) throws IOException
+    {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeUTF(levelName);
+        out.writeByte(rapidFire ? FLAG_RAPID_FIRE : 0);
+        out.writeDouble(step);
+        writeVarLong(out, stepCount);
+        writeVarLong(out, score);
+        out.writeLong(checksum);
+        writeVarLong(out, shotCount);
+
+        long previousStep = 0;
+        for (int i = 0; i < shotCount; ++i)
+        {
+            writeVarLong(out, shotSteps[i] - previousStep);
+            out.writeLong(Double.doubleToRawLongBits(shotAngles[i]));
+            previousStep = shotSteps[i];
+        }
+        out.flush();
+    }
+
+    public static SessionRecording readFrom(InputStream stream) throws IOException
+    {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC)
+            throw new IOException("not a session recording");
+        int version = in.readUnsignedByte();
+        if (version != VERSION)
+            throw new IOException("unsupported session recording version " + version);
+
+        SessionRecording recording = new SessionRecording();
+        long seed = in.readLong();
+        String levelName = in.readUTF();
+        boolean rapidFire = (in.readUnsignedByte() & FLAG_RAPID_FIRE) != 0;
+        recording.begin(seed, levelName, rapidFire, in.readDouble());
+        long stepCount = readVarLong(in);
+        int score = (int) readVarLong(in);
+        long checksum = in.readLong();
+        long shots = readVarLong(in);
+
+        long shotStep = 0;
+        for (long i = 0; i < shots; ++i)
+        {
+            shotStep += readVarLong(in);
+            recording.recordShot(shotStep, Double.longBitsToDouble(in.readLong()));
+        }
+        recording.stepCount = stepCount;
+        recording.score = score;
+        recording.checksum = checksum;
+        return recording;
+    }
+
+    // unsigned LEB128: seven bits per byte, high bit set on all but the last
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException
+    {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("malformed varint");
+    }
+
+    public long getSeed() { return seed; }
+    public String getLevelName() { return levelName; }
+    public boolean isRapidFire() { return rapidFire; }
+    public double getStep() { return step; }
+    public long getStepCount() { return stepCount; }
+    public int getScore() { return score; }
+    public long getChecksum() { return checksum; }
+    public int getShotCount() { return shotCount; }
+    public long getShotStep(int i) { return shotSteps[i]; }
+    public double getShotAngle(int i) { return shotAngles[i]; }
+} // end class SessionRecording
@@ -0,0 +1,62 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Re-runs a SessionRecording headlessly, as fast as the CPU allows. Shots are fired
+ * before the same steps they were recorded against, with the same step length, so
+ * the replayed world ends bit-for-bit where the original game did. The recording only
+ * names its level, so the caller loads it; a replay on any other level is refused.
+ */
+public class SessionReplay
+{
+    private final SessionRecording recording;
+    private final GameWorld world;
+    private long stepIndex; // next step to run
+    private int nextShot; // next recorded shot to fire
+
+    // replay recording on level, which must be the level it was recorded on
+    public SessionReplay(SessionRecording recording, Level level)
+    {
+        if (!level.getName().equals(recording.getLevelName()))
+            throw new IllegalArgumentException("recorded on level " +
+                    recording.getLevelName() + ", not " + level.getName());
+        this.recording = recording;
+        world = new GameWorld(recording.isRapidFire(), level);
+    }
+
+    // run up to steps more steps; returns false once the recording is exhausted
+    public boolean advance(long steps)
+    {
+        double step = recording.getStep();
+        long last = Math.min(recording.getStepCount(), stepIndex + steps);
+        while (stepIndex < last && !world.isGameOver())
+        {
+            while (nextShot < recording.getShotCount() &&
+                    recording.getShotStep(nextShot) == stepIndex)
+            {
+                world.shootBasketball(recording.getShotAngle(nextShot));
+                ++nextShot;
+            }
+            world.step(step);
+            ++stepIndex;
+        }
+        return stepIndex < recording.getStepCount() && !world.isGameOver();
+    }
+
+    // replay to the end of the recording
+    public GameWorld run()
+    {
+        advance(Long.MAX_VALUE);
+        return world;
+    }
+
+    // does the replayed game end with the recorded step count and score, in exactly the
+    // recorded state?
+    public boolean matchesRecording()
+    {
+        return stepIndex == recording.getStepCount() && world.getScore() == recording.getScore() &&
+                SessionRecording.checksum(world) == recording.getChecksum();
+    }
+
+    public GameWorld getWorld() { return world; }
+    public long getStepIndex() { return stepIndex; }
+} // end class SessionReplay
@@ -0,0 +1,31 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Aiming math for the player at the bottom left corner of the court.
+ */
+public final class ShotAim
+{
+    private ShotAim()
+    {
+    }
+
+    // angle from vertical, in radians, of a shot aimed at the touch point (touchX, touchY)
+    // by a player standing at (0, floorY); all in the same units
+    public static double angle(float touchX, float touchY, float floorY)
+    {
+        // compute the touch's distance from bottom left of the court on the y-axis
+        float centerMinusY = floorY - touchY;
+
+        double angle = 0; //initialize angle to 0
+
+        // calculate the angle the player makes with the horizontal
+        if (centerMinusY != 0) //prevent division by 0
+            angle = FastTrig.atan(touchX / centerMinusY);
+
+        // if the touch is below the bottom of the court
+        if (touchY > floorY)
+            angle += Math.PI; // adjust the angle
+
+        return angle;
+    }
+} // end class ShotAim
@@ -0,0 +1,152 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The shots of one game as they happen, encoded into a compact event stream at the end
+ * of the game. Each shot is one varint holding the step delta from the previous shot
+ * shifted left past a made/missed bit, then a zigzag varint of the change in angle
+ * from the previous shot in ten-thousandths of a radian. A typical shot takes 3 bytes.
+ */
+public class ShotLog
+{
+    private static final double ANGLE_SCALE = 10000; // stored angle units per radian
+
+    /** Receives decoded shots in the order they were taken. */
+    public interface Visitor
+    {
+        void onShot(long step, double angle, boolean scored);
+    }
+
+    private int count;
+    private long[] steps = new long[64];
+    private int[] angles = new int[64]; // quantized
+    private boolean[] scored = new boolean[64];
+    private byte[] encoded = new byte[256];
+    private int encodedLength;
+
+    public void clear()
+    {
+        count = 0;
+    }
+
+    // shot number count was taken at angle before step; returns the shot number
+    public int recordShot(long step, double angle)
+    {
+        if (count == steps.length)
+        {
+            long[] newSteps = new long[count * 2];
+            int[] newAngles = new int[count * 2];
+            boolean[] newScored = new boolean[count * 2];
+            System.arraycopy(steps, 0, newSteps, 0, count);
+            System.arraycopy(angles, 0, newAngles, 0, count);
+            System.arraycopy(scored, 0, newScored, 0, count);
+            steps = newSteps;
+            angles = newAngles;
+            scored = newScored;
+        }
+        steps[count] = step;
+        angles[count] = (int) Math.round(angle * ANGLE_SCALE);
+        scored[count] = false; // a miss until it resolves as a make
+        return count++;
+    }
+
+    // shot left the screen; scored says whether it went in
+    public void resolve(int shot, boolean made)
+    {
+        if (shot >= 0 && shot < count)
+            scored[shot] = made;
+    }
+
+    // encode every shot so far; valid until the next call, length from getEncodedLength
+    public byte[] encode()
+    {
+        int length = 0;
+        long previousStep = 0;
+        int previousAngle = 0;
+        for (int i = 0; i < count; ++i)
+        {
+            if (encoded.length - length < 2 * 10) // room for two maximum-length varints
+            {
+                byte[] grown = new byte[encoded.length * 2];
+                System.arraycopy(encoded, 0, grown, 0, length);
+                encoded = grown;
+            }
+            length = writeVarLong(encoded, length,
+                    ((steps[i] - previousStep) << 1) | (scored[i] ? 1 : 0));
+            int angleDelta = angles[i] - previousAngle;
+            length = writeVarLong(encoded, length, (angleDelta << 1) ^ (angleDelta >> 31));
+            previousStep = steps[i];
+            previousAngle = angles[i];
+        }
+        encodedLength = length;
+        return encoded;
+    }
+
+    // replace the shots so far with the encoded ones, as encode wrote them, e.g. to carry
+    // on a game restored from saved state
+    public void restore(byte[] bytes)
+    {
+        clear();
+        decode(ByteBuffer.wrap(bytes), bytes.length, new Visitor()
+        {
+            @Override
+            public void onShot(long step, double angle, boolean made)
+            {
+                resolve(recordShot(step, angle), made);
+            }
+        }); // end anonymous Visitor
+    }
+
+    public int getEncodedLength() { return encodedLength; }
+    public int getCount() { return count; }
+    public long getStep(int shot) { return steps[shot]; }
+    public double getAngle(int shot) { return angles[shot] / ANGLE_SCALE; }
+    public boolean isScored(int shot) { return scored[shot]; }
+
+    // decode length bytes of events starting at buffer's position; returns the shot count
+    public static int decode(ByteBuffer buffer, int length, Visitor visitor)
+    {
+        int end = buffer.position() + length;
+        int shots = 0;
+        long step = 0;
+        int angle = 0;
+        while (buffer.position() < end)
+        {
+            long stepAndScored = readVarLong(buffer);
+            long zigzag = readVarLong(buffer);
+            step += stepAndScored >>> 1;
+            angle += (int) (zigzag >>> 1) ^ -(int) (zigzag & 1);
+            if (visitor != null)
+                visitor.onShot(step, angle / ANGLE_SCALE, (stepAndScored & 1) != 0);
+            ++shots;
+        }
+        return shots;
+    }
+
+    // unsigned LEB128 into bytes at offset; returns the offset after it
+    private static int writeVarLong(byte[] bytes, int offset, long value)
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            bytes[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[offset++] = (byte) value;
+        return offset;
+    }
+
+    private static long readVarLong(ByteBuffer buffer)
+    {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do
+        {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+} // end class ShotLog
@@ -0,0 +1,127 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays sound events on a thread of its own. The game thread posts events to a
+ * SoundEventQueue mid-step and wakes the audio thread once per frame, which hands them
+ * to a Player; neither ever blocks, and a burst of contacts in rapid fire is thinned
+ * out by a StreamLimiter before the player. GameAudio is the player on Android.
+ */
+public class SoundDispatcher implements SoundEventQueue.Consumer
+{
+    /** Makes the sounds, called on the audio thread only. */
+    public interface Player
+    {
+        void open(); // once, before anything else, e.g. to start loading the clips
+
+        boolean isReady(int sound); // false while sound can't be played yet
+
+        void play(int sound);
+
+        void close(); // once the thread has finished playing
+    }
+
+    private final Player player;
+    private final SoundEventQueue events;
+    private final StreamLimiter limiter;
+    private final FrameTimeHistogram latency = new FrameTimeHistogram(); // event to play call
+
+    private Thread thread;
+    private volatile boolean running;
+    private volatile boolean waiting; // the audio thread is parked, or about to be
+
+    // up to queueCapacity events wait for the thread, and up to maxStreams sounds of
+    // streamNanos each play at once
+    public SoundDispatcher(Player player, int queueCapacity, int maxStreams, long streamNanos)
+    {
+        this.player = player;
+        events = new SoundEventQueue(queueCapacity);
+        limiter = new StreamLimiter(maxStreams, streamNanos);
+    }
+
+    // start the audio thread, which opens the player and then waits for events
+    public void start(String threadName)
+    {
+        running = true;
+        thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                player.open();
+                while (running)
+                {
+                    events.drain(SoundDispatcher.this);
+                    waiting = true;
+                    if (running && events.isEmpty())
+                        LockSupport.park(this); // until flush or release wakes us
+                    waiting = false;
+                }
+                player.close();
+            }
+        }, threadName); // end anonymous Runnable
+        thread.start();
+    }
+
+    // game thread only: queue sound to be played now; never blocks
+    public void post(int sound)
+    {
+        events.offer(sound, System.nanoTime());
+    }
+
+    // game thread only: wake the audio thread if it is asleep with events to play; one
+    // wake-up per frame costs less than one per event
+    public void flush()
+    {
+        if (waiting && !events.isEmpty())
+            LockSupport.unpark(thread);
+    }
+
+    // stop the audio thread and wait for it to close the player; events still queued
+    // are not played, and the dispatcher can't be started again
+    public void release() throws InterruptedException
+    {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+    }
+
+    // audio thread: play one event, unless it isn't ready or too many are playing
+    @Override
+    public void onSound(int sound, long timeNanos)
+    {
+        if (!player.isReady(sound) || !limiter.tryStart(System.nanoTime()))
+            return;
+
+        player.play(sound);
+        synchronized (latency)
+        {
+            latency.record(System.nanoTime() - timeNanos);
+        }
+    }
+
+    public long getPlayedCount()
+    {
+        synchronized (latency)
+        {
+            return latency.getCount();
+        }
+    }
+
+    public long getDroppedCount() { return events.getDroppedCount(); }
+    public long getCulledCount() { return limiter.getCulledCount(); }
+
+    // event-to-play latency and how many events never played, for the log
+    public String getSummary()
+    {
+        synchronized (latency)
+        {
+            return "Sounds played: " + latency.getCount() +
+                    ", median latency: " + latency.getValueAtPercentile(50) / 1000 + " us" +
+                    ", 99th percentile: " + latency.getValueAtPercentile(99) / 1000 + " us" +
+                    ", dropped: " + events.getDroppedCount() +
+                    ", culled: " + limiter.getCulledCount();
+        }
+    }
+} // end class SoundDispatcher
@@ -0,0 +1,91 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer/single-consumer ring of timestamped sound events. The game
+ * thread offers events as the simulation produces them and the audio thread drains
+ * them; neither side ever blocks, and a full ring drops the new event rather than
+ * making the game wait. Offering and draining allocate nothing.
+ */
+public class SoundEventQueue
+{
+    // sounds, independent of any platform's audio ids
+    public static final int SHOT = 0; // a basketball is launched
+    public static final int RIM = 1; // a basketball bounces off the backboard or rim
+    public static final int SCORE = 2; // a basketball goes through the hoop
+    public static final int SOUND_COUNT = 3;
+
+    /** Receives drained events on the consumer thread. */
+    public interface Consumer
+    {
+        void onSound(int sound, long timeNanos);
+    }
+
+    private final int mask; // capacity - 1; capacity is a power of two
+    private final byte[] sound;
+    private final long[] timeNanos;
+
+    // sequence numbers; the slot for sequence n is n & mask
+    private final AtomicLong tail = new AtomicLong(); // next to write, owned by the producer
+    private final AtomicLong head = new AtomicLong(); // next to read, owned by the consumer
+    private long cachedHead; // producer's last view of head, to skip most volatile reads
+    private long dropped; // events refused because the ring was full, producer side
+
+    public SoundEventQueue(int capacity)
+    {
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0)
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+
+        mask = capacity - 1;
+        sound = new byte[capacity];
+        timeNanos = new long[capacity];
+    }
+
+    // producer only: queue an event; false if the ring is full and it was dropped
+    public boolean offer(int eventSound, long time)
+    {
+        long t = tail.get();
+        if (t - cachedHead > mask)
+        {
+            cachedHead = head.get();
+            if (t - cachedHead > mask)
+            {
+                ++dropped;
+                return false;
+            }
+        }
+
+        int slot = (int) (t & mask);
+        sound[slot] = (byte) eventSound;
+        timeNanos[slot] = time;
+        // publish the slot after its contents; a full volatile write, so a consumer
+        // that flags itself waiting and then sees isEmpty() can't miss this event
+        tail.set(t + 1);
+        return true;
+    }
+
+    // consumer only: hand every queued event to consumer in order; returns how many
+    public int drain(Consumer consumer)
+    {
+        long h = head.get();
+        long t = tail.get();
+        for (long n = h; n < t; ++n)
+        {
+            int slot = (int) (n & mask);
+            consumer.onSound(sound[slot], timeNanos[slot]);
+        }
+        head.lazySet(t); // hand the slots back to the producer
+        return (int) (t - h);
+    }
+
+    // is there nothing to drain right now? exact on the consumer side; the producer may
+    // see events the consumer has already drained
+    public boolean isEmpty()
+    {
+        return head.get() == tail.get();
+    }
+
+    public int getCapacity() { return mask + 1; }
+    public long getDroppedCount() { return dropped; }
+} // end class SoundEventQueue
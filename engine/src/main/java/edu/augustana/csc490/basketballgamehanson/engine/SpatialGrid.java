@@ -0,0 +1,131 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Uniform spatial hash grid for the collision broad phase. Each ball slot sits in the
+ * cell under its position, threaded through an intrusive doubly linked list per cell,
+ * so moving a ball between cells is O(1) and a ball that stays in its cell costs
+ * nothing to update. Points off the grid clamp to the border cells.
+ */
+public class SpatialGrid
+{
+    private static final int NONE = -1;
+
+    private final int[] cellOf; // cell each slot is filed under, or NONE
+    private final int[] next; // next slot in the same cell, or NONE
+    private final int[] previous; // previous slot in the same cell, or NONE
+    private int[] head = new int[0]; // first slot in each cell, or NONE
+
+    private float cellSize;
+    private int columns;
+    private int rows;
+
+    public SpatialGrid(int capacity)
+    {
+        cellOf = new int[capacity];
+        next = new int[capacity];
+        previous = new int[capacity];
+        for (int i = 0; i < capacity; ++i)
+            cellOf[i] = NONE;
+    }
+
+    // cover a width x height area with square cells; empties the grid
+    public void resize(float width, float height, float size)
+    {
+        cellSize = size;
+        columns = Math.max(1, (int) Math.ceil(width / size));
+        rows = Math.max(1, (int) Math.ceil(height / size));
+        if (head.length < columns * rows)
+            head = new int[columns * rows];
+        clear();
+    }
+
+    public void clear()
+    {
+        for (int c = 0; c < head.length; ++c)
+            head[c] = NONE;
+        for (int i = 0; i < cellOf.length; ++i)
+            cellOf[i] = NONE;
+    }
+
+    public int column(float x)
+    {
+        int column = (int) (x / cellSize);
+        return column < 0 ? 0 : column >= columns ? columns - 1 : column;
+    }
+
+    public int row(float y)
+    {
+        int row = (int) (y / cellSize);
+        return row < 0 ? 0 : row >= rows ? rows - 1 : row;
+    }
+
+    // file slot i under the cell containing (x, y), moving it only if the cell changed
+    public void update(int i, float x, float y)
+    {
+        int cell = row(y) * columns + column(x);
+        if (cellOf[i] == cell)
+            return;
+
+        remove(i);
+        cellOf[i] = cell;
+        previous[i] = NONE;
+        next[i] = head[cell];
+        if (head[cell] != NONE)
+            previous[head[cell]] = i;
+        head[cell] = i;
+    }
+
+    // take slot i out of the grid, if it is in it
+    public void remove(int i)
+    {
+        int cell = cellOf[i];
+        if (cell == NONE)
+            return;
+
+        if (previous[i] != NONE)
+            next[previous[i]] = next[i];
+        else
+            head[cell] = next[i];
+        if (next[i] != NONE)
+            previous[next[i]] = previous[i];
+        cellOf[i] = NONE;
+    }
+
+    // collect the slots filed in cells overlapping the rectangle; returns how many were
+    // written to out, which stops filling when it is full
+    public int queryRect(float left, float top, float right, float bottom, int[] out)
+    {
+        int count = 0;
+        int lastColumn = column(right);
+        int lastRow = row(bottom);
+        for (int r = row(top); r <= lastRow; ++r)
+        {
+            for (int c = column(left); c <= lastColumn; ++c)
+            {
+                for (int i = head[r * columns + c]; i != NONE; i = next[i])
+                {
+                    if (count == out.length)
+                        return count;
+                    out[count++] = i;
+                }
+            }
+        }
+        return count;
+    }
+
+    // first slot in the cell at (column, row), or -1; continue with getNext
+    public int getFirst(int column, int row)
+    {
+        return head[row * columns + column];
+    }
+
+    // slot after i in its cell, or -1
+    public int getNext(int i)
+    {
+        return next[i];
+    }
+
+    public int getColumns() { return columns; }
+    public int getRows() { return rows; }
+    public float getCellSize() { return cellSize; }
+} // end class SpatialGrid
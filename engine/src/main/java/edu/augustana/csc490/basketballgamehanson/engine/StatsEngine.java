@@ -0,0 +1,116 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Running player statistics, updated in O(1) per shot and per game so a stats screen
+ * never has to rescan the session history: shooting percentage, current and longest
+ * streaks of makes, make rate per band of shot angle, score percentiles from a
+ * quantile sketch, and a leaderboard of the best games. Scores on different levels
+ * don't compare, so keep one per level: seed it once from that level's games in the
+ * history with addHistory, then feed it each new game on the level as it finishes.
+ */
+public class StatsEngine implements ShotLog.Visitor
+{
+    public static final int ANGLE_BINS = 18; // 5 degree bands from 0 to 90 degrees
+    public static final int LEADERBOARD_SIZE = 10;
+    private static final double SCORE_ACCURACY = 0.01; // relative error of score percentiles
+
+    private long shots;
+    private long makes;
+    private int currentStreak; // makes in a row, up to the latest shot
+    private int longestStreak;
+    private final long[] angleShots = new long[ANGLE_BINS];
+    private final long[] angleMakes = new long[ANGLE_BINS];
+
+    private long games;
+    private long totalScore;
+    private final QuantileSketch scores = new QuantileSketch(SCORE_ACCURACY);
+    private final Leaderboard leaderboard = new Leaderboard(LEADERBOARD_SIZE);
+
+    // a shot at angle radians from vertical went in or missed
+    public void recordShot(double angle, boolean made)
+    {
+        ++shots;
+        int bin = (int) (angle / (Math.PI / 2) * ANGLE_BINS);
+        bin = bin < 0 ? 0 : bin >= ANGLE_BINS ? ANGLE_BINS - 1 : bin;
+        ++angleShots[bin];
+
+        if (made)
+        {
+            ++makes;
+            ++angleMakes[bin];
+            if (++currentStreak > longestStreak)
+                longestStreak = currentStreak;
+        }
+        else
+        {
+            currentStreak = 0;
+        }
+    }
+
+    @Override
+    public void onShot(long step, double angle, boolean scored)
+    {
+        recordShot(angle, scored);
+    }
+
+    // a game that started at startTime finished with score
+    public void recordGame(long startTime, int score)
+    {
+        ++games;
+        totalScore += score;
+        scores.add(score);
+        leaderboard.offer(score, startTime);
+    }
+
+    // every shot in log, then the game itself
+    public void recordGame(long startTime, int score, ShotLog log)
+    {
+        for (int i = 0; i < log.getCount(); ++i)
+            recordShot(log.getAngle(i), log.isScored(i));
+        recordGame(startTime, score);
+    }
+
+    // fold in every session on level in the history, oldest first
+    public void addHistory(SessionLogReader history, Level level)
+    {
+        for (int i = 0; i < history.getCount(); ++i)
+        {
+            if (!history.isLevel(i, level))
+                continue;
+            history.readShots(i, this);
+            recordGame(history.getStartTime(i), history.getScore(i));
+        }
+    }
+
+    // percentage of shots made, 0 to 100
+    public double getShootingPercentage()
+    {
+        return shots == 0 ? 0 : 100.0 * makes / shots;
+    }
+
+    // make rate of shots in angle band bin, 0 to 1
+    public double getAngleMakeRate(int bin)
+    {
+        return angleShots[bin] == 0 ? 0 : (double) angleMakes[bin] / angleShots[bin];
+    }
+
+    // score at percentile p, 0 to 100, within SCORE_ACCURACY of a real score
+    public double getScorePercentile(double p)
+    {
+        return scores.quantile(p / 100);
+    }
+
+    public double getAverageScore()
+    {
+        return games == 0 ? 0 : (double) totalScore / games;
+    }
+
+    public long getShots() { return shots; }
+    public long getMakes() { return makes; }
+    public int getCurrentStreak() { return currentStreak; }
+    public int getLongestStreak() { return longestStreak; }
+    public long getAngleShots(int bin) { return angleShots[bin]; }
+    public long getAngleMakes(int bin) { return angleMakes[bin]; }
+    public long getGames() { return games; }
+    public Leaderboard getLeaderboard() { return leaderboard; }
+} // end class StatsEngine
@@ -0,0 +1,44 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Caps how many sounds play at once. Every sound is assumed to last streamNanos, so
+ * at most maxStreams may start within any window of that length; anything more is
+ * culled before it reaches the mixer. Keeps rapid fire from burying the game in
+ * hundreds of overlapping bounces. Not thread-safe; use it on the audio thread.
+ */
+public class StreamLimiter
+{
+    private final long streamNanos;
+    private final long[] starts; // ring of the most recent start times
+    private int next; // slot of the oldest start, overwritten by the next one
+    private int started;
+    private long culled;
+
+    public StreamLimiter(int maxStreams, long streamNanos)
+    {
+        if (maxStreams <= 0)
+            throw new IllegalArgumentException("maxStreams must be positive: " + maxStreams);
+
+        this.streamNanos = streamNanos;
+        starts = new long[maxStreams];
+    }
+
+    // may a sound start at nowNanos? if so it is counted as playing from then on
+    public boolean tryStart(long nowNanos)
+    {
+        if (started == starts.length && nowNanos - starts[next] < streamNanos)
+        {
+            ++culled; // the oldest of the last maxStreams sounds is still playing
+            return false;
+        }
+
+        starts[next] = nowNanos;
+        next = (next + 1) % starts.length;
+        if (started < starts.length)
+            ++started;
+        return true;
+    }
+
+    public int getMaxStreams() { return starts.length; }
+    public long getCulledCount() { return culled; }
+} // end class StreamLimiter
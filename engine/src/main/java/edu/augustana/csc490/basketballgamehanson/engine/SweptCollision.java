@@ -0,0 +1,112 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Continuous collision tests for a moving circle. Instead of checking for overlap at the
+ * end of a step, these find when during the step contact first happens, so a fast ball
+ * cannot pass through a thin segment between two steps.
+ */
+public final class SweptCollision
+{
+    public static final float NO_HIT = Float.MAX_VALUE; // returned when there is no contact
+
+    private SweptCollision()
+    {
+    }
+
+    // fraction in [0, 1] of the move (dx, dy) at which a circle of the given radius centered
+    // at (x, y) first touches segment A-B while moving towards it, or NO_HIT
+    public static float timeOfImpact(float x, float y, float dx, float dy, float radius,
+                                     float ax, float ay, float bx, float by)
+    {
+        float best = NO_HIT;
+
+        // the flat sides of the capsule around the segment
+        float ux = bx - ax;
+        float uy = by - ay;
+        float lengthSquared = ux * ux + uy * uy;
+        if (lengthSquared > 0)
+        {
+            float length = (float) Math.sqrt(lengthSquared);
+            float nx = -uy / length; // unit normal
+            float ny = ux / length;
+            float distance = (x - ax) * nx + (y - ay) * ny; // signed distance from the line
+            float approach = dx * nx + dy * ny;
+            float side = distance >= 0 ? 1 : -1;
+
+            if (approach * side < 0) // moving towards the line
+            {
+                float t = Math.abs(distance) <= radius ? 0 : (side * radius - distance) / approach;
+                if (t <= 1)
+                {
+                    float along = ((x + t * dx - ax) * ux + (y + t * dy - ay) * uy) / lengthSquared;
+                    if (along >= 0 && along <= 1)
+                        best = t;
+                }
+            }
+        }
+
+        // the rounded ends
+        best = Math.min(best, timeOfImpact(x, y, dx, dy, radius, ax, ay));
+        best = Math.min(best, timeOfImpact(x, y, dx, dy, radius, bx, by));
+        return best;
+    }
+
+    // fraction of the move at which the circle first touches point (px, py), or NO_HIT
+    private static float timeOfImpact(float x, float y, float dx, float dy, float radius,
+                                      float px, float py)
+    {
+        float fx = x - px;
+        float fy = y - py;
+        float b = fx * dx + fy * dy;
+        if (b >= 0)
+            return NO_HIT; // moving away
+
+        float c = fx * fx + fy * fy - radius * radius;
+        if (c <= 0)
+            return 0; // already touching
+
+        float a = dx * dx + dy * dy;
+        float discriminant = b * b - a * c;
+        if (discriminant < 0)
+            return NO_HIT;
+
+        float t = (-b - (float) Math.sqrt(discriminant)) / a;
+        return t <= 1 ? t : NO_HIT;
+    }
+
+    // does the path from (x0, y0) to (x1, y1) pass through the rectangle?
+    public static boolean segmentIntersectsRect(float x0, float y0, float x1, float y1,
+                                                float left, float top, float right, float bottom)
+    {
+        float enter = 0;
+        float exit = 1;
+
+        float dx = x1 - x0;
+        if (dx == 0)
+        {
+            if (x0 < left || x0 > right) return false;
+        }
+        else
+        {
+            float a = (left - x0) / dx;
+            float b = (right - x0) / dx;
+            enter = Math.max(enter, Math.min(a, b));
+            exit = Math.min(exit, Math.max(a, b));
+        }
+
+        float dy = y1 - y0;
+        if (dy == 0)
+        {
+            if (y0 < top || y0 > bottom) return false;
+        }
+        else
+        {
+            float a = (top - y0) / dy;
+            float b = (bottom - y0) / dy;
+            enter = Math.max(enter, Math.min(a, b));
+            exit = Math.min(exit, Math.max(a, b));
+        }
+
+        return enter <= exit;
+    }
+} // end class SweptCollision
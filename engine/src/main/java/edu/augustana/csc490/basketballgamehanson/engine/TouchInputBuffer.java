@@ -0,0 +1,97 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer/single-consumer ring of timestamped touch samples. The UI
+ * thread offers samples and the game thread drains them in the order they were
+ * offered; neither side ever blocks. Samples are stored in parallel primitive arrays,
+ * so offering and draining allocate nothing. A full ring drops the new sample.
+ */
+public class TouchInputBuffer
+{
+    // touch actions, independent of any platform's event constants
+    public static final int DOWN = 0;
+    public static final int MOVE = 1;
+    public static final int UP = 2;
+    public static final int CANCEL = 3; // the gesture was taken away; lift without acting
+
+    /** Receives drained samples on the consumer thread. */
+    public interface Consumer
+    {
+        void onTouch(int action, float x, float y, long timeNanos);
+    }
+
+    private final int mask; // capacity - 1; capacity is a power of two
+    private final byte[] action;
+    private final float[] x;
+    private final float[] y;
+    private final long[] timeNanos;
+
+    // sequence numbers; the slot for sequence n is n & mask
+    private final AtomicLong tail = new AtomicLong(); // next to write, owned by the producer
+    private final AtomicLong head = new AtomicLong(); // next to read, owned by the consumer
+    private long cachedHead; // producer's last view of head, to skip most volatile reads
+    private long dropped; // samples refused because the ring was full, producer side
+
+    public TouchInputBuffer(int capacity)
+    {
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0)
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+
+        mask = capacity - 1;
+        action = new byte[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        timeNanos = new long[capacity];
+    }
+
+    // producer only: queue a sample; false if the ring is full and it was dropped
+    public boolean offer(int touchAction, float touchX, float touchY, long time)
+    {
+        long t = tail.get();
+        if (t - cachedHead > mask)
+        {
+            cachedHead = head.get();
+            if (t - cachedHead > mask)
+            {
+                ++dropped;
+                return false;
+            }
+        }
+
+        int slot = (int) (t & mask);
+        action[slot] = (byte) touchAction;
+        x[slot] = touchX;
+        y[slot] = touchY;
+        timeNanos[slot] = time;
+        tail.lazySet(t + 1); // publish the slot after its contents
+        return true;
+    }
+
+    // consumer only: hand every queued sample to consumer in order; returns how many
+    public int drain(Consumer consumer)
+    {
+        long h = head.get();
+        long t = tail.get();
+        for (long n = h; n < t; ++n)
+        {
+            int slot = (int) (n & mask);
+            consumer.onTouch(action[slot], x[slot], y[slot], timeNanos[slot]);
+        }
+        head.lazySet(t); // hand the slots back to the producer
+        return (int) (t - h);
+    }
+
+    // consumer only: throw away every queued sample; returns how many
+    public int discard()
+    {
+        long h = head.get();
+        long t = tail.get();
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+
+    public int getCapacity() { return mask + 1; }
+    public long getDroppedCount() { return dropped; }
+} // end class TouchInputBuffer
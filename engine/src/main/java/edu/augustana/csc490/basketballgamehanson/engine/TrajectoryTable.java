@@ -0,0 +1,126 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Precomputed flight paths for the aim preview. Shot angle from 0 (straight up) to
+ * PI / 2 (straight right) and hoop phase are each split into cells; build() shoots once
+ * from the middle of every cell in a classic GameWorld on the level and keeps a point
+ * every few steps until the ball leaves the court, along with whether it scored.
+ * Drawing the preview is then a lookup instead of a simulation. Points are in world
+ * units, so one table serves every screen size.
+ *
+ * build() is slow and meant for a background thread; find() returns -1 until it is
+ * done, and the table may be read from any thread after that.
+ */
+public class TrajectoryTable
+{
+    private static final double MAX_ANGLE = Math.PI / 2;
+    private static final double MAX_SHOT_TIME = 10; // seconds before a shot is abandoned
+
+    private final Level level;
+    private final int angleCells;
+    private final int phaseCells;
+    private final int points; // most points kept per path
+    private final int stepsPerPoint;
+    private final double step; // seconds per simulation step, as the game loop uses
+
+    // per cell, indexed phaseCell * angleCells + angleCell
+    private final float[] x; // points * cell + k
+    private final float[] y;
+    private final int[] pointCount;
+    private final boolean[] scores;
+
+    private double hoopPeriod;
+    private volatile boolean ready; // set once build() has filled every cell
+
+    public TrajectoryTable(Level level, int angleCells, int phaseCells, int points,
+            int stepsPerPoint, double step)
+    {
+        this.level = level;
+        this.angleCells = angleCells;
+        this.phaseCells = phaseCells;
+        this.points = points;
+        this.stepsPerPoint = stepsPerPoint;
+        this.step = step;
+
+        int cells = angleCells * phaseCells;
+        x = new float[cells * points];
+        y = new float[cells * points];
+        pointCount = new int[cells];
+        scores = new boolean[cells];
+    }
+
+    // simulate the shot for every cell; once only
+    public void build()
+    {
+        GameWorld world = new GameWorld(false, level);
+        hoopPeriod = world.getHoopPeriod();
+
+        for (int p = 0; p < phaseCells; ++p)
+        {
+            double phase = hoopPeriod * (p + 0.5) / phaseCells;
+            for (int a = 0; a < angleCells; ++a)
+            {
+                world.reset();
+                world.placeHoopAtPhase(phase);
+                trace(world, getAngle(a), p * angleCells + a);
+            }
+        }
+        ready = true;
+    }
+
+    // shoot at angle and keep the start of the path in cell; the ball is followed until
+    // it leaves the court, to see whether it scores
+    private void trace(GameWorld world, double angle, int cell)
+    {
+        world.shootBasketball(angle);
+        BallStore balls = world.getBalls();
+        int n = 0;
+        for (int s = 1; balls.active[0] && s * step < MAX_SHOT_TIME; ++s)
+        {
+            world.step(step);
+            // keep every stepsPerPoint-th position, and the last one on the court
+            if (n < points && (s % stepsPerPoint == 0 || !balls.active[0]))
+            {
+                x[cell * points + n] = balls.x[0];
+                y[cell * points + n] = balls.y[0];
+                ++n;
+            }
+        }
+        pointCount[cell] = n;
+        scores[cell] = balls.scored[0]; // the only slot in a classic world
+    }
+
+    // the cell nearest a shot at angle with the hoop at hoopPhase (as from
+    // GameWorld.getHoopPhase); -1 if the angle is out of range or the table isn't built
+    public int find(double angle, double hoopPhase)
+    {
+        if (!ready || angle < 0 || angle >= MAX_ANGLE)
+            return -1;
+
+        int a = (int) (angle / MAX_ANGLE * angleCells);
+        return findPhaseCell(hoopPhase) * angleCells + a;
+    }
+
+    // the phase cell nearest hoopPhase; the table must be built
+    public int findPhaseCell(double hoopPhase)
+    {
+        double phase = hoopPhase / hoopPeriod;
+        phase -= Math.floor(phase);
+        return Math.min((int) (phase * phaseCells), phaseCells - 1);
+    }
+
+    // angle at the middle of an angle cell, in radians from vertical
+    public double getAngle(int angleCell)
+    {
+        return MAX_ANGLE * (angleCell + 0.5) / angleCells;
+    }
+
+    public int getPointCount(int cell) { return pointCount[cell]; }
+    public float getX(int cell, int k) { return x[cell * points + k]; }
+    public float getY(int cell, int k) { return y[cell * points + k]; }
+    public boolean scores(int cell) { return scores[cell]; }
+    public boolean isReady() { return ready; }
+    public int getMaxPoints() { return points; }
+    public int getAngleCells() { return angleCells; }
+    public int getPhaseCells() { return phaseCells; }
+} // end class TrajectoryTable
@@ -0,0 +1,68 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free single-producer/single-consumer handoff of the latest of a stream of
+ * states, through three reused buffers. The producer fills its back buffer and
+ * publishes it; the consumer takes whichever buffer was published last. Each side
+ * owns one buffer and the third is swapped in and out with a single atomic exchange,
+ * so neither ever waits for the other, and a state the consumer was too slow to take
+ * is simply replaced by a newer one.
+ */
+public class TripleBuffer<T>
+{
+    private static final int INDEX = 3; // low bits of middle: which buffer is there
+    private static final int FRESH = 4; // set while middle holds a state not yet taken
+
+    private final Object[] buffers;
+    private final AtomicInteger middle = new AtomicInteger(1); // shared between the two
+    private int back = 0; // the producer's, being filled
+    private int front = 2; // the consumer's, being read
+    private long published; // states published, producer side
+    private long overwritten; // published states replaced before the consumer took them
+
+    // three distinct buffers; the consumer starts with third, before anything is published
+    public TripleBuffer(T first, T second, T third)
+    {
+        if (first == second || second == third || third == first)
+            throw new IllegalArgumentException("a triple buffer needs three distinct buffers");
+
+        buffers = new Object[] {first, second, third};
+    }
+
+    // producer only: the buffer to fill before the next publish
+    public T getBack()
+    {
+        return get(back);
+    }
+
+    // producer only: hand over the back buffer as the latest state and take the middle
+    // one to fill next
+    public void publish()
+    {
+        int previous = middle.getAndSet(back | FRESH); // orders the buffer's contents first
+        if ((previous & FRESH) != 0)
+            ++overwritten;
+        back = previous & INDEX;
+        ++published;
+    }
+
+    // consumer only: the latest published state, which stays the consumer's to read
+    // until the next acquire
+    public T acquire()
+    {
+        if ((middle.get() & FRESH) != 0)
+            front = middle.getAndSet(front) & INDEX;
+        return get(front);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T get(int i)
+    {
+        return (T) buffers[i];
+    }
+
+    public long getPublishedCount() { return published; }
+    public long getOverwrittenCount() { return overwritten; }
+} // end class TripleBuffer
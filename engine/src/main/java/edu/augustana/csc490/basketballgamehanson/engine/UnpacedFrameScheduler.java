@@ -0,0 +1,47 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Starts every frame immediately. Meant for headless runs and tests, where the loop
+ * should go as fast as possible; it never reports dropped frames.
+ */
+public class UnpacedFrameScheduler implements FrameScheduler
+{
+    private final FrameClock clock;
+    private long frameCount;
+
+    public UnpacedFrameScheduler(FrameClock clock)
+    {
+        this.clock = clock;
+    }
+
+    @Override
+    public long awaitNextFrame()
+    {
+        ++frameCount;
+        return clock.nanoTime();
+    }
+
+    @Override
+    public void cancel()
+    {
+        // never blocks, nothing to release
+    }
+
+    @Override
+    public long getFrameCount() { return frameCount; }
+
+    @Override
+    public long getDroppedFrames() { return 0; }
+
+    @Override
+    public void reset()
+    {
+        frameCount = 0;
+    }
+
+    @Override
+    public void resume()
+    {
+        // nothing was cancelled and no slots can be missed
+    }
+} // end class UnpacedFrameScheduler
@@ -0,0 +1,51 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * The one world-to-screen transform: a uniform scale that fits the GameWorld court into
+ * the view, centred, and its inverse for touches. It is worked out once per size change,
+ * so drawing turns world units into pixels with a multiply and an add.
+ */
+public class ViewTransform
+{
+    private float scale = 1; // pixels per world unit
+    private float offsetX; // screen position of the court's left edge
+    private float offsetY; // screen position of the court's top edge
+
+    // fit a worldWidth x worldHeight court inside a screenWidth x screenHeight view
+    public void fit(float worldWidth, float worldHeight, int screenWidth, int screenHeight)
+    {
+        scale = Math.min(screenWidth / worldWidth, screenHeight / worldHeight);
+        offsetX = (screenWidth - worldWidth * scale) / 2;
+        offsetY = (screenHeight - worldHeight * scale) / 2;
+    }
+
+    public float toScreenX(float worldX)
+    {
+        return offsetX + worldX * scale;
+    }
+
+    public float toScreenY(float worldY)
+    {
+        return offsetY + worldY * scale;
+    }
+
+    // a distance, such as a radius or a line width
+    public float toScreenLength(float worldLength)
+    {
+        return worldLength * scale;
+    }
+
+    public float toWorldX(float screenX)
+    {
+        return (screenX - offsetX) / scale;
+    }
+
+    public float toWorldY(float screenY)
+    {
+        return (screenY - offsetY) / scale;
+    }
+
+    public float getScale() { return scale; }
+    public float getOffsetX() { return offsetX; }
+    public float getOffsetY() { return offsetY; }
+} // end class ViewTransform
@@ -0,0 +1,99 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+/**
+ * Starts one frame per display vsync. A platform callback (Choreographer on Android)
+ * reports each vsync through onVsync; the game thread waits for the next one without
+ * spinning. Vsyncs that arrive while the game thread is still busy count as dropped.
+ */
+public class VsyncFrameScheduler implements FrameScheduler
+{
+    private final Object lock = new Object();
+    private long latestVsyncTime; // timestamp of the newest vsync, in nanoseconds
+    private long vsyncCount; // vsyncs reported since the last reset
+    private long consumedVsyncCount; // vsyncs the game thread has seen
+    private long frameCount;
+    private long droppedFrames;
+    private boolean cancelled;
+
+    // called from the vsync source's thread with the vsync timestamp
+    public void onVsync(long frameTimeNanos)
+    {
+        synchronized (lock)
+        {
+            latestVsyncTime = frameTimeNanos;
+            ++vsyncCount;
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public long awaitNextFrame() throws InterruptedException
+    {
+        synchronized (lock)
+        {
+            while (vsyncCount == consumedVsyncCount && !cancelled)
+                lock.wait();
+
+            if (cancelled)
+                return latestVsyncTime;
+
+            // every vsync after the first one we missed is a frame we never drew
+            if (frameCount > 0)
+                droppedFrames += vsyncCount - consumedVsyncCount - 1;
+
+            consumedVsyncCount = vsyncCount;
+            ++frameCount;
+            return latestVsyncTime;
+        }
+    }
+
+    @Override
+    public void cancel()
+    {
+        synchronized (lock)
+        {
+            cancelled = true;
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public long getFrameCount()
+    {
+        synchronized (lock)
+        {
+            return frameCount;
+        }
+    }
+
+    @Override
+    public long getDroppedFrames()
+    {
+        synchronized (lock)
+        {
+            return droppedFrames;
+        }
+    }
+
+    @Override
+    public void reset()
+    {
+        synchronized (lock)
+        {
+            consumedVsyncCount = vsyncCount;
+            frameCount = 0;
+            droppedFrames = 0;
+            cancelled = false;
+        }
+    }
+
+    @Override
+    public void resume()
+    {
+        synchronized (lock)
+        {
+            consumedVsyncCount = vsyncCount;
+            cancelled = false;
+        }
+    }
+} // end class VsyncFrameScheduler
@@ -0,0 +1,139 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Saves and restores the moving parts of a GameWorld: the clock, score, how far the
+ * hoop is along its path, and every ball in flight. The world is in world units, so a
+ * snapshot does not depend on the screen and restores unchanged after a rotation.
+ * Balls keep their pool slots, so a restored world carries on exactly as the original
+ * would have. The level is not saved, only a hash of its name to check it against.
+ *
+ * Binary layout, big-endian: magic, version, flags, level name hash, time left and
+ * elapsed time as doubles, score and shots taken, the hoop's phase as a double, the
+ * ball count and each ball's slot, x, y, velocity, scored flag and shot number, then
+ * the free slot count and the free slots from the bottom of the pool's stack. Writing
+ * and reading never allocate.
+ */
+public class WorldSnapshot
+{
+    private static final int MAGIC = 0x5348534E; // "SHSN"
+    // 1 stored fractions of the screen size, 2 each hoop segment's position
+    private static final byte VERSION = 3;
+    private static final byte FLAG_RAPID_FIRE = 1;
+
+    private static final int HEADER_SIZE = 4 + 1 + 1 + 4 + 8 + 8 + 4 + 4 + 8;
+    private static final int BALL_SIZE = 2 + 4 * 4 + 1 + 4;
+    private static final int FREE_SLOT_SIZE = 2;
+
+    private WorldSnapshot()
+    {
+    }
+
+    // the most bytes a snapshot of world can take
+    public static int getMaxSize(GameWorld world)
+    {
+        return HEADER_SIZE + 2 + 2 +
+                world.getBalls().getCapacity() * Math.max(BALL_SIZE, FREE_SLOT_SIZE);
+    }
+
+    // write world's state at out's position; returns the bytes written
+    public static int write(GameWorld world, ByteBuffer out)
+    {
+        int start = out.position();
+        BallStore balls = world.getBalls();
+
+        out.putInt(MAGIC);
+        out.put(VERSION);
+        out.put(isRapidFire(world) ? FLAG_RAPID_FIRE : 0);
+        out.putInt(world.getLevel().getName().hashCode());
+        out.putDouble(world.getTimeLeft());
+        out.putDouble(world.getTotalElapsedTime());
+        out.putInt(world.getScore());
+        out.putInt(world.getShotsTaken());
+        out.putDouble(world.getHoopPhase());
+
+        out.putShort((short) balls.getActiveCount());
+        for (int i = 0; i < balls.getCapacity(); ++i)
+        {
+            if (!balls.active[i])
+                continue;
+
+            out.putShort((short) i);
+            out.putFloat(balls.x[i]);
+            out.putFloat(balls.y[i]);
+            out.putFloat(balls.velocityX[i]);
+            out.putFloat(balls.velocityY[i]);
+            out.put((byte) (balls.scored[i] ? 1 : 0));
+            out.putInt(world.getShotOfBall(i));
+        }
+
+        // the order slots are handed out in decides which slot the next shot gets
+        out.putShort((short) balls.getFreeCount());
+        for (int k = 0; k < balls.getFreeCount(); ++k)
+            out.putShort((short) balls.getFreeSlot(k));
+
+        return out.position() - start;
+    }
+
+    // restore the snapshot at in's position into world, which must be in the same mode
+    // and on the same level; world is unchanged if the header doesn't match
+    public static void read(ByteBuffer in, GameWorld world)
+    {
+        try
+        {
+            if (in.getInt() != MAGIC)
+                throw new IllegalArgumentException("not a world snapshot");
+            byte version = in.get();
+            if (version != VERSION)
+                throw new IllegalArgumentException("unsupported snapshot version " + version);
+            if (((in.get() & FLAG_RAPID_FIRE) != 0) != isRapidFire(world))
+                throw new IllegalArgumentException("snapshot is of a different game mode");
+            if (in.getInt() != world.getLevel().getName().hashCode())
+                throw new IllegalArgumentException("snapshot is of a different level");
+
+            double timeLeft = in.getDouble();
+            double totalElapsedTime = in.getDouble();
+            int score = in.getInt();
+            int shotsTaken = in.getInt();
+            world.restoreProgress(timeLeft, totalElapsedTime, score, shotsTaken, in.getDouble());
+
+            BallStore balls = world.getBalls();
+            balls.clearForRestore();
+            int ballCount = in.getShort();
+            for (int b = 0; b < ballCount; ++b)
+            {
+                int slot = checkSlot(in.getShort(), balls);
+                float x = in.getFloat();
+                float y = in.getFloat();
+                float vx = in.getFloat();
+                float vy = in.getFloat();
+                boolean scored = in.get() != 0;
+                world.restoreBall(slot, x, y, vx, vy, scored, in.getInt());
+            }
+
+            int freeCount = in.getShort();
+            if (ballCount + freeCount != balls.getCapacity())
+                throw new IllegalArgumentException("snapshot has " + (ballCount + freeCount) + " slots");
+            for (int k = 0; k < freeCount; ++k)
+                balls.restoreFreeSlot(checkSlot(in.getShort(), balls));
+        }
+        catch (BufferUnderflowException e)
+        {
+            throw new IllegalArgumentException("truncated world snapshot");
+        }
+    }
+
+    private static boolean isRapidFire(GameWorld world)
+    {
+        return world.getBalls().getCapacity() > 1;
+    }
+
+    private static int checkSlot(int slot, BallStore balls)
+    {
+        if (slot < 0 || slot >= balls.getCapacity() || balls.active[slot])
+            throw new IllegalArgumentException("bad ball slot " + slot + " in snapshot");
+        return slot;
+    }
+} // end class WorldSnapshot
@@ -0,0 +1,277 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.util.concurrent.Semaphore;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * CappedFrameScheduler driven by a fake clock, where each frame's work takes a fixed
+ * slice of simulated time: capped, the loop must run at the target rate and sleep out
+ * the rest of each frame, where unpaced it keeps the core busy all the time. On real
+ * threads, a cancel must wake a loop sleeping to its next deadline, and a cancel
+ * followed at once by a resume must neither stop the loop nor leave it interrupted.
+ */
+public class CappedFrameSchedulerTest
+{
+    private static final int TARGET_FPS = 50; // a whole number of nanoseconds per frame
+    private static final long PERIOD = 1000000000L / TARGET_FPS;
+    private static final long WORK_NANOS = 2000000L; // simulated time each frame's work takes
+
+    /** Simulated time, which only moves when the loop works or sleeps. */
+    private static class FakeClock implements FrameClock
+    {
+        long time = 1000;
+        long slept;
+
+        @Override
+        public long nanoTime()
+        {
+            return time;
+        }
+
+        @Override
+        public void sleepNanos(long nanos)
+        {
+            time += nanos;
+            slept += nanos;
+        }
+
+        void work(long nanos)
+        {
+            time += nanos;
+        }
+    }
+
+    /**
+     * Real time, but a sleep blocks until the test releases it, ignoring interrupts, so
+     * the test can cancel and resume in between. Released, it throws if interrupted, as
+     * when the interrupt wakes it, or returns with the interrupt still set, as when the
+     * sleep ends just as the interrupt arrives.
+     */
+    private static class GatedClock implements FrameClock
+    {
+        final Semaphore asleep = new Semaphore(0);
+        final Semaphore release = new Semaphore(0);
+        final boolean throwOnInterrupt;
+        volatile boolean gated = true;
+
+        GatedClock(boolean throwOnInterrupt)
+        {
+            this.throwOnInterrupt = throwOnInterrupt;
+        }
+
+        @Override
+        public long nanoTime()
+        {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void sleepNanos(long nanos) throws InterruptedException
+        {
+            if (!gated)
+            {
+                SYSTEM.sleepNanos(nanos);
+                return;
+            }
+            asleep.release();
+            release.acquireUninterruptibly();
+            if (throwOnInterrupt && Thread.interrupted())
+                throw new InterruptedException();
+        }
+    }
+
+    @Test
+    public void cappedLoopSleepsBetweenFrames() throws InterruptedException
+    {
+        FakeClock clock = new FakeClock();
+        FrameScheduler scheduler = new CappedFrameScheduler(clock, TARGET_FPS);
+        long elapsed = runFrames(clock, scheduler, TARGET_FPS, WORK_NANOS);
+
+        // one frame a period, working for WORK_NANOS of it and sleeping the rest
+        assertEquals("elapsed", (TARGET_FPS - 1) * PERIOD + WORK_NANOS, elapsed);
+        assertEquals("slept", (TARGET_FPS - 1) * (PERIOD - WORK_NANOS), clock.slept);
+        assertEquals("frames", TARGET_FPS, scheduler.getFrameCount());
+        assertEquals("dropped", 0, scheduler.getDroppedFrames());
+    }
+
+    @Test
+    public void cappingCutsBusyTimePerSecond() throws InterruptedException
+    {
+        FakeClock cappedClock = new FakeClock();
+        long cappedElapsed = runFrames(cappedClock,
+                new CappedFrameScheduler(cappedClock, TARGET_FPS), TARGET_FPS, WORK_NANOS);
+
+        FakeClock unpacedClock = new FakeClock();
+        long unpacedElapsed = runFrames(unpacedClock, new UnpacedFrameScheduler(unpacedClock),
+                TARGET_FPS, WORK_NANOS);
+
+        // the same work either way, but unpaced the loop never sleeps, so it keeps the
+        // core busy all the time; capped, only a tenth of it with 2 ms frames
+        double cappedBusy = (double) TARGET_FPS * WORK_NANOS / cappedElapsed;
+        double unpacedBusy = (double) TARGET_FPS * WORK_NANOS / unpacedElapsed;
+        assertEquals("unpaced busy fraction", 1, unpacedBusy, 1e-9);
+        assertEquals("unpaced slept", 0, unpacedClock.slept);
+        assertEquals("capped busy fraction", (double) WORK_NANOS / PERIOD, cappedBusy, 0.01);
+    }
+
+    @Test
+    public void slowFramesCountMissedSlotsAsDropped() throws InterruptedException
+    {
+        FakeClock clock = new FakeClock();
+        FrameScheduler scheduler = new CappedFrameScheduler(clock, TARGET_FPS);
+        int frames = 10;
+        runFrames(clock, scheduler, frames, 3 * PERIOD); // each frame takes three slots
+
+        // a late frame starts at once, having missed the two slots it overran
+        assertEquals("frames", frames, scheduler.getFrameCount());
+        assertEquals("dropped", 2 * (frames - 1), scheduler.getDroppedFrames());
+        assertEquals("slept", 0, clock.slept);
+    }
+
+    @Test
+    public void cancelWakesASleepingLoop() throws InterruptedException
+    {
+        // a frame a second, so the loop is certain to be asleep when cancelled
+        final CappedFrameScheduler scheduler = new CappedFrameScheduler(FrameClock.SYSTEM, 1);
+        scheduler.awaitNextFrame(); // the first frame starts right away
+        final long[] woke = new long[1];
+        final boolean[] interrupted = new boolean[1];
+        Thread loop = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    scheduler.awaitNextFrame();
+                    woke[0] = System.nanoTime();
+                    interrupted[0] = Thread.currentThread().isInterrupted();
+                }
+                catch (InterruptedException e)
+                {
+                    interrupted[0] = true;
+                }
+            }
+        }, "LoopThread"); // end anonymous Runnable
+        loop.start();
+        Thread.sleep(100); // let it go to sleep
+
+        long cancelTime = System.nanoTime();
+        scheduler.cancel();
+        loop.join(500);
+
+        assertFalse("loop still asleep after cancel", loop.isAlive());
+        assertTrue("woken " + (woke[0] - cancelTime) / 1e6 + " ms after cancel",
+                woke[0] - cancelTime < 100000000L);
+        assertFalse("interrupt leaked out of awaitNextFrame", interrupted[0]);
+        assertEquals("a cancelled wait is not a frame", 1, scheduler.getFrameCount());
+
+        // cancelled, it returns at once until resumed
+        long start = System.nanoTime();
+        scheduler.awaitNextFrame();
+        assertTrue(System.nanoTime() - start < 100000000L);
+        assertEquals(1, scheduler.getFrameCount());
+        scheduler.resume();
+        scheduler.awaitNextFrame(); // a resumed schedule starts right away
+        assertEquals(2, scheduler.getFrameCount());
+    }
+
+    @Test
+    public void resumeBeforeTheInterruptedLoopWakesKeepsItRunning()
+            throws InterruptedException
+    {
+        checkCancelThenResume(new GatedClock(true));
+    }
+
+    @Test
+    public void resumeAsTheSleepEndsLeavesNoInterrupt() throws InterruptedException
+    {
+        checkCancelThenResume(new GatedClock(false));
+    }
+
+    // cancel a loop asleep on clock and resume it before it wakes: the wait must end
+    // normally with no interrupt left over, and the loop must carry on pacing frames
+    private static void checkCancelThenResume(final GatedClock clock)
+            throws InterruptedException
+    {
+        final CappedFrameScheduler scheduler = new CappedFrameScheduler(clock, TARGET_FPS);
+        final String[] failure = new String[1];
+        final long[] frames = new long[1];
+        Thread loop = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    scheduler.awaitNextFrame(); // the first frame starts right away
+                    scheduler.awaitNextFrame(); // asleep through the cancel and resume
+                    if (Thread.currentThread().isInterrupted())
+                        failure[0] = "interrupt leaked out of awaitNextFrame";
+
+                    clock.gated = false;
+                    for (int f = 0; f < 3; ++f)
+                        scheduler.awaitNextFrame(); // real sleeps, which must not throw
+                    frames[0] = scheduler.getFrameCount();
+                }
+                catch (InterruptedException e)
+                {
+                    failure[0] = "loop stopped by a cancelled interrupt";
+                }
+            }
+        }, "LoopThread"); // end anonymous Runnable
+        loop.start();
+
+        clock.asleep.acquire();
+        scheduler.cancel();
+        scheduler.resume(); // before the loop thread sees the interrupt
+        clock.release.release();
+        loop.join(2000);
+
+        assertFalse("loop still running", loop.isAlive());
+        assertEquals(null, failure[0]);
+        assertEquals("frames after the resume", 5, frames[0]);
+    }
+
+    @Test
+    public void resetFromAnotherThreadClearsCounters() throws InterruptedException
+    {
+        FakeClock clock = new FakeClock();
+        final CappedFrameScheduler scheduler = new CappedFrameScheduler(clock, TARGET_FPS);
+        runFrames(clock, scheduler, TARGET_FPS, WORK_NANOS);
+        Thread other = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                scheduler.reset();
+            }
+        }, "UiThread"); // end anonymous Runnable
+        other.start();
+        other.join();
+
+        assertEquals(0, scheduler.getFrameCount());
+        assertEquals(0, scheduler.getDroppedFrames());
+    }
+
+    // run frames of workNanos each; returns the simulated time from the first frame's
+    // start to the last one's end
+    private static long runFrames(FakeClock clock, FrameScheduler scheduler, int frames,
+            long workNanos) throws InterruptedException
+    {
+        long start = 0;
+        for (int f = 0; f < frames; ++f)
+        {
+            long frameTime = scheduler.awaitNextFrame();
+            if (f == 0)
+                start = frameTime;
+            clock.work(workNanos);
+        }
+        return clock.nanoTime() - start;
+    }
+} // end class CappedFrameSchedulerTest
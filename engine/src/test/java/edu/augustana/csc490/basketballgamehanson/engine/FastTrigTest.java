@@ -0,0 +1,75 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FastTrig against StrictMath: sin and cos over two turns either side of zero, and atan
+ * over the whole float range, must stay within FastTrig.MAX_ERROR. Its bits over a fixed
+ * set of arguments are pinned, since replays depend on them being the same everywhere.
+ */
+public class FastTrigTest
+{
+    private static final int SAMPLES = 1000000;
+    private static final double TURNS = 2; // sin and cos are checked over +-TURNS turns
+    private static final long CHECKSUM = 0xb578245b0c91d1ebL; // of SAMPLES sin, cos and atan results
+
+    @Test
+    public void sinAndCosAreWithinMaxError()
+    {
+        double sinError = 0, cosError = 0;
+        for (int i = 0; i <= SAMPLES; ++i)
+        {
+            float x = turnsArgument(i);
+            sinError = Math.max(sinError, Math.abs(FastTrig.sin(x) - StrictMath.sin(x)));
+            cosError = Math.max(cosError, Math.abs(FastTrig.cos(x) - StrictMath.cos(x)));
+        }
+        assertTrue("sin error " + sinError, sinError <= FastTrig.MAX_ERROR);
+        assertTrue("cos error " + cosError, cosError <= FastTrig.MAX_ERROR);
+    }
+
+    @Test
+    public void atanIsWithinMaxError()
+    {
+        // evenly over [-4, 4], where shots are aimed, then out to the float range
+        double atanError = 0;
+        for (int i = 0; i <= SAMPLES; ++i)
+        {
+            float x = atanArgument(i);
+            atanError = Math.max(atanError, Math.abs(FastTrig.atan(x) - StrictMath.atan(x)));
+        }
+        for (float x = 4; x < Float.MAX_VALUE / 2; x *= 1.001f)
+        {
+            atanError = Math.max(atanError, Math.abs(FastTrig.atan(x) - StrictMath.atan(x)));
+            atanError = Math.max(atanError, Math.abs(FastTrig.atan(-x) - StrictMath.atan(-x)));
+        }
+        assertTrue("atan error " + atanError, atanError <= FastTrig.MAX_ERROR);
+    }
+
+    @Test
+    public void resultsAreBitForBitPinned()
+    {
+        long checksum = 17;
+        for (int i = 0; i <= SAMPLES; ++i)
+        {
+            float x = turnsArgument(i);
+            checksum = checksum * 31 + Float.floatToRawIntBits(FastTrig.sin(x));
+            checksum = checksum * 31 + Float.floatToRawIntBits(FastTrig.cos(x));
+        }
+        for (int i = 0; i <= SAMPLES; ++i)
+            checksum = checksum * 31 + Float.floatToRawIntBits(FastTrig.atan(atanArgument(i)));
+        assertEquals(String.format("checksum %016x", checksum), CHECKSUM, checksum);
+    }
+
+    private static float turnsArgument(int i)
+    {
+        return (float) (2 * Math.PI * TURNS * (2.0 * i / SAMPLES - 1));
+    }
+
+    private static float atanArgument(int i)
+    {
+        return (float) (4 * (2.0 * i / SAMPLES - 1));
+    }
+} // end class FastTrigTest
@@ -0,0 +1,66 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The overlay text FrameProfiler writes into its char buffer: each phase's p50, p95 and
+ * p99 in milliseconds to two places, rounded, and the dropped and skipped frame lines.
+ */
+public class FrameProfilerTest
+{
+    @Test
+    public void overlayLinesShowPercentilesInMillis()
+    {
+        FrameProfiler profiler = new FrameProfiler();
+        for (int i = 0; i < 90; ++i)
+            profiler.record(FrameProfiler.FRAME, 16666667); // 16.67 ms
+        for (int i = 0; i < 8; ++i)
+            profiler.record(FrameProfiler.FRAME, 33333333);
+        for (int i = 0; i < 2; ++i)
+            profiler.record(FrameProfiler.FRAME, 123456789);
+        profiler.record(FrameProfiler.DRAW, 1004999); // rounds down to 1.00
+        profiler.record(FrameProfiler.POST, 5000); // rounds up to 0.01
+        profiler.recordSkippedFrame();
+        profiler.recordSkippedFrame();
+        profiler.updateText(1234, 56);
+
+        assertEquals(FrameProfiler.PHASE_COUNT + 2, profiler.getLineCount());
+        // the tops of the values' buckets, but never above the largest value recorded
+        assertLine(profiler, FrameProfiler.FRAME, "frame 16.78 33.55 123.46");
+        assertLine(profiler, FrameProfiler.UPDATE, "update 0.00 0.00 0.00");
+        assertLine(profiler, FrameProfiler.DRAW, "draw 1.00 1.00 1.00");
+        assertLine(profiler, FrameProfiler.POST, "post 0.01 0.01 0.01");
+        assertLine(profiler, FrameProfiler.PHASE_COUNT, "dropped 56/1234");
+        assertLine(profiler, FrameProfiler.PHASE_COUNT + 1, "skipped 2");
+        assertEquals(2, profiler.getSkippedFrames());
+
+        // a new game starts the counts again
+        profiler.clear();
+        profiler.updateText(0, 0);
+        assertLine(profiler, FrameProfiler.FRAME, "frame 0.00 0.00 0.00");
+        assertLine(profiler, FrameProfiler.PHASE_COUNT, "dropped 0/0");
+        assertLine(profiler, FrameProfiler.PHASE_COUNT + 1, "skipped 0");
+    }
+
+    @Test
+    public void summaryReportsEveryPhase()
+    {
+        FrameProfiler profiler = new FrameProfiler();
+        profiler.record(FrameProfiler.LOCK_CANVAS, 2000000);
+        profiler.recordSkippedFrame();
+        String summary = profiler.summary(10, 1);
+        assertTrue(summary,
+                summary.contains("lock            1    2.000    2.000    2.000    2.000"));
+        assertTrue(summary, summary.contains("dropped 1 of 10 frames"));
+        assertTrue(summary, summary.contains("skipped 1 frames with nothing to redraw"));
+    }
+
+    private static void assertLine(FrameProfiler profiler, int line, String expected)
+    {
+        assertEquals(expected, new String(profiler.getText(), profiler.getLineStart(line),
+                profiler.getLineLength(line)));
+    }
+} // end class FrameProfilerTest
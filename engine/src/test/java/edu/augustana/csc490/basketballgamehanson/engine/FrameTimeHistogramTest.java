@@ -0,0 +1,100 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Percentiles from the histogram against the exact ones from sorted frame times, values
+ * on either side of every bucket edge, and values clamped at both ends of its range.
+ * Every value must be reported exactly below 64 ns and within about 3% above.
+ */
+public class FrameTimeHistogramTest
+{
+    private static final double MAX_ERROR = 1.0 / 32; // a sub-bucket of each power of two
+    private static final int VALUES = 100000;
+
+    @Test
+    public void percentilesAreWithinTheBucketError()
+    {
+        Random random = new Random(16);
+        FrameTimeHistogram histogram = new FrameTimeHistogram();
+        long[] values = new long[VALUES];
+        for (int i = 0; i < VALUES; ++i)
+        {
+            // frames around 16 ms with a long tail, and a few tiny values
+            values[i] = i % 100 == 0 ? random.nextInt(64) :
+                    (long) (16e6 * Math.exp(random.nextGaussian() * 0.5));
+            histogram.record(values[i]);
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        assertEquals(VALUES, histogram.getCount());
+        assertEquals(sorted[VALUES - 1], histogram.getMax());
+        for (int tenths = 0; tenths <= 1000; ++tenths)
+        {
+            double p = tenths / 10.0;
+            long exact = sorted[(int) Math.max(0, Math.ceil(p / 100 * VALUES) - 1)];
+            checkReported(exact, histogram.getValueAtPercentile(p));
+        }
+    }
+
+    @Test
+    public void valuesOnBucketEdgesLandInTheRightBucket()
+    {
+        for (int bits = 0; bits <= 33; ++bits)
+        {
+            long edge = 1L << bits;
+            for (long value = Math.max(0, edge - 2); value <= edge + 1; ++value)
+            {
+                if (value > FrameTimeHistogram.MAX_VALUE)
+                    continue;
+
+                // with a larger value on record, the percentile reports the top of the
+                // value's bucket rather than the maximum
+                FrameTimeHistogram histogram = new FrameTimeHistogram();
+                histogram.record(value);
+                histogram.record(FrameTimeHistogram.MAX_VALUE);
+                long reported = histogram.getValueAtPercentile(50);
+                checkReported(value, reported);
+                if (value < 64 || value == edge - 1)
+                    assertEquals("the last value in a bucket is its top", value, reported);
+            }
+        }
+    }
+
+    @Test
+    public void valuesOutsideTheRangeAreClamped()
+    {
+        FrameTimeHistogram histogram = new FrameTimeHistogram();
+        assertEquals("empty", 0, histogram.getValueAtPercentile(50));
+
+        histogram.record(-5);
+        assertEquals(0, histogram.getValueAtPercentile(100));
+        histogram.record(FrameTimeHistogram.MAX_VALUE * 4);
+        assertEquals(FrameTimeHistogram.MAX_VALUE, histogram.getMax());
+        assertEquals(FrameTimeHistogram.MAX_VALUE, histogram.getValueAtPercentile(100));
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(2, histogram.getCount());
+
+        histogram.clear();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    // a reported value is the top of exact's bucket: never below it, and exact below
+    // 64 ns or within the bucket error above
+    private static void checkReported(long exact, long reported)
+    {
+        assertTrue(reported + " for " + exact, reported >= exact);
+        if (exact < 64)
+            assertEquals(exact, reported);
+        else
+            assertTrue(reported + " for " + exact, reported - exact <= exact * MAX_ERROR);
+    }
+} // end class FrameTimeHistogramTest
@@ -0,0 +1,106 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The leaderboard against a full sort of every game offered: after each game, the board
+ * copied out best first must be the top of the sort, with tied scores ranked by the
+ * earlier game, and copying into shorter arrays must keep only the best of it.
+ */
+public class LeaderboardTest
+{
+    private static final int CAPACITY = 10;
+
+    @Test
+    public void boardMatchesASortOfEveryGame()
+    {
+        Random random = new Random(15);
+        Leaderboard board = new Leaderboard(CAPACITY);
+        List<long[]> games = new ArrayList<long[]>(); // score, start time
+        int[] scores = new int[CAPACITY];
+        long[] startTimes = new long[CAPACITY];
+        for (int game = 0; game < 2000; ++game)
+        {
+            int score = random.nextInt(30); // plenty of ties
+            long startTime = 1000L * game;
+            board.offer(score, startTime);
+            games.add(new long[] { score, startTime });
+            sortRanked(games);
+
+            int count = board.copyRanked(scores, startTimes);
+            assertEquals(Math.min(games.size(), CAPACITY), count);
+            for (int i = 0; i < count; ++i)
+            {
+                assertEquals("score " + i + " after game " + game, games.get(i)[0],
+                        scores[i]);
+                assertEquals("start time " + i, games.get(i)[1], startTimes[i]);
+            }
+            assertEquals(games.get(0)[0], board.getBestScore());
+        }
+    }
+
+    @Test
+    public void tiesKeepTheEarlierGame()
+    {
+        Leaderboard board = new Leaderboard(2);
+        assertTrue(board.offer(5, 100));
+        assertTrue(board.offer(5, 200));
+        assertFalse("a tie doesn't displace", board.offer(5, 300));
+        assertFalse(board.offer(4, 400));
+        assertTrue(board.offer(6, 500));
+
+        int[] scores = new int[2];
+        long[] startTimes = new long[2];
+        assertEquals(2, board.copyRanked(scores, startTimes));
+        assertEquals(6, scores[0]);
+        assertEquals(500, startTimes[0]);
+        assertEquals(5, scores[1]);
+        assertEquals("the earlier of the tied games", 100, startTimes[1]);
+    }
+
+    @Test
+    public void copyRankedTruncatesToTheShorterOutput()
+    {
+        Leaderboard board = new Leaderboard(CAPACITY);
+        for (int game = 0; game < CAPACITY; ++game)
+            board.offer((game * 7) % CAPACITY, game); // 0 to 9 in a scrambled order
+
+        int[] scores = new int[3];
+        long[] startTimes = new long[5];
+        assertEquals("the shorter array", 3, board.copyRanked(scores, startTimes));
+        assertEquals(9, scores[0]);
+        assertEquals(8, scores[1]);
+        assertEquals(7, scores[2]);
+        assertEquals(0, board.copyRanked(new int[0], new long[0]));
+        assertEquals(0, new Leaderboard(CAPACITY).copyRanked(scores, startTimes));
+
+        board.clear();
+        assertEquals(0, board.getSize());
+        assertEquals(0, board.getBestScore());
+    }
+
+    // best first: higher score, then the earlier game
+    private static void sortRanked(List<long[]> games)
+    {
+        Collections.sort(games, new Comparator<long[]>()
+        {
+            @Override
+            public int compare(long[] a, long[] b)
+            {
+                if (a[0] != b[0])
+                    return a[0] > b[0] ? -1 : 1;
+                return a[1] < b[1] ? -1 : a[1] > b[1] ? 1 : 0;
+            }
+        }); // end anonymous Comparator
+    }
+} // end class LeaderboardTest
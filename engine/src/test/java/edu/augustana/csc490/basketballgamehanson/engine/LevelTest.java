@@ -0,0 +1,176 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Each of the app's levels against its own curve: the compiled path at random times,
+ * and the backboard of a world stepped through a whole game, must both stay within
+ * MAX_ERROR of the curve evaluated exactly. Drawn between steps, each segment must
+ * run from where the last step found it to where it left it. level_classic.txt must
+ * also be the same level as the built-in Level.CLASSIC.
+ */
+public class LevelTest
+{
+    static final String[] LEVELS = {"classic", "drift", "orbit"}; // level_*.txt in res/raw
+
+    private static final double MAX_ERROR = 1e-3; // world units, a pixel on a 1080 px court
+    private static final int SAMPLES = 100000;
+
+    @Test
+    public void compiledPathsFollowTheirCurves() throws IOException
+    {
+        for (String name : LEVELS)
+        {
+            Level level = load(name);
+            double[] offset = new double[2];
+            float[] sampled = new float[2];
+            Random random = new Random(23);
+            double error = 0;
+            for (int i = 0; i < SAMPLES; ++i)
+            {
+                double time = random.nextDouble() * 2 * level.getCurve().getPeriod();
+                level.getCurve().getOffset(time, offset);
+                level.getPath().getOffset(time, sampled);
+                error = Math.max(error, Math.hypot(sampled[0] - offset[0], sampled[1] - offset[1]));
+            }
+            assertTrue(name + " path error " + error, error <= MAX_ERROR);
+        }
+    }
+
+    @Test
+    public void steppedHoopsFollowTheirCurves() throws IOException
+    {
+        for (String name : LEVELS)
+        {
+            Level level = load(name);
+            GameWorld world = new GameWorld(false, level);
+            SegmentStore segments = world.getSegments();
+            double[] offset = new double[2];
+            double error = 0;
+            while (!world.isGameOver())
+            {
+                world.step(FixedStepLoop.DEFAULT_STEP);
+                level.getCurve().getOffset(world.getTotalElapsedTime(), offset);
+                error = Math.max(error, Math.hypot(
+                        segments.startX[GameWorld.BACKBOARD] - level.getBackboardX() - offset[0],
+                        segments.startY[GameWorld.BACKBOARD] - level.getBackboardTop() - offset[1]));
+            }
+            assertTrue(name + " stepped error " + error, error <= MAX_ERROR);
+        }
+    }
+
+    @Test
+    public void interpolatedHoopsRunBetweenSteps() throws IOException
+    {
+        for (String name : LEVELS)
+        {
+            GameWorld world = new GameWorld(false, load(name));
+            SegmentStore segments = world.getSegments();
+            float[] before = new float[4 * segments.getCount()];
+            // placed at rest, so drawn where it is
+            double error = checkInterpolated(name, segments, copyEnds(segments, before), 0);
+            while (!world.isGameOver())
+            {
+                copyEnds(segments, before);
+                world.step(FixedStepLoop.DEFAULT_STEP);
+                error = Math.max(error, checkInterpolated(name, segments, before, 0));
+                error = Math.max(error, checkInterpolated(name, segments, before, 0.5f));
+                error = Math.max(error, checkInterpolated(name, segments, before, 1));
+            }
+            assertTrue(name + " interpolation error " + error, error <= MAX_ERROR);
+        }
+    }
+
+    // copy each segment's endpoints into ends, and return it
+    private static float[] copyEnds(SegmentStore segments, float[] ends)
+    {
+        for (int i = 0; i < segments.getCount(); ++i)
+        {
+            ends[4 * i] = segments.startX[i];
+            ends[4 * i + 1] = segments.startY[i];
+            ends[4 * i + 2] = segments.endX[i];
+            ends[4 * i + 3] = segments.endY[i];
+        }
+        return ends;
+    }
+
+    // the largest distance of any interpolated endpoint from alpha of the way between
+    // before and where the segment is now; at alpha 1 it must be exactly there
+    private static double checkInterpolated(String name, SegmentStore segments,
+            float[] before, float alpha)
+    {
+        double error = 0;
+        for (int i = 0; i < segments.getCount(); ++i)
+        {
+            float startX = segments.interpolatedStartX(i, alpha);
+            float startY = segments.interpolatedStartY(i, alpha);
+            float endX = segments.interpolatedEndX(i, alpha);
+            float endY = segments.interpolatedEndY(i, alpha);
+            error = Math.max(error, Math.hypot(
+                    startX - between(before[4 * i], segments.startX[i], alpha),
+                    startY - between(before[4 * i + 1], segments.startY[i], alpha)));
+            error = Math.max(error, Math.hypot(
+                    endX - between(before[4 * i + 2], segments.endX[i], alpha),
+                    endY - between(before[4 * i + 3], segments.endY[i], alpha)));
+            if (alpha == 1)
+            {
+                assertEquals(name, segments.startX[i], startX, 0);
+                assertEquals(name, segments.endY[i], endY, 0);
+            }
+        }
+        return error;
+    }
+
+    private static double between(float from, float to, float alpha)
+    {
+        return from + (double) (to - from) * alpha;
+    }
+
+    @Test
+    public void classicFileMatchesBuiltInLevel() throws IOException
+    {
+        Level file = load("classic");
+        Level builtIn = Level.CLASSIC;
+        double error = Math.max(Math.abs(file.getBackboardX() - builtIn.getBackboardX()),
+                Math.abs(file.getBackboardTop() - builtIn.getBackboardTop()));
+        error = Math.max(error, Math.abs(file.getBackboardBottom() - builtIn.getBackboardBottom()));
+        error = Math.max(error, Math.abs(file.getRimX() - builtIn.getRimX()));
+        error = Math.max(error, Math.abs(file.getRimTop() - builtIn.getRimTop()));
+        error = Math.max(error, Math.abs(file.getCheckerX() - builtIn.getCheckerX()));
+        error = Math.max(error, Math.abs(file.getCheckerTop() - builtIn.getCheckerTop()));
+        float[] fileOffset = new float[2], builtInOffset = new float[2];
+        for (int k = 0; k < builtIn.getPath().getSampleCount(); ++k)
+        {
+            double time = k / builtIn.getPath().getSamplesPerSecond();
+            file.getPath().getOffset(time, fileOffset);
+            builtIn.getPath().getOffset(time, builtInOffset);
+            error = Math.max(error, Math.hypot(fileOffset[0] - builtInOffset[0],
+                    fileOffset[1] - builtInOffset[1]));
+        }
+        assertTrue("classic error " + error, error <= MAX_ERROR);
+    }
+
+    // level_name.txt, which the build copies onto the test classpath
+    static Level load(String name) throws IOException
+    {
+        InputStream in = LevelTest.class.getResourceAsStream("/level_" + name + ".txt");
+        assertNotNull("no level file for " + name, in);
+        try
+        {
+            return Level.parse(new InputStreamReader(in, "UTF-8"));
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+} // end class LevelTest
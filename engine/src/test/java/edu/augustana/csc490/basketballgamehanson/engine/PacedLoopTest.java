@@ -0,0 +1,143 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A PacedLoop stepping a world at 60 fps, paused and resumed the way ShooterView does
+ * it: a paused loop must use next to no CPU and leave the world where it was, every
+ * resume must wake it promptly, and a stop must end its thread.
+ */
+public class PacedLoopTest
+{
+    private static final int TARGET_FPS = 60;
+    private static final long PAUSE_MILLIS = 500;
+    private static final int RESUMES = 20;
+    private static final double MAX_PAUSED_CPU = 0.01; // of the time spent paused
+    private static final long MAX_RESUME_LATENCY = 50000000L; // at the 99th percentile
+
+    @Test
+    public void pausedLoopParksAndResumesPromptly() throws InterruptedException
+    {
+        final GameWorld world = new GameWorld();
+        final FixedStepLoop gameLoop = new FixedStepLoop(world);
+        final FrameTimeHistogram latencies = new FrameTimeHistogram();
+        FrameScheduler scheduler = new CappedFrameScheduler(FrameClock.SYSTEM, TARGET_FPS);
+        GameLoopLifecycle lifecycle = new GameLoopLifecycle(FrameClock.SYSTEM);
+        Thread loop = new Thread(new PacedLoop(lifecycle, scheduler, new PacedLoop.Frame()
+        {
+            @Override
+            public void onResumed(long latencyNanos)
+            {
+                latencies.record(latencyNanos);
+            }
+
+            @Override
+            public void run(long frameNanos, long elapsedNanos)
+            {
+                synchronized (world)
+                {
+                    gameLoop.advance(elapsedNanos / 1e9);
+                }
+            }
+        }), "LoopThread"); // end anonymous PacedLoop.Frame
+
+        lifecycle.start();
+        loop.start();
+        synchronized (world)
+        {
+            world.shootBasketball(0.6);
+        }
+        Thread.sleep(200); // let the loop settle into its frame rate
+
+        // CPU used by the loop thread while parked
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        lifecycle.pause();
+        scheduler.cancel();
+        Thread.sleep(100); // let it finish the frame in progress and park
+        double timeBefore;
+        synchronized (world)
+        {
+            timeBefore = world.getTotalElapsedTime();
+        }
+        long cpuBefore = threads.getThreadCpuTime(loop.getId());
+        Thread.sleep(PAUSE_MILLIS);
+        long cpuUsed = threads.getThreadCpuTime(loop.getId()) - cpuBefore;
+        synchronized (world)
+        {
+            assertEquals("simulated time while paused", timeBefore, world.getTotalElapsedTime(), 0);
+        }
+        assertTrue("CPU while paused " + cpuUsed / 1e6 + " ms",
+                cpuUsed <= MAX_PAUSED_CPU * PAUSE_MILLIS * 1e6);
+
+        // resume latency, over many pause / resume cycles
+        for (int i = 0; i < RESUMES; ++i)
+        {
+            scheduler.resume();
+            lifecycle.resume();
+            Thread.sleep(30); // longer than a frame, so every resume is seen
+            lifecycle.pause();
+            scheduler.cancel();
+            Thread.sleep(30);
+        }
+        assertEquals("resumes seen", RESUMES, latencies.getCount());
+        assertTrue("resume latency p99 " + latencies.getValueAtPercentile(99) / 1e3 + " us",
+                latencies.getValueAtPercentile(99) <= MAX_RESUME_LATENCY);
+
+        lifecycle.stop();
+        loop.join(1000);
+        assertFalse("loop thread still alive after stop", loop.isAlive());
+    }
+
+    @Test
+    public void pausedTimeIsNotPassedToTheFrame() throws InterruptedException
+    {
+        final FrameTimeHistogram elapsed = new FrameTimeHistogram();
+        final long[] frames = new long[1];
+        FrameScheduler scheduler = new CappedFrameScheduler(FrameClock.SYSTEM, TARGET_FPS);
+        GameLoopLifecycle lifecycle = new GameLoopLifecycle(FrameClock.SYSTEM);
+        Thread loop = new Thread(new PacedLoop(lifecycle, scheduler, new PacedLoop.Frame()
+        {
+            @Override
+            public void onResumed(long latencyNanos)
+            {
+            }
+
+            @Override
+            public void run(long frameNanos, long elapsedNanos)
+            {
+                synchronized (elapsed)
+                {
+                    elapsed.record(elapsedNanos);
+                    ++frames[0];
+                }
+            }
+        }), "LoopThread"); // end anonymous PacedLoop.Frame
+
+        lifecycle.start();
+        loop.start();
+        Thread.sleep(100);
+        lifecycle.pause();
+        scheduler.cancel();
+        Thread.sleep(300); // far longer than any frame
+        scheduler.resume();
+        lifecycle.resume();
+        Thread.sleep(100);
+        lifecycle.stop();
+        scheduler.cancel();
+        loop.join(1000);
+
+        synchronized (elapsed)
+        {
+            assertTrue("frames run " + frames[0], frames[0] > 2);
+            assertTrue("longest frame " + elapsed.getMax() / 1e6 + " ms",
+                    elapsed.getMax() < 200000000L);
+        }
+    }
+} // end class PacedLoopTest
@@ -0,0 +1,85 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Quantiles from the sketch against the exact ones from sorted samples, over game-like
+ * integer scores and values spread across many orders of magnitude: each must be
+ * within the sketch's relative accuracy of the value actually at that rank. Zeros and
+ * values outside the sketch's range land where the class comment says.
+ */
+public class QuantileSketchTest
+{
+    private static final double ACCURACY = 0.01;
+    private static final int VALUES = 100000;
+
+    @Test
+    public void scoresAreWithinTheRelativeAccuracy()
+    {
+        Random random = new Random(15);
+        double[] values = new double[VALUES];
+        for (int i = 0; i < VALUES; ++i)
+            values[i] = 1 + random.nextInt(60); // scores of a game, never 0
+        checkQuantiles(values);
+    }
+
+    @Test
+    public void wideValuesAreWithinTheRelativeAccuracy()
+    {
+        Random random = new Random(16);
+        double[] values = new double[VALUES];
+        for (int i = 0; i < VALUES; ++i)
+            values[i] = Math.exp(random.nextGaussian() * 4); // about 1e-7 to 1e7
+        for (int i = 0; i < VALUES; ++i)
+            values[i] = Math.max(values[i], QuantileSketch.MIN_VALUE); // in range
+        checkQuantiles(values);
+    }
+
+    @Test
+    public void zerosAndOutOfRangeValuesAreClamped()
+    {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        assertEquals("empty", 0, sketch.quantile(0.5), 0);
+
+        sketch.add(0);
+        sketch.add(-5);
+        sketch.add(QuantileSketch.MIN_VALUE / 100);
+        sketch.add(QuantileSketch.MAX_VALUE * 100);
+        assertEquals(4, sketch.getCount());
+        assertEquals("zero and below", 0, sketch.quantile(0), 0);
+        assertEquals(0, sketch.quantile(0.34), 0);
+        assertEquals("clamped up", QuantileSketch.MIN_VALUE, sketch.quantile(0.67),
+                QuantileSketch.MIN_VALUE * ACCURACY);
+        assertEquals("clamped down", QuantileSketch.MAX_VALUE, sketch.quantile(1),
+                QuantileSketch.MAX_VALUE * ACCURACY);
+
+        sketch.clear();
+        assertEquals(0, sketch.getCount());
+        assertEquals(0, sketch.quantile(1), 0);
+    }
+
+    // add values to a sketch and compare its quantiles with the exact ones
+    private static void checkQuantiles(double[] values)
+    {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        for (double value : values)
+            sketch.add(value);
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        for (int percent = 0; percent <= 1000; ++percent)
+        {
+            double q = percent / 1000.0;
+            double exact = sorted[(int) (q * (sorted.length - 1))];
+            double estimate = sketch.quantile(q);
+            assertTrue("quantile " + q + ": " + estimate + " for " + exact,
+                    Math.abs(estimate - exact) <= ACCURACY * exact * (1 + 1e-9));
+        }
+    }
+} // end class QuantileSketchTest
@@ -0,0 +1,206 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Plays a rapid-fire game in real time on two PacedLoops, as ShooterView does: one
+ * steps the world and publishes RenderStates through a TripleBuffer, the other draws
+ * the latest with a fake renderer that sleeps a fixed time every frame. The simulation
+ * must advance once a step at the step rate however slow drawing is, and no state may
+ * change while it is being drawn. The same game stepped and drawn in turn on one loop
+ * is run too, to show the measurement does catch a stalled simulation.
+ */
+public class RenderPipelineTest
+{
+    private static final int TARGET_FPS = 60; // as ShooterView without vsync
+    private static final long RUN_MILLIS = 1500;
+    private static final double RATE_TOLERANCE = 0.1; // steps per second, either way
+    private static final double MAX_INTERVAL_STEPS = 2; // at the 99th percentile
+
+    /** What one run measured. */
+    private static class Run
+    {
+        final FrameTimeHistogram advanceInterval = new FrameTimeHistogram(); // between advances
+        long steps;
+        long previousAdvance; // when the last advance that ran a step was
+        long frames;
+        long changedWhileDrawn; // states the simulation wrote to while they were drawn
+        long outOfOrder; // states older than the one drawn before
+        double seconds;
+    }
+
+    @Test
+    public void splitPipelineStepsSteadilyWhateverTheRenderLatency()
+            throws InterruptedException
+    {
+        double stepRate = 1 / FixedStepLoop.DEFAULT_STEP;
+        for (long latency : new long[] {0, 16, 50})
+        {
+            Run run = runSplit(latency * 1000000L);
+            String name = "render " + latency + " ms";
+            assertEquals(name + " steps/s", stepRate, run.steps / run.seconds,
+                    stepRate * RATE_TOLERANCE);
+            assertTrue(name + " advance interval p99 " +
+                            run.advanceInterval.getValueAtPercentile(99) / 1e6 + " ms",
+                    run.advanceInterval.getValueAtPercentile(99) <=
+                            MAX_INTERVAL_STEPS * FixedStepLoop.DEFAULT_STEP * 1e9);
+            assertEquals(name + " states changed while drawn", 0, run.changedWhileDrawn);
+            assertEquals(name + " states drawn out of order", 0, run.outOfOrder);
+            assertTrue(name + " frames drawn " + run.frames, run.frames > 0);
+        }
+    }
+
+    @Test
+    public void serialLoopStallsBehindSlowRendering() throws InterruptedException
+    {
+        Run run = runSerial(50000000L);
+        assertTrue("advance interval p99 " + run.advanceInterval.getValueAtPercentile(99) / 1e6 +
+                        " ms", run.advanceInterval.getValueAtPercentile(99) >
+                MAX_INTERVAL_STEPS * FixedStepLoop.DEFAULT_STEP * 1e9);
+    }
+
+    // step and publish on one loop and draw the latest state on another
+    private static Run runSplit(final long latencyNanos) throws InterruptedException
+    {
+        final GameWorld world = new GameWorld(true);
+        final FixedStepLoop gameLoop = new FixedStepLoop(world);
+        final TripleBuffer<RenderState> states = new TripleBuffer<RenderState>(
+                new RenderState(world), new RenderState(world), new RenderState(world));
+        final Run run = new Run();
+        FrameScheduler stepScheduler = new CappedFrameScheduler(FrameClock.SYSTEM,
+                (int) Math.round(1 / gameLoop.getStep()));
+        FrameScheduler frameScheduler = new CappedFrameScheduler(FrameClock.SYSTEM, TARGET_FPS);
+        GameLoopLifecycle lifecycle = new GameLoopLifecycle(FrameClock.SYSTEM);
+
+        Thread simulation = new Thread(new PacedLoop(lifecycle, stepScheduler, new PacedLoop.Frame()
+        {
+            @Override
+            public void onResumed(long latencyNanos)
+            {
+            }
+
+            @Override
+            public void run(long frameNanos, long elapsedNanos)
+            {
+                advance(world, gameLoop, elapsedNanos, frameNanos, run);
+                states.getBack().capture(world, gameLoop, frameNanos);
+                states.publish();
+            }
+        }), "SimulationThread"); // end anonymous PacedLoop.Frame
+        Thread render = new Thread(new PacedLoop(lifecycle, frameScheduler, new PacedLoop.Frame()
+        {
+            private long drawnSteps = -1;
+
+            @Override
+            public void onResumed(long latencyNanos)
+            {
+            }
+
+            @Override
+            public void run(long frameNanos, long elapsedNanos)
+            {
+                RenderState state = states.acquire();
+                long steps = state.getStepCount();
+                float hoopY = state.getSegments().startY[GameWorld.BACKBOARD];
+                if (steps < drawnSteps)
+                    ++run.outOfOrder;
+                drawnSteps = steps;
+
+                draw(latencyNanos);
+                if (state.getStepCount() != steps ||
+                        state.getSegments().startY[GameWorld.BACKBOARD] != hoopY)
+                    ++run.changedWhileDrawn;
+                ++run.frames;
+            }
+        }), "RenderThread"); // end anonymous PacedLoop.Frame
+
+        System.gc(); // collect what earlier tests left now, not in the middle of the run
+        long start = System.nanoTime();
+        lifecycle.start();
+        simulation.start();
+        render.start();
+        Thread.sleep(RUN_MILLIS);
+        lifecycle.stop();
+        stepScheduler.cancel();
+        frameScheduler.cancel();
+        simulation.join();
+        render.join();
+        run.seconds = (System.nanoTime() - start) / 1e9;
+        return run;
+    }
+
+    // step, capture and draw in turn on one loop
+    private static Run runSerial(final long latencyNanos) throws InterruptedException
+    {
+        final GameWorld world = new GameWorld(true);
+        final FixedStepLoop gameLoop = new FixedStepLoop(world);
+        final RenderState state = new RenderState(world);
+        final Run run = new Run();
+        FrameScheduler scheduler = new CappedFrameScheduler(FrameClock.SYSTEM, TARGET_FPS);
+        GameLoopLifecycle lifecycle = new GameLoopLifecycle(FrameClock.SYSTEM);
+
+        Thread loop = new Thread(new PacedLoop(lifecycle, scheduler, new PacedLoop.Frame()
+        {
+            @Override
+            public void onResumed(long latencyNanos)
+            {
+            }
+
+            @Override
+            public void run(long frameNanos, long elapsedNanos)
+            {
+                advance(world, gameLoop, elapsedNanos, frameNanos, run);
+                state.capture(world, gameLoop, frameNanos);
+                draw(latencyNanos);
+                ++run.frames;
+            }
+        }), "LoopThread"); // end anonymous PacedLoop.Frame
+
+        long start = System.nanoTime();
+        lifecycle.start();
+        loop.start();
+        Thread.sleep(RUN_MILLIS);
+        lifecycle.stop();
+        scheduler.cancel();
+        loop.join();
+        run.seconds = (System.nanoTime() - start) / 1e9;
+        return run;
+    }
+
+    // shoot, then advance the world by elapsedNanos of real time at frameNanos
+    private static void advance(GameWorld world, FixedStepLoop gameLoop, long elapsedNanos,
+            long frameNanos, Run run)
+    {
+        if (world.isGameOver())
+        {
+            world.reset();
+            gameLoop.reset();
+        }
+        world.shootBasketball(0.35 + 0.25 * Math.sin(run.steps * 0.05));
+
+        int steps = gameLoop.advance(elapsedNanos / 1e9);
+        if (steps == 0)
+            return;
+
+        run.steps += steps;
+        if (run.previousAdvance != 0)
+            run.advanceInterval.record(frameNanos - run.previousAdvance);
+        run.previousAdvance = frameNanos;
+    }
+
+    // stand in for lockCanvas and drawing
+    private static void draw(long latencyNanos)
+    {
+        try
+        {
+            FrameClock.SYSTEM.sleepNanos(latencyNanos);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+} // end class RenderPipelineTest
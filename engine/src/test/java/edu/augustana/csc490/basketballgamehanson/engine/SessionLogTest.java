@@ -0,0 +1,210 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * A session history written by SessionLogWriter and read back through SessionLogReader,
+ * whole and after a crash tore its last index record: the reader must ignore the torn
+ * record, and a writer reopened on the history must cut it off and append after the
+ * last whole one. Files without this version's header are refused by both.
+ */
+public class SessionLogTest
+{
+    private File indexFile;
+    private File eventFile;
+
+    @Before
+    public void createFiles() throws IOException
+    {
+        indexFile = File.createTempFile("history", ".idx");
+        eventFile = File.createTempFile("history", ".dat");
+    }
+
+    @After
+    public void deleteFiles()
+    {
+        indexFile.delete();
+        eventFile.delete();
+    }
+
+    @Test
+    public void sessionsReadBackAsWritten() throws IOException
+    {
+        append(0, 3);
+        append(1, 40);
+        append(2, 0);
+
+        SessionLogReader history = new SessionLogReader(indexFile, eventFile);
+        assertEquals(3, history.getCount());
+        for (int i = 0; i < 3; ++i)
+            checkSession(history, i);
+    }
+
+    @Test
+    public void tornLastRecordIsIgnoredThenRepaired() throws IOException
+    {
+        append(0, 3);
+        append(1, 40);
+        append(2, 12);
+        long whole = indexFile.length() - SessionLogWriter.RECORD_SIZE; // two records
+        RandomAccessFile torn = new RandomAccessFile(indexFile, "rw");
+        try
+        {
+            torn.setLength(whole + SessionLogWriter.RECORD_SIZE / 2); // crashed mid-write
+        }
+        finally
+        {
+            torn.close();
+        }
+
+        SessionLogReader history = new SessionLogReader(indexFile, eventFile);
+        assertEquals("sessions before the torn record", 2, history.getCount());
+        checkSession(history, 0);
+        checkSession(history, 1);
+
+        // reopened, the writer cuts off the torn record and appends after the last whole
+        // one; the torn game's events are left behind, unreferenced
+        SessionLogWriter writer = new SessionLogWriter(indexFile, eventFile);
+        try
+        {
+            assertEquals(whole, indexFile.length());
+            assertEquals(2, writer.getSessionCount());
+        }
+        finally
+        {
+            writer.close();
+        }
+        append(2, 7);
+
+        history = new SessionLogReader(indexFile, eventFile);
+        assertEquals(3, history.getCount());
+        for (int i = 0; i < 3; ++i)
+            checkSession(history, i);
+        assertEquals(7, history.getShotsTaken(2));
+    }
+
+    @Test
+    public void historyWithoutTheHeaderIsRefused() throws IOException
+    {
+        assertEquals("nothing added yet", 0,
+                new SessionLogReader(indexFile, eventFile).getCount());
+
+        // a record as sessions.idx held them, with no header in front
+        writeIndex(new byte[SessionLogWriter.RECORD_SIZE]);
+        checkRefused("not a session history file");
+
+        // this layout under a later version
+        writeIndex(new byte[0]);
+        append(0, 3);
+        RandomAccessFile index = new RandomAccessFile(indexFile, "rw");
+        try
+        {
+            index.seek(4);
+            index.writeInt(SessionLogWriter.VERSION + 1);
+        }
+        finally
+        {
+            index.close();
+        }
+        checkRefused("unsupported session history version " +
+                (SessionLogWriter.VERSION + 1));
+    }
+
+    // both reading and appending to the history must fail with message
+    private void checkRefused(String message)
+    {
+        try
+        {
+            new SessionLogReader(indexFile, eventFile);
+            fail("read");
+        }
+        catch (IOException e)
+        {
+            assertEquals(message, e.getMessage());
+        }
+        try
+        {
+            new SessionLogWriter(indexFile, eventFile).close();
+            fail("appended");
+        }
+        catch (IOException e)
+        {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+    private void writeIndex(byte[] contents) throws IOException
+    {
+        RandomAccessFile index = new RandomAccessFile(indexFile, "rw");
+        try
+        {
+            index.setLength(0);
+            index.write(contents);
+        }
+        finally
+        {
+            index.close();
+        }
+    }
+
+    // append session number i with shots shots, of which every third was made
+    private void append(int i, int shots) throws IOException
+    {
+        SessionLogWriter writer = new SessionLogWriter(indexFile, eventFile);
+        try
+        {
+            writer.append(1000L * i, Level.CLASSIC, i % 2 == 1, shots / 3, shots, 60 + i,
+                    shots(i, shots));
+        }
+        finally
+        {
+            writer.close();
+        }
+    }
+
+    // check session i reads back as append wrote it
+    private static void checkSession(SessionLogReader history, int i)
+    {
+        final int shots = history.getShotsTaken(i);
+        assertEquals(1000L * i, history.getStartTime(i));
+        assertEquals(60 + i, history.getTotalElapsedTime(i), 0);
+        assertEquals(shots / 3, history.getScore(i));
+        assertEquals(i % 2 == 1, history.isRapidFire(i));
+        assertTrue(history.isLevel(i, Level.CLASSIC));
+
+        final ShotLog expected = shots(i, shots);
+        final int[] seen = new int[1];
+        assertEquals(shots, history.readShots(i, new ShotLog.Visitor()
+        {
+            @Override
+            public void onShot(long step, double angle, boolean scored)
+            {
+                int shot = seen[0]++;
+                assertEquals(expected.getStep(shot), step);
+                assertEquals(expected.getAngle(shot), angle, 1e-4);
+                assertEquals(shot % 3 == 0, scored);
+            }
+        })); // end anonymous ShotLog.Visitor
+        assertEquals(shots, seen[0]);
+    }
+
+    // the shots of session i
+    private static ShotLog shots(int i, int count)
+    {
+        ShotLog log = new ShotLog();
+        for (int shot = 0; shot < count; ++shot)
+            log.resolve(log.recordShot(shot * 25 + i, 0.3 + 0.01 * shot + 0.1 * i),
+                    shot % 3 == 0);
+        return log;
+    }
+} // end class SessionLogTest
@@ -0,0 +1,71 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A seeded game recorded shot by shot, written out and read back, must replay to the
+ * recorded step count, score and final world checksum, on the level it names and no
+ * other. A replay whose last shot differs from the game's by a millionth of a radian
+ * must not pass, even with the same score.
+ */
+public class SessionReplayTest
+{
+    private static final long SEED = 13;
+
+    @Test
+    public void recordedGameReplaysExactly() throws IOException
+    {
+        SessionRecording recording = readBack(ScriptedGame.record(SEED));
+        SessionReplay replay = new SessionReplay(recording, Level.CLASSIC);
+        replay.run();
+
+        assertTrue("recording has shots", recording.getShotCount() > 10);
+        assertEquals(recording.getStepCount(), replay.getStepIndex());
+        assertEquals(recording.getScore(), replay.getWorld().getScore());
+        assertEquals(recording.getChecksum(), SessionRecording.checksum(replay.getWorld()));
+        assertTrue(replay.matchesRecording());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void replayOnAnotherLevelIsRefused() throws IOException
+    {
+        SessionRecording recording = readBack(ScriptedGame.record(SEED));
+        assertEquals(Level.CLASSIC.getName(), recording.getLevelName());
+        new SessionReplay(recording, LevelTest.load("drift"));
+    }
+
+    @Test
+    public void driftedReplayDoesNotMatch() throws IOException
+    {
+        SessionRecording original = readBack(ScriptedGame.record(SEED));
+        SessionReplay check = new SessionReplay(original, Level.CLASSIC);
+        assertTrue("the last shot is still in flight at the buzzer",
+                check.run().isBasketballOnScreen());
+
+        // the same game but for a millionth of a radian on the last shot, checked against
+        // what the original recorded
+        SessionRecording drifted = ScriptedGame.record(SEED, original.getShotCount() - 1);
+        drifted.end(original.getStepCount(), check.getWorld()); // the original's ending
+        SessionReplay replay = new SessionReplay(readBack(drifted), Level.CLASSIC);
+        replay.run();
+
+        assertEquals("score alone can't tell them apart", original.getScore(),
+                replay.getWorld().getScore());
+        assertFalse(replay.matchesRecording());
+    }
+
+    private static SessionRecording readBack(SessionRecording recording) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recording.writeTo(out);
+        return SessionRecording.readFrom(new ByteArrayInputStream(out.toByteArray()));
+    }
+} // end class SessionReplayTest
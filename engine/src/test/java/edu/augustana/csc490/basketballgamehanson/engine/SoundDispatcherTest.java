@@ -0,0 +1,143 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A SoundDispatcher fed by a rapid-fire game in real time, the way ShooterView feeds
+ * GameAudio, with a fake player in place of the SoundPool. Every event posted must be
+ * played once, in order, unless the queue was full or the stream cap culled it, and
+ * the audio thread must open the player first and close it last.
+ */
+public class SoundDispatcherTest
+{
+    // the same settings as GameAudio
+    private static final int MAX_STREAMS = 6;
+    private static final long CLIP_NANOS = 250 * 1000000L;
+    private static final int QUEUE_CAPACITY = 64;
+
+    private static final long FRAME_NANOS = 1000000000L / 60;
+    private static final int FRAMES = 120;
+
+    /** Records what the audio thread asked it to do. */
+    private static class FakePlayer implements SoundDispatcher.Player
+    {
+        final int[] played = new int[100000];
+        volatile int playedCount;
+        volatile int ready = ~0; // bit s set if sound s is ready
+        volatile boolean opened;
+        volatile boolean closed;
+        volatile boolean playedOutsideOpen; // a play before open or after close
+
+        @Override
+        public void open()
+        {
+            opened = true;
+        }
+
+        @Override
+        public boolean isReady(int sound)
+        {
+            return (ready & (1 << sound)) != 0;
+        }
+
+        @Override
+        public void play(int sound)
+        {
+            if (!opened || closed)
+                playedOutsideOpen = true;
+            played[playedCount] = sound;
+            playedCount = playedCount + 1; // only the audio thread writes
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+    }
+
+    @Test
+    public void rapidFireEventsArePlayedOnceInOrder() throws InterruptedException
+    {
+        FakePlayer player = new FakePlayer();
+        final SoundDispatcher dispatcher = new SoundDispatcher(player, QUEUE_CAPACITY,
+                MAX_STREAMS, CLIP_NANOS);
+        final int[] posted = new int[100000];
+        final int[] postedCount = new int[1];
+
+        GameWorld world = new GameWorld(true);
+        world.setContactListener(new GameWorld.ContactListener()
+        {
+            @Override
+            public void onContact(int segment, int ball)
+            {
+                int sound = segment == GameWorld.POINT_CHECKER ?
+                        SoundEventQueue.SCORE : SoundEventQueue.RIM;
+                dispatcher.post(sound);
+                posted[postedCount[0]++] = sound;
+            }
+        }); // end anonymous GameWorld.ContactListener
+        FixedStepLoop gameLoop = new FixedStepLoop(world);
+
+        dispatcher.start("AudioThread");
+        long next = System.nanoTime();
+        for (int f = 0; f < FRAMES; ++f)
+        {
+            // a new ball every frame, sweeping across the hoop's range of angles
+            if (world.shootBasketball(0.35 + 0.25 * Math.sin(f * 0.05)))
+            {
+                dispatcher.post(SoundEventQueue.SHOT);
+                posted[postedCount[0]++] = SoundEventQueue.SHOT;
+            }
+            gameLoop.advance(FRAME_NANOS / 1e9);
+            dispatcher.flush();
+
+            next += FRAME_NANOS;
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+        Thread.sleep(50); // let the audio thread play the last frame's events
+        dispatcher.release();
+
+        assertTrue("player opened and closed", player.opened && player.closed);
+        assertTrue("played while closed", !player.playedOutsideOpen);
+        assertEquals("played count", dispatcher.getPlayedCount(), player.playedCount);
+        assertEquals("every event played, dropped or culled", postedCount[0],
+                player.playedCount + dispatcher.getDroppedCount() + dispatcher.getCulledCount());
+
+        // what was played must be what was posted, in order, less what never played
+        int p = 0;
+        for (int i = 0; i < player.playedCount; ++i)
+        {
+            while (p < postedCount[0] && posted[p] != player.played[i])
+                ++p;
+            assertTrue("sound " + i + " played out of order", p < postedCount[0]);
+            ++p;
+        }
+        assertTrue("nothing played", player.playedCount > 0);
+    }
+
+    @Test
+    public void soundsNotReadyAreSkippedWithoutTakingAStream() throws InterruptedException
+    {
+        FakePlayer player = new FakePlayer();
+        player.ready = 1 << SoundEventQueue.SCORE;
+        SoundDispatcher dispatcher = new SoundDispatcher(player, QUEUE_CAPACITY,
+                MAX_STREAMS, CLIP_NANOS);
+        dispatcher.start("AudioThread");
+        for (int i = 0; i < MAX_STREAMS * 2; ++i)
+            dispatcher.post(SoundEventQueue.RIM);
+        dispatcher.post(SoundEventQueue.SCORE);
+        dispatcher.flush();
+        Thread.sleep(50);
+        dispatcher.release();
+
+        assertEquals("played", 1, player.playedCount);
+        assertEquals(SoundEventQueue.SCORE, player.played[0]);
+        assertEquals("culled", 0, dispatcher.getCulledCount());
+    }
+} // end class SoundDispatcherTest
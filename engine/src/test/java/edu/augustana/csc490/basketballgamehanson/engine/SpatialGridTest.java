@@ -0,0 +1,151 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Crowds of balls resolved through the spatial grid and by brute force must find the
+ * same touching pairs and leave every ball in the same place. Each ball touches at
+ * most one other, so the order pairs are resolved in can't change the outcome. The
+ * crowds include coincident balls, pairs straddling cell edges and corners, balls
+ * exactly on an edge, and balls off the grid that clamp to its border cells.
+ */
+public class SpatialGridTest
+{
+    private static final float RADIUS = GameWorld.WIDTH / 36;
+    private static final float CELL = RADIUS * 2; // as GameWorld sizes its grid
+    private static final int CAPACITY = 256;
+    private static final int CROWDS = 200;
+
+    @Test
+    public void gridFindsTheSamePairsAsBruteForce()
+    {
+        Random random = new Random(11);
+        for (int crowd = 0; crowd < CROWDS; ++crowd)
+        {
+            BallStore balls = new BallStore(CAPACITY);
+            int pairs = placeEdgeCases(balls);
+            pairs += placeRandomPairs(balls, random);
+            checkSamePairs(balls, pairs);
+        }
+    }
+
+    @Test
+    public void queryFindsBallsFiledOnCellEdges()
+    {
+        SpatialGrid grid = new SpatialGrid(4);
+        grid.resize(GameWorld.WIDTH, GameWorld.HEIGHT, CELL);
+        grid.update(0, CELL, CELL); // the corner of four cells files under the lower right
+        grid.update(1, -CELL, -CELL); // off the grid clamps to the top left cell
+        grid.update(2, 2 * GameWorld.WIDTH, 2 * GameWorld.HEIGHT); // and the bottom right
+
+        int[] out = new int[4];
+        assertEquals(1, grid.queryRect(CELL, CELL, CELL, CELL, out));
+        assertEquals(0, out[0]);
+        assertEquals(1, grid.queryRect(CELL / 2, CELL / 2, CELL / 2, CELL / 2, out));
+        assertEquals(1, out[0]);
+        assertEquals(1, grid.queryRect(GameWorld.WIDTH, GameWorld.HEIGHT,
+                GameWorld.WIDTH, GameWorld.HEIGHT, out));
+        assertEquals(2, out[0]);
+
+        // moving a ball within its cell keeps it there; across an edge refiles it
+        grid.update(0, CELL * 1.5f, CELL * 1.5f);
+        assertEquals(1, grid.queryRect(CELL, CELL, CELL, CELL, out));
+        grid.update(0, CELL * 2, CELL * 1.5f);
+        assertEquals(0, grid.queryRect(CELL, CELL, CELL, CELL, out));
+        grid.remove(0);
+        assertEquals(0, grid.queryRect(CELL * 2, CELL, CELL * 2, CELL, out));
+    }
+
+    // resolve copies of balls both ways and compare the contacts and every ball after
+    private static void checkSamePairs(BallStore balls, int pairs)
+    {
+        BallStore bruteForce = new BallStore(CAPACITY);
+        bruteForce.copyFrom(balls);
+        SpatialGrid grid = new SpatialGrid(CAPACITY);
+        grid.resize(GameWorld.WIDTH, GameWorld.HEIGHT, CELL);
+        for (int i = 0; i < CAPACITY; ++i)
+        {
+            if (balls.active[i])
+                grid.update(i, balls.x[i], balls.y[i]);
+        }
+
+        assertEquals("grid contacts", pairs, BallContacts.resolve(balls, grid));
+        assertEquals("brute-force contacts", pairs,
+                BallContacts.resolveBruteForce(bruteForce));
+        for (int i = 0; i < CAPACITY; ++i)
+        {
+            assertEquals(bruteForce.active[i], balls.active[i]);
+            assertEquals("x of " + i, bruteForce.x[i], balls.x[i], 0);
+            assertEquals("y of " + i, bruteForce.y[i], balls.y[i], 0);
+            assertEquals("vx of " + i, bruteForce.velocityX[i], balls.velocityX[i], 0);
+            assertEquals("vy of " + i, bruteForce.velocityY[i], balls.velocityY[i], 0);
+        }
+    }
+
+    // balls on and around the grid's edges, set well apart; returns the touching pairs
+    private static int placeEdgeCases(BallStore balls)
+    {
+        balls.spawn(CELL * 3, CELL * 3, 1, 0, RADIUS); // coincident
+        balls.spawn(CELL * 3, CELL * 3, -1, 0, RADIUS);
+        balls.spawn(CELL * 8, CELL * 6, 1, 0, RADIUS); // on a vertical edge, touching
+        balls.spawn(CELL * 8 - RADIUS, CELL * 6.5f, 0, 0, RADIUS); // across it
+        balls.spawn(CELL * 3, CELL * 10, 1, 1, RADIUS); // on a corner, touching
+        balls.spawn(CELL * 3 - RADIUS, CELL * 10 - RADIUS, 0, 0, RADIUS); // diagonally
+        balls.spawn(CELL * 14, CELL * 12, 0, 0, RADIUS); // on a horizontal edge
+        balls.spawn(CELL * 14, CELL * 12 + 2.2f * RADIUS, 0, -1, RADIUS); // out of reach
+        balls.spawn(-CELL, -CELL, 1, 1, RADIUS); // off the grid, clamped to its corner
+        balls.spawn(-CELL + RADIUS, -CELL, 0, 0, RADIUS);
+        balls.spawn(GameWorld.WIDTH + CELL, GameWorld.HEIGHT + CELL, -1, 0, RADIUS);
+        balls.spawn(GameWorld.WIDTH + CELL - RADIUS, GameWorld.HEIGHT + CELL, 0, 0, RADIUS);
+        return 5;
+    }
+
+    // random pairs, touching or nearly, each clear of every other ball; returns the
+    // touching pairs
+    private static int placeRandomPairs(BallStore balls, Random random)
+    {
+        int pairs = 0;
+        for (int attempt = 0; attempt < 400 && balls.getActiveCount() + 2 <= CAPACITY;
+                ++attempt)
+        {
+            float x = random.nextFloat() * GameWorld.WIDTH;
+            float y = random.nextFloat() * GameWorld.HEIGHT;
+            double direction = random.nextDouble() * 2 * Math.PI;
+            float gap = random.nextFloat() * 2.5f * RADIUS; // reach is 2 radii
+            float otherX = x + gap * (float) Math.cos(direction);
+            float otherY = y + gap * (float) Math.sin(direction);
+            if (random.nextInt(8) == 0)
+            {
+                otherX = x; // coincident
+                otherY = y;
+            }
+            if (isCrowded(balls, x, y) || isCrowded(balls, otherX, otherY))
+                continue;
+
+            balls.spawn(x, y, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, RADIUS);
+            balls.spawn(otherX, otherY, random.nextFloat() - 0.5f,
+                    random.nextFloat() - 0.5f, RADIUS);
+            float dx = otherX - x;
+            float dy = otherY - y;
+            float reach = RADIUS + RADIUS;
+            if (dx * dx + dy * dy < reach * reach)
+                ++pairs;
+        }
+        return pairs;
+    }
+
+    // is (x, y) near enough an existing ball that they could touch after a push?
+    private static boolean isCrowded(BallStore balls, float x, float y)
+    {
+        for (int i = 0; i < balls.getCapacity(); ++i)
+        {
+            if (balls.active[i] && Math.hypot(balls.x[i] - x, balls.y[i] - y) < 6 * RADIUS)
+                return true;
+        }
+        return false;
+    }
+} // end class SpatialGridTest
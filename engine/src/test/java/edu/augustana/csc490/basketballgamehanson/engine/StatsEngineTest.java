@@ -0,0 +1,112 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Streaks, shooting percentage and angle bands over a scripted run of shots, and a
+ * session history holding games on two levels, written by SessionLogWriter and read
+ * back: each record must know its level, and stats seeded from the history must count
+ * only the games and shots on the level asked for.
+ */
+public class StatsEngineTest
+{
+    @Test
+    public void streaksAndPercentagesCountEveryShot()
+    {
+        StatsEngine stats = new StatsEngine();
+        assertEquals("no shots yet", 0, stats.getShootingPercentage(), 0);
+        assertEquals(0, stats.getAverageScore(), 0);
+
+        // make, make, miss, make x4, miss, make
+        boolean[] made = { true, true, false, true, true, true, true, false, true };
+        int[] streaks = { 1, 2, 0, 1, 2, 3, 4, 0, 1 };
+        for (int i = 0; i < made.length; ++i)
+        {
+            stats.recordShot(0.01, made[i]); // all in the first 5 degree band
+            assertEquals("streak after shot " + i, streaks[i], stats.getCurrentStreak());
+        }
+        assertEquals(4, stats.getLongestStreak());
+        assertEquals(9, stats.getShots());
+        assertEquals(7, stats.getMakes());
+        assertEquals(100.0 * 7 / 9, stats.getShootingPercentage(), 1e-9);
+        assertEquals(7.0 / 9, stats.getAngleMakeRate(0), 1e-9);
+
+        // the bands split the quarter turn evenly; angles past either end are clamped
+        stats.recordShot(Math.PI / 4 + 0.01, false);
+        stats.recordShot(Math.PI / 2 + 1, true);
+        stats.recordShot(-1, true);
+        assertEquals(1, stats.getAngleShots(StatsEngine.ANGLE_BINS / 2));
+        assertEquals(0, stats.getAngleMakeRate(StatsEngine.ANGLE_BINS / 2), 0);
+        assertEquals(1, stats.getAngleMakes(StatsEngine.ANGLE_BINS - 1));
+        assertEquals(10, stats.getAngleShots(0));
+        assertEquals(2, stats.getCurrentStreak());
+        assertEquals(4, stats.getLongestStreak());
+
+        stats.recordGame(0, 10);
+        stats.recordGame(1, 25);
+        assertEquals(2, stats.getGames());
+        assertEquals(17.5, stats.getAverageScore(), 1e-9);
+        assertEquals(25, stats.getLeaderboard().getBestScore());
+    }
+
+    @Test
+    public void historyStatsCountOneLevel() throws IOException
+    {
+        Level drift = LevelTest.load("drift");
+        File indexFile = File.createTempFile("history", ".idx");
+        File eventFile = File.createTempFile("history", ".dat");
+        try
+        {
+            SessionLogWriter writer = new SessionLogWriter(indexFile, eventFile);
+            try
+            {
+                writer.append(1000, Level.CLASSIC, false, 2, 3, 60, shots(3, 2));
+                writer.append(2000, drift, false, 40, 50, 60, shots(50, 40));
+                writer.append(3000, Level.CLASSIC, false, 1, 4, 60, shots(4, 1));
+            }
+            finally
+            {
+                writer.close();
+            }
+
+            SessionLogReader history = new SessionLogReader(indexFile, eventFile);
+            assertEquals(3, history.getCount());
+            assertTrue(history.isLevel(0, Level.CLASSIC));
+            assertFalse(history.isLevel(1, Level.CLASSIC));
+            assertTrue(history.isLevel(1, drift));
+
+            StatsEngine classic = new StatsEngine();
+            classic.addHistory(history, Level.CLASSIC);
+            assertEquals("games", 2, classic.getGames());
+            assertEquals("shots", 7, classic.getShots());
+            assertEquals("makes", 3, classic.getMakes());
+            assertEquals("best score", 2, classic.getLeaderboard().getBestScore());
+
+            StatsEngine drifting = new StatsEngine();
+            drifting.addHistory(history, drift);
+            assertEquals("games", 1, drifting.getGames());
+            assertEquals("best score", 40, drifting.getLeaderboard().getBestScore());
+        }
+        finally
+        {
+            indexFile.delete();
+            eventFile.delete();
+        }
+    }
+
+    // a log of count shots, of which the first made went in
+    private static ShotLog shots(int count, int made)
+    {
+        ShotLog log = new ShotLog();
+        for (int i = 0; i < count; ++i)
+            log.resolve(log.recordShot(i * 30, 0.5 + i * 0.01), i < made);
+        return log;
+    }
+} // end class StatsEngineTest
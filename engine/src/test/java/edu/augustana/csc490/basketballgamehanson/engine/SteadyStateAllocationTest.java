@@ -0,0 +1,127 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A rapid-fire game played frame by frame the way ShooterView's two threads play it:
+ * shoot, advance, capture and publish a RenderState, take it back and rebuild the HUD
+ * text. Once warmed up, no frame may allocate, and the ball pool must keep its arrays
+ * and account for every slot however many shots are fired.
+ */
+public class SteadyStateAllocationTest
+{
+    private static final int WARM_UP_FRAMES = 600;
+    private static final int WINDOW_FRAMES = 3600; // a whole game, so a reset is included
+    private static final int WINDOWS = 10; // measured, at most
+    private static final double FRAME_SECONDS = 1.0 / 60;
+
+    private com.sun.management.ThreadMXBean threads;
+    private long queryBytes; // allocated by each getThreadAllocatedBytes call
+    private long queries;
+
+    @Before
+    public void enableAllocationCounting()
+    {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long id = Thread.currentThread().getId();
+        queryBytes = -threads.getThreadAllocatedBytes(id);
+        queryBytes += threads.getThreadAllocatedBytes(id);
+    }
+
+    @Test
+    public void steadyStateFramesAllocateNothing()
+    {
+        GameWorld world = new GameWorld(true);
+        FixedStepLoop gameLoop = new FixedStepLoop(world);
+        TripleBuffer<RenderState> states = new TripleBuffer<RenderState>(
+                new RenderState(world), new RenderState(world), new RenderState(world));
+        HudText hud = new HudText("Score: ", "Time: ");
+        BallStore balls = world.getBalls();
+        float[] ballX = balls.x;
+        boolean[] ballActive = balls.active;
+
+        long shots = 0;
+        for (int f = 0; f < WARM_UP_FRAMES; ++f)
+            shots += frame(world, gameLoop, states, hud, f);
+
+        // the JIT can allocate on this thread while it compiles or deoptimizes the loop,
+        // so some window has to come out clean; a real allocation shows in every one
+        long fewest = Long.MAX_VALUE;
+        for (int window = 0; window < WINDOWS && fewest > 0; ++window)
+        {
+            long before = allocatedBytes();
+            for (int f = 0; f < WINDOW_FRAMES; ++f)
+                shots += frame(world, gameLoop, states, hud, f);
+            fewest = Math.min(fewest, allocatedBytes() - before);
+        }
+
+        assertEquals("bytes allocated over " + WINDOW_FRAMES + " frames", 0, fewest);
+        assertTrue("shots fired " + shots, shots > balls.getCapacity() * 2L); // slots reused
+
+        // the pool is the one it started with, and every slot is either in flight or free
+        assertSame(ballX, balls.x);
+        assertSame(ballActive, balls.active);
+        int active = 0;
+        for (int i = 0; i < balls.getCapacity(); ++i)
+            if (balls.active[i])
+                ++active;
+        assertEquals("active slots", balls.getActiveCount(), active);
+    }
+
+    @Test
+    public void hudUpdatesAllocateNothing()
+    {
+        HudText hud = new HudText("Score: ", "Time: ");
+        for (int i = 0; i < 1000; ++i)
+            hud.update(i, 60 - i * 0.05);
+
+        long fewest = Long.MAX_VALUE;
+        int changes = 0;
+        for (int window = 0; window < WINDOWS && fewest > 0; ++window)
+        {
+            long before = allocatedBytes();
+            for (int i = 0; i < 100000; ++i)
+                if (hud.update(i / 7, 60 - i * 0.0005))
+                    ++changes;
+            fewest = Math.min(fewest, allocatedBytes() - before);
+        }
+
+        assertEquals("bytes allocated by 100000 HUD updates", 0, fewest);
+        assertTrue("HUD changes " + changes, changes > 1000);
+    }
+
+    // bytes allocated on this thread so far, less what asking has cost
+    private long allocatedBytes()
+    {
+        ++queries;
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId()) -
+                queries * queryBytes;
+    }
+
+    // one frame of play; returns the shots it fired
+    private static int frame(GameWorld world, FixedStepLoop gameLoop,
+            TripleBuffer<RenderState> states, HudText hud, int f)
+    {
+        if (world.isGameOver())
+        {
+            world.reset();
+            gameLoop.reset();
+        }
+        int shots = world.shootBasketball(0.35 + 0.25 * FastTrig.sin(f * 0.05f)) ? 1 : 0;
+        gameLoop.advance(FRAME_SECONDS);
+        states.getBack().capture(world, gameLoop, f);
+        states.publish();
+
+        RenderState state = states.acquire();
+        hud.update(state.getScore(), state.getTimeLeft());
+        return shots;
+    }
+} // end class SteadyStateAllocationTest
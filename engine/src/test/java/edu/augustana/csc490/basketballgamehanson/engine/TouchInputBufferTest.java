@@ -0,0 +1,115 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The touch ring on one thread, filled past capacity and drained across its wraparound,
+ * and then with a producer and a consumer on their own threads: every sample offered
+ * must be either drained, intact and in order, or counted as dropped.
+ */
+public class TouchInputBufferTest
+{
+    private static final int SAMPLES = 2000000; // offered across threads
+    private static final int CAPACITY = 8; // small, so the ring wraps and fills often
+
+    /** Checks drained samples follow on from each other; sample n is (n % 3, n, -n, n). */
+    private static class OrderCheck implements TouchInputBuffer.Consumer
+    {
+        long last = -1;
+        long count;
+        String error;
+
+        @Override
+        public void onTouch(int action, float x, float y, long timeNanos)
+        {
+            if (error == null && timeNanos <= last)
+                error = "sample " + timeNanos + " after " + last;
+            else if (error == null && (action != timeNanos % 3 || x != timeNanos ||
+                    y != -timeNanos))
+                error = "sample " + timeNanos + " torn: " + action + ", " + x + ", " + y;
+            last = timeNanos;
+            ++count;
+        }
+    }
+
+    @Test
+    public void fullRingDropsAndDrainsInOrderAcrossTheWrap()
+    {
+        TouchInputBuffer buffer = new TouchInputBuffer(CAPACITY);
+        OrderCheck check = new OrderCheck();
+        long n = 0;
+        for (int round = 0; round < 5; ++round)
+        {
+            // fill it, one more is dropped, then drain it all; the sequence wraps the
+            // ring's slots a little further each round
+            int offered = 0;
+            while (buffer.offer((int) (n % 3), n, -n, n))
+            {
+                ++n;
+                ++offered;
+            }
+            assertEquals(CAPACITY, offered);
+            assertEquals(round + 1, buffer.getDroppedCount());
+            assertEquals(CAPACITY, buffer.drain(check));
+
+            // and part way, so the next fill starts mid-ring
+            for (int i = 0; i < 3; ++i, ++n)
+                assertTrue(buffer.offer((int) (n % 3), n, -n, n));
+            assertEquals(3, buffer.drain(check));
+        }
+        assertEquals(null, check.error);
+        assertEquals(n, check.count);
+        assertEquals(0, buffer.drain(check));
+
+        assertTrue(buffer.offer(0, 0, 0, n));
+        assertEquals(1, buffer.discard());
+        assertEquals(0, buffer.drain(check));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityMustBeAPowerOfTwo()
+    {
+        new TouchInputBuffer(6);
+    }
+
+    @Test
+    public void everySampleIsDrainedInOrderOrDropped() throws InterruptedException
+    {
+        final TouchInputBuffer buffer = new TouchInputBuffer(CAPACITY);
+        final long[] accepted = new long[1];
+        Thread producer = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                for (long n = 0; n < SAMPLES; ++n)
+                {
+                    if (buffer.offer((int) (n % 3), n, -n, n))
+                        ++accepted[0];
+                }
+            }
+        }, "UiThread"); // end anonymous Runnable
+
+        OrderCheck check = new OrderCheck();
+        producer.start();
+        int drains = 0;
+        while (producer.isAlive())
+        {
+            buffer.drain(check);
+            if (++drains % 64 == 0)
+                Thread.yield(); // let the ring fill now and then
+        }
+        producer.join();
+        buffer.drain(check); // what was offered after the last drain
+
+        assertEquals(null, check.error);
+        assertEquals("drained", accepted[0], check.count);
+        assertEquals("drained + dropped", SAMPLES, check.count + buffer.getDroppedCount());
+        assertTrue("some samples dropped", buffer.getDroppedCount() > 0);
+        assertFalse("nothing drained", check.count == 0);
+    }
+} // end class TouchInputBufferTest
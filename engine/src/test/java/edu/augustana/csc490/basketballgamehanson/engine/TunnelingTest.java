@@ -0,0 +1,123 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Fires thousands of seeded random shots straight at the backboard and front rim,
+ * faster than a launch and with steps two to four times the default, with the hoop
+ * anywhere along its path. In a step without a contact, no ball's center may cross a
+ * solid segment's contact line between its ends, in the segment's own moving frame; a
+ * ball that skipped the sweep would do exactly that. After any step, no ball may sit
+ * more than half its radius deep in a segment, as one that slid off an end into the
+ * segment's face would.
+ */
+public class TunnelingTest
+{
+    private static final int SHOTS = 6000;
+    private static final double MAX_SECONDS = 3; // per shot, simulated
+    private static final float MIN_SPEED = 2; // world units per second; a launch is 3
+    private static final float MAX_SPEED = 9;
+
+    @Test
+    public void fastBallsNeverPassThroughTheHoop()
+    {
+        Random random = new Random(6);
+        GameWorld world = new GameWorld();
+        BallStore balls = world.getBalls();
+        SegmentStore segments = world.getSegments();
+        final int[] contacts = new int[1];
+        world.setContactListener(new GameWorld.ContactListener()
+        {
+            @Override
+            public void onContact(int segment, int ball)
+            {
+                if (segment != GameWorld.POINT_CHECKER)
+                    ++contacts[0];
+            }
+        }); // end anonymous GameWorld.ContactListener
+
+        float[] lineX = new float[segments.getCount()];
+        float[] top = new float[segments.getCount()];
+        float[] bottom = new float[segments.getCount()];
+        int tunnels = 0;
+        int sunk = 0;
+        int shotsHit = 0;
+        for (int shot = 0; shot < SHOTS; ++shot)
+        {
+            double step = FixedStepLoop.DEFAULT_STEP * (2 + random.nextInt(3));
+            world.reset();
+            world.placeHoopAtPhase(random.nextDouble() * world.getLevel().getPath().getPeriod());
+
+            // aim at a random point along the backboard or the rim, from somewhere to the left
+            int target = random.nextBoolean() ? GameWorld.BACKBOARD : GameWorld.FRONT_RIM;
+            float radius = world.getBasketballRadius();
+            float targetX = segments.startX[target] + segments.contactOffsetX[target];
+            float targetY = segments.startY[target] + random.nextFloat() *
+                    (segments.endY[target] - segments.startY[target]);
+            float startX = radius + random.nextFloat() * (targetX - 3 * radius - radius);
+            float startY = radius + random.nextFloat() * (GameWorld.HEIGHT - 2 * radius);
+            float speed = MIN_SPEED + random.nextFloat() * (MAX_SPEED - MIN_SPEED);
+            float distance = (float) Math.hypot(targetX - startX, targetY - startY);
+            balls.spawn(startX, startY, speed * (targetX - startX) / distance,
+                    speed * (targetY - startY) / distance, radius);
+
+            int contactsBefore = contacts[0];
+            for (double time = 0; time < MAX_SECONDS && balls.getActiveCount() > 0; time += step)
+            {
+                float x0 = balls.x[0], y0 = balls.y[0];
+                for (int s = 0; s < segments.getCount(); ++s)
+                {
+                    lineX[s] = segments.startX[s] + segments.contactOffsetX[s];
+                    top[s] = segments.startY[s];
+                    bottom[s] = segments.endY[s];
+                }
+
+                int contactsThisStep = contacts[0];
+                world.step(step);
+                if (!balls.active[0])
+                    break;
+                boolean bounced = contacts[0] > contactsThisStep;
+
+                for (int s = 0; s < segments.getCount(); ++s)
+                {
+                    if (segments.kind[s] != SegmentStore.SOLID)
+                        continue;
+
+                    // wherever the step took it, the ball may touch a segment but not sink
+                    // into it
+                    float lineNow = segments.startX[s] + segments.contactOffsetX[s];
+                    float nearestY = Math.max(segments.startY[s],
+                            Math.min(segments.endY[s], balls.y[0]));
+                    if (Math.hypot(balls.x[0] - lineNow, balls.y[0] - nearestY) < radius / 2)
+                        ++sunk;
+
+                    // a step without a contact went straight, so if the center crossed the
+                    // line, the segment must have been somewhere else then
+                    float before = x0 - lineX[s];
+                    float after = balls.x[0] - lineNow;
+                    if (bounced || before * after >= 0)
+                        continue;
+
+                    float t = before / (before - after);
+                    float y = y0 + t * (balls.y[0] - y0);
+                    float segmentTop = top[s] + t * (segments.startY[s] - top[s]);
+                    float segmentBottom = bottom[s] + t * (segments.endY[s] - bottom[s]);
+                    if (y > segmentTop && y < segmentBottom)
+                        ++tunnels;
+                }
+            }
+            if (contacts[0] > contactsBefore)
+                ++shotsHit;
+            balls.clear();
+        }
+
+        assertEquals("balls through a solid segment", 0, tunnels);
+        assertEquals("balls sunk into a solid segment", 0, sunk);
+        assertTrue("shots that reached the hoop " + shotsHit, shotsHit > SHOTS / 2);
+    }
+} // end class TunnelingTest
@@ -0,0 +1,63 @@
+package edu.augustana.csc490.basketballgamehanson.engine;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Round trips snapshots taken in the middle of scripted games. A restored world must
+ * reproduce the snapshot byte for byte and play the rest of the game out identically
+ * to the world it was taken from.
+ */
+public class WorldSnapshotTest
+{
+    private static final int GAMES = 20; // alternating classic and rapid fire
+    private static final int SHOT_INTERVAL = 7; // steps between scripted shots
+
+    @Test
+    public void restoredWorldsMatchAndFinishTheSame()
+    {
+        for (int game = 0; game < GAMES; ++game)
+        {
+            boolean rapidFire = (game & 1) == 1;
+            int snapshotStep = 200 + game * 97 % 2000; // somewhere in the middle of the game
+
+            GameWorld original = new GameWorld(rapidFire);
+            for (int step = 0; step < snapshotStep; ++step)
+                play(original, game, step);
+            byte[] snapshot = snapshotOf(original);
+
+            GameWorld restored = new GameWorld(rapidFire);
+            WorldSnapshot.read(ByteBuffer.wrap(snapshot), restored);
+            assertArrayEquals("game " + game + " round trip", snapshot, snapshotOf(restored));
+
+            for (int step = snapshotStep; !original.isGameOver(); ++step)
+            {
+                play(original, game, step);
+                play(restored, game, step);
+            }
+            assertArrayEquals("game " + game + " ending", snapshotOf(original),
+                    snapshotOf(restored));
+        }
+    }
+
+    // a scripted player: a shot every few steps at an angle that depends only on the step
+    static void play(GameWorld world, int game, int step)
+    {
+        if (step % SHOT_INTERVAL == 0)
+            world.shootBasketball(0.2 + (step * 31 + game) % 100 / 100.0 * 1.2);
+        world.step(FixedStepLoop.DEFAULT_STEP);
+    }
+
+    private static byte[] snapshotOf(GameWorld world)
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(WorldSnapshot.getMaxSize(world));
+        WorldSnapshot.write(world, buffer);
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+} // end class WorldSnapshotTest
@@ -0,0 +1,22 @@
+package edu.augustana.csc490.basketballgamehanson.simulator;
+
+import java.util.Random;
+
+import edu.augustana.csc490.basketballgamehanson.engine.GameWorld;
+
+/**
+ * A computer player. Every game gets a bot of its own, which is asked before each step
+ * whether to shoot and at what angle, just as touch input is applied before each step
+ * in the app. The world is passed only to be looked at.
+ */
+public interface Bot
+{
+    double WAIT = Double.NaN; // returned to hold the shot this step
+
+    // get ready for a new game; random is this game's own, so every game replays exactly
+    void startGame(Random random);
+
+    // the angle to shoot at now, in radians from vertical, or WAIT; only called when
+    // the world can take a shot
+    double nextShot(GameWorld world);
+} // end interface Bot
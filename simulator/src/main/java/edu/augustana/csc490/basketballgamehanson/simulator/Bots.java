@@ -0,0 +1,150 @@
+package edu.augustana.csc490.basketballgamehanson.simulator;
+
+import java.util.Random;
+
+import edu.augustana.csc490.basketballgamehanson.engine.GameWorld;
+import edu.augustana.csc490.basketballgamehanson.engine.TrajectoryTable;
+
+/**
+ * The bots the tournament knows, by name. The smarter ones read the aim preview's
+ * TrajectoryTable; what they learn from it is worked out once here and never changes,
+ * so one Bots can hand out bots to every thread. Bots that aim miss their angle by
+ * about as much as a finger does, so games differ and scores have a spread.
+ */
+public class Bots
+{
+    public static final String[] NAMES = {"random", "fixed", "lookup"};
+
+    private static final double AIM_SPREAD = Math.toRadians(1); // standard deviation
+
+    private final TrajectoryTable table;
+    private final double fixedAngle; // scores at the most hoop phases
+    private final double[] angleAtPhase; // per phase cell, a scoring angle or WAIT
+
+    // table must be built
+    public Bots(TrajectoryTable table)
+    {
+        this.table = table;
+
+        int angleCells = table.getAngleCells();
+        int[] scoringPhases = new int[angleCells];
+        angleAtPhase = new double[table.getPhaseCells()];
+        for (int p = 0; p < angleAtPhase.length; ++p)
+        {
+            // aim at the middle of the longest run of scoring angles, the safest shot
+            int bestStart = 0, bestLength = 0;
+            int runStart = 0;
+            for (int a = 0; a < angleCells; ++a)
+            {
+                if (!table.scores(p * angleCells + a))
+                {
+                    runStart = a + 1;
+                    continue;
+                }
+                ++scoringPhases[a];
+                if (a + 1 - runStart > bestLength)
+                {
+                    bestStart = runStart;
+                    bestLength = a + 1 - runStart;
+                }
+            }
+            angleAtPhase[p] = bestLength == 0 ? Bot.WAIT :
+                    (table.getAngle(bestStart) + table.getAngle(bestStart + bestLength - 1)) / 2;
+        }
+
+        int best = 0;
+        for (int a = 1; a < angleCells; ++a)
+            if (scoringPhases[a] > scoringPhases[best])
+                best = a;
+        fixedAngle = table.getAngle(best);
+    }
+
+    // a new bot for one game; IllegalArgumentException if name isn't one of NAMES
+    public Bot create(String name)
+    {
+        if (name.equals("random"))
+            return new RandomBot();
+        if (name.equals("fixed"))
+            return new FixedAngleBot(fixedAngle);
+        if (name.equals("lookup"))
+            return new LookupBot(table, angleAtPhase);
+        throw new IllegalArgumentException("unknown bot " + name);
+    }
+
+    // shoots anywhere between straight up and straight right, after a pause of up to a
+    // second; a baseline for the others
+    private static class RandomBot implements Bot
+    {
+        private static final int MAX_WAIT_STEPS = 60;
+
+        private Random random;
+        private int wait; // steps left before the next shot
+
+        @Override
+        public void startGame(Random random)
+        {
+            this.random = random;
+            wait = random.nextInt(MAX_WAIT_STEPS);
+        }
+
+        @Override
+        public double nextShot(GameWorld world)
+        {
+            if (wait-- > 0)
+                return WAIT;
+            wait = random.nextInt(MAX_WAIT_STEPS);
+            return random.nextDouble() * Math.PI / 2;
+        }
+    } // end class RandomBot
+
+    // the one angle that scores at the most hoop phases, as fast as it can shoot
+    private static class FixedAngleBot implements Bot
+    {
+        private final double angle;
+        private Random random;
+
+        FixedAngleBot(double angle)
+        {
+            this.angle = angle;
+        }
+
+        @Override
+        public void startGame(Random random)
+        {
+            this.random = random;
+        }
+
+        @Override
+        public double nextShot(GameWorld world)
+        {
+            return angle + random.nextGaussian() * AIM_SPREAD;
+        }
+    } // end class FixedAngleBot
+
+    // watches the hoop and shoots only when the table says a shot from here scores
+    private static class LookupBot implements Bot
+    {
+        private final TrajectoryTable table;
+        private final double[] angleAtPhase;
+        private Random random;
+
+        LookupBot(TrajectoryTable table, double[] angleAtPhase)
+        {
+            this.table = table;
+            this.angleAtPhase = angleAtPhase;
+        }
+
+        @Override
+        public void startGame(Random random)
+        {
+            this.random = random;
+        }
+
+        @Override
+        public double nextShot(GameWorld world)
+        {
+            double angle = angleAtPhase[table.findPhaseCell(world.getHoopPhase())];
+            return Double.isNaN(angle) ? WAIT : angle + random.nextGaussian() * AIM_SPREAD;
+        }
+    } // end class LookupBot
+} // end class Bots
@@ -0,0 +1,105 @@
+package edu.augustana.csc490.basketballgamehanson.simulator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import edu.augustana.csc490.basketballgamehanson.engine.GameWorld;
+import edu.augustana.csc490.basketballgamehanson.engine.Level;
+import edu.augustana.csc490.basketballgamehanson.engine.ScriptedGame;
+import edu.augustana.csc490.basketballgamehanson.engine.SessionRecording;
+import edu.augustana.csc490.basketballgamehanson.engine.SessionReplay;
+
+/**
+ * Replays session recordings pulled off a device, on the level each names, and checks
+ * that each one ends with the recorded score and final state, reporting how much faster
+ * than real time it ran, and exits non-zero if any doesn't. Can also record a scripted
+ * game from a seed, to have something to replay without a device.
+ *
+ * Usage: ReplayTool file...
+ *        ReplayTool --record file [seed]
+ */
+public class ReplayTool
+{
+    // replay file and report on it; false if it didn't end as recorded
+    private static boolean replay(String file) throws IOException
+    {
+        SessionRecording recording;
+        InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try
+        {
+            recording = SessionRecording.readFrom(in);
+        }
+        finally
+        {
+            in.close();
+        }
+
+        // the level it was played on, from the same files as the app's
+        Level level;
+        try
+        {
+            level = Tournament.loadLevel(recording.getLevelName());
+        }
+        catch (IOException e)
+        {
+            System.out.println(file + ": can't replay level " + recording.getLevelName() +
+                    ": " + e.getMessage());
+            return false;
+        }
+
+        long start = System.nanoTime();
+        SessionReplay replay = new SessionReplay(recording, level);
+        GameWorld world = replay.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(String.format("%s: %d shots, %d steps, score %d (recorded %d) %s, " +
+                        "%.2f ms, %.0fx real time", file, recording.getShotCount(),
+                replay.getStepIndex(), world.getScore(), recording.getScore(),
+                replay.matchesRecording() ? "MATCH" : "MISMATCH", seconds * 1000,
+                world.getTotalElapsedTime() / seconds));
+        return replay.matchesRecording();
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length == 0 || (args[0].equals("--record") && args.length < 2))
+        {
+            System.err.println("Usage: ReplayTool file...");
+            System.err.println("       ReplayTool --record file [seed]");
+            System.exit(2);
+        }
+
+        if (args.length > 1 && args[0].equals("--record"))
+        {
+            long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+
+            SessionRecording recording = ScriptedGame.record(seed);
+            OutputStream out = new BufferedOutputStream(new FileOutputStream(args[1]));
+            try
+            {
+                recording.writeTo(out);
+            }
+            finally
+            {
+                out.close();
+            }
+            System.out.println(String.format("%s: %d shots, score %d", args[1],
+                    recording.getShotCount(), recording.getScore()));
+            return;
+        }
+
+        int mismatches = 0;
+        for (String file : args)
+        {
+            if (!replay(file))
+                ++mismatches;
+        }
+        if (mismatches > 0)
+            System.exit(1);
+    }
+} // end class ReplayTool
@@ -0,0 +1,102 @@
+package edu.augustana.csc490.basketballgamehanson.simulator;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Final scores of a set of games, as a count per score, with the shots and steps they
+ * took. Each tournament task fills its own and they are merged afterwards.
+ */
+public class ScoreDistribution
+{
+    private static final int BAR_WIDTH = 50; // characters in the longest histogram bar
+
+    private long[] games = new long[16]; // indexed by score, grown as needed
+    private long gameCount;
+    private long shots;
+    private long steps;
+
+    public void record(int score, int shotsTaken, long gameSteps)
+    {
+        if (score >= games.length)
+            games = Arrays.copyOf(games, Math.max(score + 1, games.length * 2));
+        ++games[score];
+        ++gameCount;
+        shots += shotsTaken;
+        steps += gameSteps;
+    }
+
+    // add other's games to these
+    public void merge(ScoreDistribution other)
+    {
+        if (other.games.length > games.length)
+            games = Arrays.copyOf(games, other.games.length);
+        for (int score = 0; score < other.games.length; ++score)
+            games[score] += other.games[score];
+        gameCount += other.gameCount;
+        shots += other.shots;
+        steps += other.steps;
+    }
+
+    public double getMean()
+    {
+        long total = 0;
+        for (int score = 0; score < games.length; ++score)
+            total += score * games[score];
+        return gameCount == 0 ? 0 : (double) total / gameCount;
+    }
+
+    public double getStandardDeviation()
+    {
+        double mean = getMean();
+        double squares = 0;
+        for (int score = 0; score < games.length; ++score)
+            squares += games[score] * (score - mean) * (score - mean);
+        return gameCount == 0 ? 0 : Math.sqrt(squares / gameCount);
+    }
+
+    // the score at or below which percentile p (0 to 100) of the games fall
+    public int getPercentile(double p)
+    {
+        long rank = Math.max(1, (long) Math.ceil(gameCount * p / 100));
+        long seen = 0;
+        for (int score = 0; score < games.length; ++score)
+        {
+            seen += games[score];
+            if (seen >= rank)
+                return score;
+        }
+        return games.length - 1;
+    }
+
+    public long getTotalScore()
+    {
+        long total = 0;
+        for (int score = 0; score < games.length; ++score)
+            total += score * games[score];
+        return total;
+    }
+
+    public long getGameCount() { return gameCount; }
+    public long getShots() { return shots; }
+    public long getSteps() { return steps; }
+
+    // one bar per score from the lowest to the highest seen
+    public void print(PrintStream out)
+    {
+        if (gameCount == 0)
+            return;
+
+        long most = 0;
+        for (long count : games)
+            most = Math.max(most, count);
+        int lowest = getPercentile(0), highest = getPercentile(100);
+        for (int score = lowest; score <= highest; ++score)
+        {
+            StringBuilder bar = new StringBuilder();
+            for (long i = 0; i < games[score] * BAR_WIDTH / most; ++i)
+                bar.append('#');
+            out.println(String.format("%5d | %-" + BAR_WIDTH + "s %d", score, bar, games[score]));
+        }
+    }
+} // end class ScoreDistribution
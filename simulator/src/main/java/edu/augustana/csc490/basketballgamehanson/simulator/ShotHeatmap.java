@@ -0,0 +1,100 @@
+package edu.augustana.csc490.basketballgamehanson.simulator;
+
+import java.io.PrintStream;
+
+/**
+ * Make counts for a grid of shot angle (rows) by hoop phase (columns).
+ */
+public class ShotHeatmap
+{
+    private static final String SHADES = " .:-=+*#%@"; // darker means more likely to score
+
+    private final int angleCells;
+    private final int phaseCells;
+    private final double minAngle;
+    private final double maxAngle;
+    private final long[] attempts;
+    private final long[] makes;
+
+    public ShotHeatmap(int angleCells, int phaseCells, double minAngle, double maxAngle)
+    {
+        this.angleCells = angleCells;
+        this.phaseCells = phaseCells;
+        this.minAngle = minAngle;
+        this.maxAngle = maxAngle;
+        attempts = new long[angleCells * phaseCells];
+        makes = new long[angleCells * phaseCells];
+    }
+
+    // each cell is written by exactly one worker, so no synchronization is needed
+    void record(int angleCell, int phaseCell, long cellAttempts, long cellMakes)
+    {
+        int i = angleCell * phaseCells + phaseCell;
+        attempts[i] += cellAttempts;
+        makes[i] += cellMakes;
+    }
+
+    public double getMakeProbability(int angleCell, int phaseCell)
+    {
+        int i = angleCell * phaseCells + phaseCell;
+        return attempts[i] == 0 ? 0 : (double) makes[i] / attempts[i];
+    }
+
+    public long getTotalAttempts()
+    {
+        long total = 0;
+        for (long a : attempts)
+            total += a;
+        return total;
+    }
+
+    public long getTotalMakes()
+    {
+        long total = 0;
+        for (long m : makes)
+            total += m;
+        return total;
+    }
+
+    public int getAngleCells() { return angleCells; }
+    public int getPhaseCells() { return phaseCells; }
+
+    // angle at the middle of a row, in radians from vertical
+    public double getAngle(int angleCell)
+    {
+        return minAngle + (maxAngle - minAngle) * (angleCell + 0.5) / angleCells;
+    }
+
+    // draw the grid as shaded characters, one row per angle
+    public void print(PrintStream out)
+    {
+        out.println("angle (deg) | hoop phase 0 -> 1, shade = make probability");
+        for (int a = 0; a < angleCells; ++a)
+        {
+            StringBuilder row = new StringBuilder();
+            row.append(String.format("%11.1f | ", Math.toDegrees(getAngle(a))));
+            for (int p = 0; p < phaseCells; ++p)
+            {
+                double probability = getMakeProbability(a, p);
+                int shade = (int) Math.min(SHADES.length() - 1, Math.ceil(probability * (SHADES.length() - 1)));
+                row.append(SHADES.charAt(shade));
+            }
+            out.println(row);
+        }
+    }
+
+    // one line per cell: angle in degrees, phase, attempts, makes, probability
+    public void printCsv(PrintStream out)
+    {
+        out.println("angle,phase,attempts,makes,probability");
+        for (int a = 0; a < angleCells; ++a)
+        {
+            for (int p = 0; p < phaseCells; ++p)
+            {
+                int i = a * phaseCells + p;
+                out.println(String.format("%.3f,%.4f,%d,%d,%.5f", Math.toDegrees(getAngle(a)),
+                        (p + 0.5) / phaseCells, attempts[i], makes[i], getMakeProbability(a, p)));
+            }
+        }
+    }
+} // end class ShotHeatmap
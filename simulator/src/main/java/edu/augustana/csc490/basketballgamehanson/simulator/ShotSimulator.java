@@ -0,0 +1,158 @@
+package edu.augustana.csc490.basketballgamehanson.simulator;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.augustana.csc490.basketballgamehanson.engine.FixedStepLoop;
+import edu.augustana.csc490.basketballgamehanson.engine.GameWorld;
+
+/**
+ * Monte Carlo shot simulator for difficulty tuning. Fires shots through the real
+ * GameWorld physics and scoring across a grid of shot angle by hoop phase and reports
+ * how often each cell scores. Hoop phase columns are split across a fork-join pool;
+ * every worker owns its worlds, so nothing mutable is shared between threads.
+ *
+ * Usage: ShotSimulator [angles] [phases] [samplesPerCell] [threads] [--csv]
+ */
+public class ShotSimulator
+{
+    private static final double MAX_SHOT_TIME = 10; // seconds before a shot is abandoned
+
+    private final int angleCells;
+    private final int phaseCells;
+    private final int samplesPerCell; // shots per cell, spread over sub-phases and angles
+    private final double step;
+    private final long seed;
+
+    public ShotSimulator(int angleCells, int phaseCells, int samplesPerCell, long seed)
+    {
+        this.angleCells = angleCells;
+        this.phaseCells = phaseCells;
+        this.samplesPerCell = samplesPerCell;
+        this.step = FixedStepLoop.DEFAULT_STEP;
+        this.seed = seed;
+    }
+
+    // run every cell on pool and return the filled-in heatmap
+    public ShotHeatmap run(ForkJoinPool pool)
+    {
+        ShotHeatmap heatmap = new ShotHeatmap(angleCells, phaseCells, 0, Math.PI / 2);
+        pool.invoke(new PhaseRange(heatmap, 0, phaseCells));
+        return heatmap;
+    }
+
+    // splits hoop phase columns until each task owns a single column
+    private class PhaseRange extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final ShotHeatmap heatmap;
+        private final int from;
+        private final int to;
+
+        PhaseRange(ShotHeatmap heatmap, int from, int to)
+        {
+            this.heatmap = heatmap;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from == 1)
+            {
+                simulatePhase(heatmap, from);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new PhaseRange(heatmap, from, middle), new PhaseRange(heatmap, middle, to));
+        }
+    } // end class PhaseRange
+
+    // fire every sample for one phase column
+    private void simulatePhase(ShotHeatmap heatmap, int phaseCell)
+    {
+        Random random = new Random(seed * 31 + phaseCell); // reproducible per column
+        GameWorld hoop = new GameWorld(); // advances through the column's phases
+        GameWorld shot = new GameWorld(); // restored from hoop before every shot
+
+        // move the hoop to where this column starts
+        double period = hoop.getHoopPeriod();
+        double columnStart = period * phaseCell / phaseCells;
+        advance(hoop, columnStart);
+
+        // spread the column's samples over sub-phases so the hoop is not stepped per shot
+        int subPhases = Math.max(1, (int) Math.round(period / phaseCells / step));
+        long[] attempts = new long[angleCells];
+        long[] makes = new long[angleCells];
+        double angleWidth = Math.PI / 2 / angleCells;
+
+        for (int s = 0; s < subPhases; ++s)
+        {
+            int samples = samplesPerCell / subPhases + (s < samplesPerCell % subPhases ? 1 : 0);
+            for (int a = 0; a < angleCells; ++a)
+            {
+                for (int i = 0; i < samples; ++i)
+                {
+                    double angle = angleWidth * (a + random.nextDouble());
+                    shot.copyFrom(hoop);
+                    ++attempts[a];
+                    if (shootAndScore(shot, angle))
+                        ++makes[a];
+                }
+            }
+            hoop.step(step);
+        }
+
+        for (int a = 0; a < angleCells; ++a)
+            heatmap.record(a, phaseCell, attempts[a], makes[a]);
+    }
+
+    private void advance(GameWorld world, double seconds)
+    {
+        for (double t = 0; t < seconds; t += step)
+            world.step(step);
+    }
+
+    // shoot at angle and run until the ball leaves the screen; true if it scored
+    private boolean shootAndScore(GameWorld world, double angle)
+    {
+        int scoreBefore = world.getScore();
+        if (!world.shootBasketball(angle))
+            return false;
+
+        for (double t = 0; world.isBasketballOnScreen() && t < MAX_SHOT_TIME; t += step)
+            world.step(step);
+
+        return world.getScore() > scoreBefore;
+    }
+
+    public static void main(String[] args)
+    {
+        int angles = args.length > 0 ? Integer.parseInt(args[0]) : 90;
+        int phases = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int samples = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        boolean csv = args.length > 4 && args[4].equals("--csv");
+
+        ShotSimulator simulator = new ShotSimulator(angles, phases, samples, 42);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        long start = System.nanoTime();
+        ShotHeatmap heatmap = simulator.run(pool);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        if (csv)
+            heatmap.printCsv(System.out);
+        else
+            heatmap.print(System.out);
+
+        long shots = heatmap.getTotalAttempts();
+        System.out.println(String.format("%d shots, %.2f%% made, %d threads, %.2f s, %.0f shots/s",
+                shots, 100.0 * heatmap.getTotalMakes() / shots, threads, seconds, shots / seconds));
+    }
+} // end class ShotSimulator
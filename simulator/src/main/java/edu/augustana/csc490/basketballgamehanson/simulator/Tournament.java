@@ -0,0 +1,201 @@
+package edu.augustana.csc490.basketballgamehanson.simulator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import edu.augustana.csc490.basketballgamehanson.engine.FixedStepLoop;
+import edu.augustana.csc490.basketballgamehanson.engine.GameWorld;
+import edu.augustana.csc490.basketballgamehanson.engine.Level;
+import edu.augustana.csc490.basketballgamehanson.engine.TrajectoryTable;
+
+/**
+ * Plays full 60-second games between bots and the real GameWorld, headless and without
+ * pacing, and reports each bot's score distribution. A bot's games are split across a
+ * fork-join pool; every task owns its world and bots and returns its own
+ * ScoreDistribution, merged on the way back up, so nothing mutable is shared between
+ * threads. Game g always gets the same seed, so the results don't depend on the thread
+ * count. Doubles as a load generator for the engine.
+ *
+ * Usage: Tournament [gamesPerBot] [threads] [--rapid-fire] [--level name] [bot ...]
+ * where name is one of the app's level files, level_name.txt, which the build puts on
+ * the classpath.
+ */
+public class Tournament
+{
+    private static final int LEAF_GAMES = 8; // games per task once split
+
+    // the aim preview's table, as ShooterView builds it, which the smarter bots read
+    private static final int TABLE_ANGLES = 64;
+    private static final int TABLE_PHASES = 48;
+    private static final int TABLE_POINTS = 20;
+    private static final int TABLE_STEPS_PER_POINT = 3;
+
+    private final Bots bots;
+    private final Level level;
+    private final int games;
+    private final boolean rapidFire;
+    private final double step;
+    private final long seed;
+
+    public Tournament(Bots bots, Level level, int games, boolean rapidFire, long seed)
+    {
+        this.bots = bots;
+        this.level = level;
+        this.games = games;
+        this.rapidFire = rapidFire;
+        this.step = FixedStepLoop.DEFAULT_STEP;
+        this.seed = seed;
+    }
+
+    // play every game for bot on pool
+    public ScoreDistribution play(String bot, ForkJoinPool pool)
+    {
+        bots.create(bot); // fail here on an unknown name, not in a worker
+        return pool.invoke(new GameRange(bot, 0, games));
+    }
+
+    // splits a range of games until each task has a few to play
+    private class GameRange extends RecursiveTask<ScoreDistribution>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final String bot;
+        private final int from;
+        private final int to;
+
+        GameRange(String bot, int from, int to)
+        {
+            this.bot = bot;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ScoreDistribution compute()
+        {
+            if (to - from <= LEAF_GAMES)
+            {
+                ScoreDistribution results = new ScoreDistribution();
+                GameWorld world = new GameWorld(rapidFire, level); // reset for each game
+                for (int game = from; game < to; ++game)
+                    playGame(world, bot, game, results);
+                return results;
+            }
+
+            int middle = (from + to) >>> 1;
+            GameRange second = new GameRange(bot, middle, to);
+            second.fork();
+            ScoreDistribution results = new GameRange(bot, from, middle).compute();
+            results.merge(second.join());
+            return results;
+        }
+    } // end class GameRange
+
+    // play one game from the start to the buzzer
+    private void playGame(GameWorld world, String botName, int game, ScoreDistribution results)
+    {
+        Bot bot = bots.create(botName);
+        bot.startGame(new Random(seed * 31 + game));
+        world.reset();
+
+        long steps = 0;
+        while (!world.isGameOver())
+        {
+            if (world.canShoot())
+            {
+                double angle = bot.nextShot(world);
+                if (!Double.isNaN(angle))
+                    world.shootBasketball(angle);
+            }
+            world.step(step);
+            ++steps;
+        }
+        results.record(world.getScore(), world.getShotsTaken(), steps);
+    }
+
+    // the level in level_name.txt on the classpath
+    static Level loadLevel(String name) throws IOException
+    {
+        InputStream in = Tournament.class.getResourceAsStream("/level_" + name + ".txt");
+        if (in == null)
+            throw new IOException("no level file for " + name);
+        try
+        {
+            return Level.parse(new InputStreamReader(in, "UTF-8"));
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        List<Integer> numbers = new ArrayList<Integer>(); // games, then threads
+        List<String> names = new ArrayList<String>();
+        boolean rapidFire = false;
+        Level level = Level.CLASSIC;
+        for (int i = 0; i < args.length; ++i)
+        {
+            String arg = args[i];
+            if (arg.equals("--rapid-fire"))
+                rapidFire = true;
+            else if (arg.equals("--level") && i + 1 < args.length)
+                level = loadLevel(args[++i]);
+            else if (Character.isDigit(arg.charAt(0)))
+                numbers.add(Integer.parseInt(arg));
+            else
+                names.add(arg);
+        }
+        int games = numbers.size() > 0 ? numbers.get(0) : 1000;
+        int threads = numbers.size() > 1 ? numbers.get(1) : Runtime.getRuntime().availableProcessors();
+        if (names.isEmpty())
+            for (String name : Bots.NAMES)
+                names.add(name);
+
+        long start = System.nanoTime();
+        TrajectoryTable table = new TrajectoryTable(level, TABLE_ANGLES, TABLE_PHASES,
+                TABLE_POINTS, TABLE_STEPS_PER_POINT, FixedStepLoop.DEFAULT_STEP);
+        table.build();
+        Tournament tournament = new Tournament(new Bots(table), level, games, rapidFire, 42);
+        System.out.println(String.format("%d games per bot on %s, %s, %d threads, table built in %.0f ms",
+                games, level.getName(), rapidFire ? "rapid fire" : "classic", threads,
+                (System.nanoTime() - start) / 1e6));
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long totalGames = 0, totalSteps = 0;
+        double totalSeconds = 0;
+        for (String name : names)
+        {
+            start = System.nanoTime();
+            ScoreDistribution results = tournament.play(name, pool);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            totalGames += results.getGameCount();
+            totalSteps += results.getSteps();
+            totalSeconds += seconds;
+
+            System.out.println();
+            System.out.println(String.format("%s: %d games in %.2f s, %.0f games/s, %.2fM steps/s",
+                    name, results.getGameCount(), seconds, results.getGameCount() / seconds,
+                    results.getSteps() / seconds / 1e6));
+            System.out.println(String.format("score mean %.2f, sd %.2f, min %d, p50 %d, p90 %d, " +
+                            "max %d; %.1f shots/game, %.1f%% made", results.getMean(),
+                    results.getStandardDeviation(), results.getPercentile(0),
+                    results.getPercentile(50), results.getPercentile(90), results.getPercentile(100),
+                    (double) results.getShots() / results.getGameCount(),
+                    100.0 * results.getTotalScore() / Math.max(1, results.getShots())));
+            results.print(System.out);
+        }
+        pool.shutdown();
+
+        System.out.println();
+        System.out.println(String.format("%d games, %.2f s, %.0f games/s, %.2fM steps/s",
+                totalGames, totalSeconds, totalGames / totalSeconds, totalSteps / totalSeconds / 1e6));
+    }
+} // end class Tournament